@@ -2,6 +2,7 @@ package wanted;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
 
@@ -22,9 +23,13 @@ import wanted.model.ReadOnlyLoanBook;
 import wanted.model.ReadOnlyUserPrefs;
 import wanted.model.UserPrefs;
 import wanted.model.util.SampleDataUtil;
-import wanted.storage.JsonLoanBookStorage;
+import wanted.storage.JournalingLoanBookStorage;
 import wanted.storage.JsonUserPrefsStorage;
+import wanted.storage.LoanBookFormat;
+import wanted.storage.LoanBookSaveScheduler;
+import wanted.storage.LoanBookSnapshotCache;
 import wanted.storage.LoanBookStorage;
+import wanted.storage.RecoveredLoanBook;
 import wanted.storage.Storage;
 import wanted.storage.StorageManager;
 import wanted.storage.UserPrefsStorage;
@@ -43,9 +48,15 @@ public class MainApp extends Application {
     protected Ui ui;
     protected Logic logic;
     protected Storage storage;
+    protected LoanBookSaveScheduler saveScheduler;
+    protected LoanBookSnapshotCache snapshotCache; // null if the format of the data file is not cached
     protected Model model;
     protected Config config;
 
+    private LoanBookStorage loanBookStorage;
+    private boolean isLoanBookFromStorage; // whether the loan book in the model is the one in storage
+    private String recoveryReport; // what could not be recovered from the data file, if anything
+
     @Override
     public void init() throws Exception {
         logger.info("=============================[ Initializing LoanBook ]===========================");
@@ -57,24 +68,42 @@ public class MainApp extends Application {
 
         UserPrefsStorage userPrefsStorage = new JsonUserPrefsStorage(config.getUserPrefsFilePath());
         UserPrefs userPrefs = initPrefs(userPrefsStorage);
-        LoanBookStorage loanBookStorage = new JsonLoanBookStorage(userPrefs.getLoanBookFilePath());
+        Path loanBookFilePath = userPrefs.getLoanBookFilePath();
+        LoanBookFormat loanBookFormat = LoanBookFormat.of(loanBookFilePath);
+        logger.info("Using the " + loanBookFormat + " format for the data file");
+        loanBookStorage = loanBookFormat.createStorage(loanBookFilePath);
         storage = new StorageManager(loanBookStorage, userPrefsStorage);
+        List<Path> cachedFiles = loanBookFormat.getCachedFiles(loanBookFilePath);
+        if (!cachedFiles.isEmpty()) {
+            snapshotCache = new LoanBookSnapshotCache(LoanBookSnapshotCache.cachePathOf(loanBookFilePath),
+                    cachedFiles);
+        }
 
         model = initModelManager(storage, userPrefs);
 
-        logic = new LogicManager(model, storage);
+        saveScheduler = new LoanBookSaveScheduler(storage);
+        logic = new LogicManager(model, storage, saveScheduler);
 
         ui = new UiManager(logic);
     }
 
     /**
      * Returns a {@code ModelManager} with the data from {@code storage}'s loan book and {@code userPrefs}. <br>
-     * The data from the sample loan book will be used instead if {@code storage}'s loan book is not found,
-     * or an empty loan book will be used instead if errors occur when reading {@code storage}'s loan book.
+     * The snapshot kept by {@code snapshotCache}, if any, is used instead if the data file has not changed since it
+     * was written. The data from the sample loan book will be used instead if {@code storage}'s loan book is not found,
+     * or the loans that can be recovered will be used instead if errors occur when reading {@code storage}'s loan
+     * book. An empty loan book is used if nothing can be recovered.
      */
     private Model initModelManager(Storage storage, ReadOnlyUserPrefs userPrefs) {
         logger.info("Using data file : " + storage.getLoanBookFilePath());
 
+        Optional<ReadOnlyLoanBook> cachedLoanBook = snapshotCache == null ? Optional.empty() : snapshotCache.read();
+        if (cachedLoanBook.isPresent()) {
+            logger.info("Using the snapshot of the data file in " + snapshotCache.getCachePath());
+            isLoanBookFromStorage = true;
+            return new ModelManager(cachedLoanBook.get(), userPrefs);
+        }
+
         Optional<ReadOnlyLoanBook> loanBookOptional;
         ReadOnlyLoanBook initialData;
         try {
@@ -84,15 +113,44 @@ public class MainApp extends Application {
                         + " populated with a sample LoanBook.");
             }
             initialData = loanBookOptional.orElseGet(SampleDataUtil::getSampleLoanBook);
+            isLoanBookFromStorage = true;
         } catch (DataLoadingException e) {
             logger.warning("Data file at " + storage.getLoanBookFilePath() + " could not be loaded."
-                    + " Will be starting with an empty LoanBook.");
-            initialData = new LoanBook();
+                    + " Will be recovering the loans that can be read.");
+            initialData = recoverLoanBook(storage);
         }
 
         return new ModelManager(initialData, userPrefs);
     }
 
+    /**
+     * Returns the loans that can be recovered from {@code storage}'s loan book, which are saved back over it,
+     * or an empty loan book if nothing can be recovered.
+     */
+    private ReadOnlyLoanBook recoverLoanBook(Storage storage) {
+        RecoveredLoanBook recovered;
+        try {
+            recovered = storage.recoverLoanBook();
+        } catch (DataLoadingException e) {
+            logger.warning("Data file at " + storage.getLoanBookFilePath() + " could not be recovered."
+                    + " Will be starting with an empty LoanBook.");
+            return new LoanBook();
+        }
+
+        if (recovered.hasLosses()) {
+            recoveryReport = recovered.getReport();
+            logger.warning(recoveryReport);
+        }
+        try {
+            // the lost records are in the quarantine file, so they are not recovered again at the next launch
+            storage.saveLoanBook(recovered.getLoanBook());
+            isLoanBookFromStorage = true;
+        } catch (IOException e) {
+            logger.warning("Failed to save the recovered loan book " + StringUtil.getDetails(e));
+        }
+        return recovered.getLoanBook();
+    }
+
     private void initLogging(Config config) {
         LogsCenter.init(config);
     }
@@ -172,11 +230,34 @@ public class MainApp extends Application {
     public void start(Stage primaryStage) {
         logger.info("Starting LoanBook " + MainApp.VERSION);
         ui.start(primaryStage);
+        if (recoveryReport != null) {
+            ui.showWarning("Some loans could not be loaded", recoveryReport);
+        }
+    }
+
+    private void writeSnapshotCache() {
+        try {
+            snapshotCache.write(model.getLoanBook());
+        } catch (IOException e) {
+            logger.warning("Failed to write the snapshot of the data file " + StringUtil.getDetails(e));
+        }
     }
 
     @Override
     public void stop() {
         logger.info("============================ [ Stopping LoanBook ] =============================");
+        try {
+            saveScheduler.flush();
+            if (loanBookStorage instanceof JournalingLoanBookStorage) {
+                ((JournalingLoanBookStorage) loanBookStorage).awaitCompaction();
+            }
+            if (isLoanBookFromStorage && snapshotCache != null) {
+                // every change is saved now, so the files hold exactly the loan book in the model
+                writeSnapshotCache();
+            }
+        } catch (IOException e) {
+            logger.severe("Failed to save loan book " + StringUtil.getDetails(e));
+        }
         try {
             storage.saveUserPrefs(model.getUserPrefs());
         } catch (IOException e) {
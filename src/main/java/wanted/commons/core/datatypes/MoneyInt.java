@@ -1,5 +1,7 @@
 package wanted.commons.core.datatypes;
 
+import static java.util.Objects.requireNonNull;
+
 import wanted.commons.exceptions.IllegalValueException;
 import wanted.commons.util.AppUtil;
 import wanted.commons.util.ToStringBuilder;
@@ -9,34 +11,81 @@ import wanted.commons.util.ToStringBuilder;
  * <p>
  * {@code MoneyInt} is to be used for storing the exact value of some quantity regarding money,
  * assuming that the smallest unit of money is 1/100.
+ * <p>
+ * The value is held as a {@code long} number of cents, and {@link #add(MoneyInt)} and {@link #subtract(MoneyInt)}
+ * fail instead of silently overflowing. Whole-dollar amounts up to {@link #CACHED_DOLLARS_MAX} are interned.
  */
 public class MoneyInt implements Comparable<MoneyInt> {
-    private final int valueTimesOneHundred; // 100 times the original value, which is an integer
+    public static final String MESSAGE_OVERFLOW = "The money amount is too large";
+    public static final long CACHED_DOLLARS_MAX = 1000;
+
+    private static final MoneyInt[] WHOLE_DOLLARS = new MoneyInt[(int) CACHED_DOLLARS_MAX + 1];
+
+    static {
+        for (int dollar = 0; dollar < WHOLE_DOLLARS.length; dollar++) {
+            WHOLE_DOLLARS[dollar] = new MoneyInt(dollar * 100L);
+        }
+    }
+
+    public static final MoneyInt ZERO = WHOLE_DOLLARS[0];
+
+    private final long valueTimesOneHundred; // 100 times the original value, which is an integer
 
     /**
      * Private constructor.
      * <p>
-     * MoneyInt can only be created by calling {@link MoneyInt#fromDollarAndCent(int, int)}.
+     * MoneyInt can only be created by calling {@link MoneyInt#fromDollarAndCent(long, int)}.
      */
-    private MoneyInt(int valueTimesOneHundred) {
+    private MoneyInt(long valueTimesOneHundred) {
         assert valueTimesOneHundred >= 0;
         this.valueTimesOneHundred = valueTimesOneHundred;
     }
 
     /**
-     * Returns the original value times one-hundred as {@code int}.
+     * Returns the original value times one-hundred as {@code long}.
      */
-    public int getValueTimesOneHundred() {
+    public long getValueTimesOneHundred() {
         return valueTimesOneHundred;
     }
 
+    /**
+     * Returns a {@code MoneyInt} with the value of this plus {@code other}.
+     *
+     * @throws ArithmeticException if the result cannot be represented.
+     */
+    public MoneyInt add(MoneyInt other) {
+        requireNonNull(other);
+        if (valueTimesOneHundred > Long.MAX_VALUE - other.valueTimesOneHundred) {
+            throw new ArithmeticException(MESSAGE_OVERFLOW);
+        }
+        return fromCent(valueTimesOneHundred + other.valueTimesOneHundred);
+    }
+
+    /**
+     * Returns a {@code MoneyInt} with the value of this minus {@code other}.
+     *
+     * @throws IllegalArgumentException if {@code other} is greater than this.
+     */
+    public MoneyInt subtract(MoneyInt other) {
+        requireNonNull(other);
+        AppUtil.checkArgument(valueTimesOneHundred >= other.valueTimesOneHundred, "The result cannot be negative");
+        return fromCent(valueTimesOneHundred - other.valueTimesOneHundred);
+    }
+
+    /**
+     * Returns true if the value is zero.
+     */
+    public boolean isZero() {
+        return valueTimesOneHundred == 0;
+    }
+
     /**
      * Returns the {@code String} representation of the original value
      * with exactly two digits after the decimal point.
      */
     public String getStringRepresentationWithFixedDecimalPoint() {
-        int beforeDecimalPoint = valueTimesOneHundred / 100;
-        int afterDecimalPoint = valueTimesOneHundred % 100;
+        long beforeDecimalPoint = valueTimesOneHundred / 100;
+        long afterDecimalPoint = valueTimesOneHundred % 100;
         return String.format("%d.%02d", beforeDecimalPoint, afterDecimalPoint);
     }
 
@@ -47,14 +96,16 @@ public class MoneyInt implements Comparable<MoneyInt> {
      * @throws IllegalValueException if either of the following conditions is not satisfied:
      *     - {@code dollar} is a non-negative integer
      *     - {@code cent} is a non-negative integer between 0 and 99, inclusive.
+     *     - the value fits in a {@code long} number of cents.
      */
 
-    public static MoneyInt fromDollarAndCent(int dollar, int cent) throws IllegalArgumentException {
+    public static MoneyInt fromDollarAndCent(long dollar, int cent) throws IllegalArgumentException {
         AppUtil.checkArgument(dollar >= 0, "The dollar value cannot be negative");
         AppUtil.checkArgument(cent >= 0, "The cent value cannot be negative");
         AppUtil.checkArgument(cent <= 99, "The cent value cannot exceed 99");
+        AppUtil.checkArgument(dollar <= (Long.MAX_VALUE - cent) / 100, MESSAGE_OVERFLOW);
 
-        return new MoneyInt(dollar * 100 + cent);
+        return fromCent(dollar * 100 + cent);
     }
 
     /**
@@ -65,9 +116,12 @@ public class MoneyInt implements Comparable<MoneyInt> {
      *     - {@code cent} is a non-negative integer.
      */
 
-    public static MoneyInt fromCent(int cent) throws IllegalArgumentException {
+    public static MoneyInt fromCent(long cent) throws IllegalArgumentException {
         AppUtil.checkArgument(cent >= 0, "The cent value cannot be negative");
 
+        if (cent % 100 == 0 && cent / 100 <= CACHED_DOLLARS_MAX) {
+            return WHOLE_DOLLARS[(int) (cent / 100)];
+        }
         return new MoneyInt(cent);
     }
 
@@ -86,6 +140,11 @@ public class MoneyInt implements Comparable<MoneyInt> {
         return valueTimesOneHundred == otherMoneyInt.valueTimesOneHundred;
     }
 
+    @Override
+    public int hashCode() {
+        return Long.hashCode(valueTimesOneHundred);
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this).add("valueTimesOneHundred", valueTimesOneHundred).toString();
@@ -93,6 +152,6 @@ public class MoneyInt implements Comparable<MoneyInt> {
 
     @Override
     public int compareTo(MoneyInt other) {
-        return this.valueTimesOneHundred - other.valueTimesOneHundred;
+        return Long.compare(this.valueTimesOneHundred, other.valueTimesOneHundred);
     }
 }
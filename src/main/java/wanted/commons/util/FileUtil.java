@@ -1,10 +1,15 @@
 package wanted.commons.util;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Writes and reads files
@@ -73,11 +78,61 @@ public class FileUtil {
     }
 
     /**
-     * Writes given string to a file.
+     * Writes given string to a file, replacing its content atomically (see {@link #writeToFileAtomically}).
      * Will create the file if it does not exist yet.
      */
     public static void writeToFile(Path file, String content) throws IOException {
-        Files.write(file, content.getBytes(CHARSET));
+        writeToFileAtomically(file, content.getBytes(CHARSET));
+    }
+
+    /**
+     * Replaces the content of {@code file} with {@code content} in a single step, so that readers (and a crash)
+     * see either the old or the new content, never a mix. The content is first written to a temporary file next
+     * to {@code file} and forced to the disk, and the temporary file is then moved over {@code file}.
+     * Will create the file if it does not exist yet.
+     */
+    public static void writeToFileAtomically(Path file, byte[] content) throws IOException {
+        createParentDirsOfFile(file);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        moveAtomically(tempFile, file);
+    }
+
+    /**
+     * Moves {@code source} over {@code target} as a single file system operation where the file system allows it.
+     * The move itself is forced to the disk where the file system allows it, so once this returns a crash leaves
+     * {@code target} with the content of {@code source}; that content should have been forced to the disk first.
+     */
+    public static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceParentDir(target);
+    }
+
+    /**
+     * Forces the entries of the directory containing {@code file}, such as a file just created or moved into it,
+     * to the disk. Does nothing on platforms where a directory cannot be opened, such as Windows.
+     */
+    public static void forceParentDir(Path file) {
+        Path parentDir = file.toAbsolutePath().getParent();
+        if (parentDir == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(parentDir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // the directory cannot be forced here; its entries reach the disk when the file system flushes them
+        }
     }
 
 }
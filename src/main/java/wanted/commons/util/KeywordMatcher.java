@@ -0,0 +1,207 @@
+package wanted.commons.util;
+
+import static wanted.commons.util.AppUtil.checkArgument;
+import static wanted.commons.util.CollectionUtil.requireAllNonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Finds a fixed list of keywords in a text, ignoring case, in a single pass over the text.
+ * <p>
+ * The keywords are compiled once into an Aho-Corasick automaton over case-folded characters, so matching a text
+ * takes time linear in its length however many keywords there are. A single pass tells both which keywords appear
+ * anywhere in the text and whether any keyword appears as a whole word, with the same meaning of word and of
+ * ignoring case as {@link StringUtil#containsWordIgnoreCase(String, String)}.
+ */
+public final class KeywordMatcher {
+
+    public static final String MESSAGE_EMPTY_KEYWORD = "Word parameter cannot be empty";
+    public static final String MESSAGE_NOT_SINGLE_WORD = "Word parameter should be a single word";
+
+    private static final int ROOT = 0;
+
+    private final int keywordCount;
+    private final int[] keywordLengths;
+    private final String invalidKeywordMessage; // null if every keyword is a single word
+    // the edges out of each node of the automaton, as labels in increasing order and the nodes they lead to
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] failures;
+    private final int[][] outputs; // the keywords that end at each node, including through its failure links
+
+    private KeywordMatcher(int keywordCount, int[] keywordLengths, String invalidKeywordMessage, char[][] labels,
+            int[][] targets, int[] failures, int[][] outputs) {
+        this.keywordCount = keywordCount;
+        this.keywordLengths = keywordLengths;
+        this.invalidKeywordMessage = invalidKeywordMessage;
+        this.labels = labels;
+        this.targets = targets;
+        this.failures = failures;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Compiles {@code keywords} into a matcher. Keywords are trimmed, and a keyword that is empty or is not a single
+     * word is only reported when a text is matched, as it is by {@link StringUtil#containsWordIgnoreCase}.
+     */
+    public static KeywordMatcher compile(List<String> keywords) {
+        requireAllNonNull(keywords);
+
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> endingKeywords = new ArrayList<>();
+        children.add(new TreeMap<>());
+        endingKeywords.add(new ArrayList<>());
+        int[] keywordLengths = new int[keywords.size()];
+        String invalidKeywordMessage = null;
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k).trim();
+            keywordLengths[k] = keyword.length();
+            String problem = keyword.isEmpty() ? MESSAGE_EMPTY_KEYWORD
+                    : keyword.chars().anyMatch(c -> isWhitespace((char) c)) ? MESSAGE_NOT_SINGLE_WORD
+                    : null;
+            if (problem != null) {
+                invalidKeywordMessage = invalidKeywordMessage == null ? problem : invalidKeywordMessage;
+                continue;
+            }
+            int node = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = fold(keyword.charAt(i));
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    endingKeywords.add(new ArrayList<>());
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+            endingKeywords.get(node).add(k);
+        }
+
+        int nodeCount = children.size();
+        int[] failures = new int[nodeCount];
+        // breadth first, so the failure link of a node, which is shallower, is complete before the node is reached
+        ArrayDeque<Integer> queue = new ArrayDeque<>(children.get(ROOT).values());
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : children.get(node).entrySet()) {
+                int child = edge.getValue();
+                int fallback = failures[node];
+                while (fallback != ROOT && !children.get(fallback).containsKey(edge.getKey())) {
+                    fallback = failures[fallback];
+                }
+                Integer failure = node == ROOT ? null : children.get(fallback).get(edge.getKey());
+                failures[child] = failure == null ? ROOT : failure;
+                endingKeywords.get(child).addAll(endingKeywords.get(failures[child]));
+                queue.add(child);
+            }
+        }
+
+        char[][] labels = new char[nodeCount][];
+        int[][] targets = new int[nodeCount][];
+        int[][] outputs = new int[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            TreeMap<Character, Integer> edges = children.get(node);
+            labels[node] = new char[edges.size()];
+            targets[node] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                labels[node][i] = edge.getKey();
+                targets[node][i++] = edge.getValue();
+            }
+            outputs[node] = endingKeywords.get(node).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new KeywordMatcher(keywords.size(), keywordLengths, invalidKeywordMessage, labels, targets, failures,
+                outputs);
+    }
+
+    /**
+     * Returns the keywords found in {@code text}.
+     *
+     * @throws IllegalArgumentException if a keyword is empty or is not a single word.
+     */
+    public Match match(String text) {
+        checkArgument(invalidKeywordMessage == null, invalidKeywordMessage);
+
+        boolean[] isFound = new boolean[keywordCount];
+        int foundCount = 0;
+        boolean isWordFound = false;
+        int node = ROOT;
+        for (int end = 1; end <= text.length(); end++) {
+            char c = fold(text.charAt(end - 1));
+            int next = next(node, c);
+            while (next < 0 && node != ROOT) {
+                node = failures[node];
+                next = next(node, c);
+            }
+            node = next < 0 ? ROOT : next;
+            for (int keyword : outputs[node]) {
+                if (!isFound[keyword]) {
+                    isFound[keyword] = true;
+                    foundCount++;
+                }
+                int start = end - keywordLengths[keyword];
+                isWordFound |= (start == 0 || isWhitespace(text.charAt(start - 1)))
+                        && (end == text.length() || isWhitespace(text.charAt(end)));
+            }
+        }
+        return new Match(foundCount, isWordFound);
+    }
+
+    private int next(int node, char c) {
+        char[] nodeLabels = labels[node];
+        for (int i = 0; i < nodeLabels.length; i++) {
+            if (nodeLabels[i] >= c) {
+                return nodeLabels[i] == c ? targets[node][i] : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code c} folded so that two characters are equal ignoring case exactly when their folded forms are
+     * equal, in the sense of {@link String#equalsIgnoreCase(String)}.
+     */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Returns true if {@code c} separates words, as the regular expression {@code \s} does.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * The keywords found in a text.
+     */
+    public static class Match {
+        private final int foundCount;
+        private final boolean isWordFound;
+
+        private Match(int foundCount, boolean isWordFound) {
+            this.foundCount = foundCount;
+            this.isWordFound = isWordFound;
+        }
+
+        /**
+         * Returns how many of the keywords appear in the text, as a whole word or as part of one.
+         * A keyword given more than once is counted each time.
+         */
+        public int getFoundCount() {
+            return foundCount;
+        }
+
+        /**
+         * Returns true if at least one keyword appears in the text as a whole word.
+         */
+        public boolean isWordFound() {
+            return isWordFound;
+        }
+    }
+}
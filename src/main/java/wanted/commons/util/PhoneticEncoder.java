@@ -0,0 +1,167 @@
+package wanted.commons.util;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Encodes words by how they sound in English, so that words that sound alike, such as {@code Smith} and
+ * {@code Smyth}, or {@code Stephen} and {@code Steven}, have the same code.
+ * <p>
+ * The encoding follows the rules of the original Metaphone algorithm: vowels are dropped except at the start of a
+ * word, letters that usually sound the same are given the same code, and silent letters are dropped. A leading
+ * vowel is always coded as {@code A}, as in Double Metaphone, and codes are cut to {@value #MAX_LENGTH} characters.
+ * Only the letters A to Z are encoded; anything else is ignored.
+ */
+public final class PhoneticEncoder {
+
+    public static final int MAX_LENGTH = 4;
+
+    private PhoneticEncoder() {}
+
+    /**
+     * Returns the phonetic code of {@code word}, which is empty if the word has no letters that are sounded.
+     */
+    public static String encode(String word) {
+        requireNonNull(word);
+        String letters = lettersOf(word);
+        int length = letters.length();
+        if (length == 0) {
+            return "";
+        }
+
+        StringBuilder code = new StringBuilder(MAX_LENGTH);
+        int i = 0;
+        int leadingVowel = 0; // the position of a vowel that is coded as the first sound, if any
+        if (letters.startsWith("AE") || letters.startsWith("GN") || letters.startsWith("KN")
+                || letters.startsWith("PN") || letters.startsWith("WR")) {
+            i = 1;
+            leadingVowel = 1;
+        } else if (letters.charAt(0) == 'X') {
+            code.append('S');
+            i = 1;
+            leadingVowel = -1;
+        } else if (letters.startsWith("WH")) {
+            code.append('W');
+            i = 2;
+            leadingVowel = -1;
+        }
+
+        for (; i < length && code.length() < MAX_LENGTH; i++) {
+            char c = letters.charAt(i);
+            char previous = at(letters, i - 1);
+            char next = at(letters, i + 1);
+            char afterNext = at(letters, i + 2);
+            if (c == previous && c != 'C') {
+                continue;
+            }
+            switch (c) {
+            case 'A':
+            case 'E':
+            case 'I':
+            case 'O':
+            case 'U':
+                if (i == leadingVowel) {
+                    code.append('A');
+                }
+                break;
+            case 'B':
+                if (!(i == length - 1 && previous == 'M')) {
+                    code.append('B');
+                }
+                break;
+            case 'C':
+                if (next == 'I' && afterNext == 'A' || next == 'H' && previous != 'S') {
+                    code.append('X');
+                } else if (isFrontVowel(next)) {
+                    if (previous != 'S') {
+                        code.append('S');
+                    }
+                } else {
+                    code.append('K');
+                }
+                break;
+            case 'D':
+                code.append(next == 'G' && isFrontVowel(afterNext) ? 'J' : 'T');
+                break;
+            case 'G':
+                if (next == 'H' && i + 2 < length && !isVowel(afterNext)
+                        || next == 'N' && (i + 2 == length || letters.startsWith("NED", i + 1) && i + 4 == length)) {
+                    break;
+                }
+                code.append(isFrontVowel(next) && previous != 'G' ? 'J' : 'K');
+                break;
+            case 'H':
+                if (isVowel(next) && "CGPST".indexOf(previous) < 0) {
+                    code.append('H');
+                }
+                break;
+            case 'K':
+                if (previous != 'C') {
+                    code.append('K');
+                }
+                break;
+            case 'P':
+                code.append(next == 'H' ? 'F' : 'P');
+                break;
+            case 'Q':
+                code.append('K');
+                break;
+            case 'S':
+                code.append(next == 'H' || next == 'I' && (afterNext == 'O' || afterNext == 'A') ? 'X' : 'S');
+                break;
+            case 'T':
+                if (next == 'I' && (afterNext == 'O' || afterNext == 'A')) {
+                    code.append('X');
+                } else if (next == 'H') {
+                    code.append('0'); // the "th" sound
+                } else if (!(next == 'C' && afterNext == 'H')) {
+                    code.append('T');
+                }
+                break;
+            case 'V':
+                code.append('F');
+                break;
+            case 'W':
+            case 'Y':
+                if (isVowel(next)) {
+                    code.append(c);
+                }
+                break;
+            case 'X':
+                code.append("KS");
+                break;
+            case 'Z':
+                code.append('S');
+                break;
+            default:
+                code.append(c);
+            }
+        }
+        return code.length() > MAX_LENGTH ? code.substring(0, MAX_LENGTH) : code.toString();
+    }
+
+    private static String lettersOf(String word) {
+        StringBuilder letters = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char c = Character.toUpperCase(word.charAt(i));
+            if (c >= 'A' && c <= 'Z') {
+                letters.append(c);
+            }
+        }
+        return letters.toString();
+    }
+
+    /**
+     * Returns the letter at {@code index}, or 0 if there is none.
+     */
+    private static char at(String letters, int index) {
+        return index >= 0 && index < letters.length() ? letters.charAt(index) : 0;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'A' || c == 'E' || c == 'I' || c == 'O' || c == 'U';
+    }
+
+    private static boolean isFrontVowel(char c) {
+        return c == 'E' || c == 'I' || c == 'Y';
+    }
+}
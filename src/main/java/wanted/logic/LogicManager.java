@@ -3,6 +3,7 @@ package wanted.logic;
 import java.io.IOException;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.Path;
+import java.util.Optional;
 import java.util.logging.Logger;
 
 import javafx.collections.ObservableList;
@@ -16,6 +17,7 @@ import wanted.logic.parser.exceptions.ParseException;
 import wanted.model.Model;
 import wanted.model.ReadOnlyLoanBook;
 import wanted.model.loan.Loan;
+import wanted.storage.LoanBookSaveScheduler;
 import wanted.storage.Storage;
 
 /**
@@ -31,14 +33,25 @@ public class LogicManager implements Logic {
 
     private final Model model;
     private final Storage storage;
+    private final LoanBookSaveScheduler saveScheduler; // null if the loan book is saved before execute returns
     private final LoanBookParser loanBookParser;
+    private long savedLoanBookVersion = -1; // version of the loan book last written to storage, -1 if none yet
 
     /**
      * Constructs a {@code LogicManager} with the given {@code Model} and {@code Storage}.
      */
     public LogicManager(Model model, Storage storage) {
+        this(model, storage, null);
+    }
+
+    /**
+     * Constructs a {@code LogicManager} that saves the loan book through {@code saveScheduler}, which writes it to
+     * {@code storage} in the background. A failed save is reported by the next command executed.
+     */
+    public LogicManager(Model model, Storage storage, LoanBookSaveScheduler saveScheduler) {
         this.model = model;
         this.storage = storage;
+        this.saveScheduler = saveScheduler;
         loanBookParser = new LoanBookParser();
     }
 
@@ -50,17 +63,50 @@ public class LogicManager implements Logic {
         Command command = loanBookParser.parseCommand(commandText);
         commandResult = command.execute(model);
 
+        if (saveScheduler != null) {
+            scheduleSave();
+            return commandResult;
+        }
+
+        long loanBookVersion = model.getLoanBookVersion();
+        if (loanBookVersion == savedLoanBookVersion) {
+            // nothing changed since the last save, e.g. help or a list that kept the order
+            return commandResult;
+        }
         try {
             storage.saveLoanBook(model.getLoanBook());
-        } catch (AccessDeniedException e) {
-            throw new CommandException(String.format(FILE_OPS_PERMISSION_ERROR_FORMAT, e.getMessage()), e);
+            savedLoanBookVersion = loanBookVersion;
         } catch (IOException ioe) {
-            throw new CommandException(String.format(FILE_OPS_ERROR_FORMAT, ioe.getMessage()), ioe);
+            throw toSaveFailure(ioe);
         }
 
         return commandResult;
     }
 
+    /**
+     * Schedules the loan book to be saved in the background if it changed, or if an earlier save failed.
+     *
+     * @throws CommandException if a save scheduled earlier has failed.
+     */
+    private void scheduleSave() throws CommandException {
+        Optional<IOException> failure = saveScheduler.takeFailure();
+        long loanBookVersion = model.getLoanBookVersion();
+        if (loanBookVersion != savedLoanBookVersion || failure.isPresent()) {
+            saveScheduler.schedule(model.getLoanBook());
+            savedLoanBookVersion = loanBookVersion;
+        }
+        if (failure.isPresent()) {
+            throw toSaveFailure(failure.get());
+        }
+    }
+
+    private CommandException toSaveFailure(IOException ioe) {
+        if (ioe instanceof AccessDeniedException) {
+            return new CommandException(String.format(FILE_OPS_PERMISSION_ERROR_FORMAT, ioe.getMessage()), ioe);
+        }
+        return new CommandException(String.format(FILE_OPS_ERROR_FORMAT, ioe.getMessage()), ioe);
+    }
+
     @Override
     public ReadOnlyLoanBook getLoanBook() {
         return model.getLoanBook();
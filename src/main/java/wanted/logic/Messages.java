@@ -21,6 +21,8 @@ public class Messages {
     public static final String MESSAGE_EXCESS_REPAYMENT_IN_HISTORY =
             "Invalid transaction update: This update would result in a negative remaining loan amount "
                     + "at some point in the history";
+    public static final String MESSAGE_LOAN_AMOUNT_TOO_LARGE =
+            "Invalid transaction update: The total loan amount would be too large to record";
     public static final String MESSAGE_PERSONS_LISTED_OVERVIEW = "%1$d persons listed!";
     public static final String MESSAGE_PERSONS_FOUND_OVERVIEW = "%1$d persons found!";
     public static final String MESSAGE_DUPLICATE_FIELDS =
@@ -84,7 +84,7 @@ public class EdithistCommand extends Command {
         }
 
         LoanTransaction loanTransactionToEdit =
-                loanToEdit.getLoanAmount().getTransactionHistoryCopy().get(transactionIndex.getZeroBased());
+                loanToEdit.getLoanAmount().getTransaction(transactionIndex.getZeroBased());
 
         LoanTransaction editedLoanTransaction =
                 createEditedTransaction(loanTransactionToEdit, editTransactionDescriptor);
@@ -94,6 +94,8 @@ public class EdithistCommand extends Command {
             editedLoan = loanToEdit.replaceTransaction(transactionIndex, editedLoanTransaction);
         } catch (ExcessRepaymentException e) {
             throw new CommandException(Messages.MESSAGE_EXCESS_REPAYMENT_IN_HISTORY);
+        } catch (ArithmeticException e) {
+            throw new CommandException(Messages.MESSAGE_LOAN_AMOUNT_TOO_LARGE);
         }
 
         model.setPerson(loanToEdit, editedLoan);
@@ -1,13 +1,17 @@
 package wanted.logic.commands;
 
 import static java.util.Objects.requireNonNull;
+import static wanted.logic.parser.CliSyntax.PREFIX_FUZZY;
+import static wanted.logic.parser.CliSyntax.PREFIX_SOUNDS_LIKE;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.function.Function;
 
 import javafx.collections.ObservableList;
+import wanted.commons.util.KeywordMatcher;
 import wanted.logic.Messages;
 import wanted.logic.commands.exceptions.CommandException;
 import wanted.model.LoanBook;
@@ -17,7 +21,8 @@ import wanted.model.loan.NameContainsKeywordsPredicate;
 
 /**
  * Finds and lists all persons in loan book whose name contains any of the argument keywords.
- * Keyword matching is case insensitive.
+ * Keyword matching is case insensitive. In fuzzy mode, a name matches a keyword if one of its words is within a
+ * given number of edits of the keyword. In phonetic mode, a name matches a keyword if one of its words sounds like it.
  */
 public class FindCommand extends Command {
 
@@ -25,16 +30,28 @@ public class FindCommand extends Command {
 
     public static final String COMMAND_WORD = "find";
     public static final String MESSAGE_SUCCESS = "Loan(s) found";
+    public static final int MAX_EDIT_DISTANCE = 3;
 
     public static final String MESSAGE_USAGE = COMMAND_WORD
             + ": Finds all persons whose names contain any specified keywords (case-insensitive).\n"
             + "Wanted list will be sorted with matches to the keywords (both fully and partially) at the top\n"
             + "Output message will indicate the number of names that fully match keyword entered.\n"
+            + "With " + PREFIX_FUZZY + "MAX_EDITS, names with a word within MAX_EDITS typos of a keyword match.\n"
+            + "With " + PREFIX_SOUNDS_LIKE + ", names with a word that sounds like a keyword match.\n"
             + "Parameters:\n"
-            + "    [KEYWORD]...\n"
-            + "Example: " + COMMAND_WORD + " alice bob charlie";
+            + "    KEYWORD [MORE_KEYWORDS]...\n"
+            + "    [" + PREFIX_FUZZY + "MAX_EDITS] (must be from 1 to " + MAX_EDIT_DISTANCE + ") or ["
+            + PREFIX_SOUNDS_LIKE + "]\n"
+            + "Example: " + COMMAND_WORD + " alice bob charlie\n"
+            + "Example: " + COMMAND_WORD + " alcie " + PREFIX_FUZZY + "1\n"
+            + "Example: " + COMMAND_WORD + " smyth " + PREFIX_SOUNDS_LIKE;
+
+    public static final String MESSAGE_INVALID_EDIT_DISTANCE =
+            "The number of typos allowed must be a whole number from 1 to " + MAX_EDIT_DISTANCE + ".";
 
     private final NameContainsKeywordsPredicate predicate;
+    private final int maxEditDistance; // 0 unless in fuzzy mode
+    private final boolean isPhonetic;
 
     /**
      * Constructs a {@code FindCommand} with the specified name-matching predicate.
@@ -43,8 +60,38 @@ public class FindCommand extends Command {
      *                  Must not be null.
      */
     public FindCommand(NameContainsKeywordsPredicate predicate) {
+        this(predicate, 0);
+    }
+
+    /**
+     * Constructs a {@code FindCommand} in fuzzy mode, which matches the names with a word within
+     * {@code maxEditDistance} edits of a keyword. A {@code maxEditDistance} of 0 matches as usual instead.
+     *
+     * @param predicate The predicate holding the keywords. Must not be null.
+     * @param maxEditDistance The number of edits allowed, from 0 to {@code MAX_EDIT_DISTANCE}.
+     */
+    public FindCommand(NameContainsKeywordsPredicate predicate, int maxEditDistance) {
+        this(predicate, maxEditDistance, false);
+    }
+
+    /**
+     * Constructs a {@code FindCommand} that, if {@code isPhonetic}, is in phonetic mode, which matches the names with
+     * a word that sounds like a keyword.
+     *
+     * @param predicate The predicate holding the keywords. Must not be null.
+     * @param isPhonetic Whether to match by sound instead of as usual.
+     */
+    public FindCommand(NameContainsKeywordsPredicate predicate, boolean isPhonetic) {
+        this(predicate, 0, isPhonetic);
+    }
+
+    private FindCommand(NameContainsKeywordsPredicate predicate, int maxEditDistance, boolean isPhonetic) {
         requireNonNull(predicate);
+        assert maxEditDistance >= 0 && maxEditDistance <= MAX_EDIT_DISTANCE;
+        assert !isPhonetic || maxEditDistance == 0 : "Phonetic and fuzzy modes cannot be combined";
         this.predicate = predicate;
+        this.maxEditDistance = maxEditDistance;
+        this.isPhonetic = isPhonetic;
     }
 
     @Override
@@ -53,23 +100,36 @@ public class FindCommand extends Command {
 
         LoanBook loanBook = (LoanBook) model.getLoanBook();
         ObservableList<Loan> originalList = loanBook.getPersonList();
-        List<Loan> sortedList = IntStream.range(0, originalList.size())
-                .mapToObj(i -> new IndexedLoan(originalList.get(i), i))
-                .sorted(Comparator
-                        .comparingInt((IndexedLoan il) -> getMatchScore(il.loan))
-                        .reversed()
-                        .thenComparing(il -> il.index))
-                .map(il -> il.loan)
-                .collect(Collectors.toList());
+        List<IndexedLoan> matchedLoans;
+        if (isPhonetic) {
+            matchedLoans = findWordMatches(loanBook, loanBook::getPositionsWithNameSoundingLike);
+        } else if (maxEditDistance > 0) {
+            matchedLoans = findWordMatches(loanBook,
+                    keyword -> loanBook.getPositionsWithNameWordWithin(keyword, maxEditDistance));
+        } else {
+            matchedLoans = findMatches(loanBook);
+        }
+        matchedLoans.sort(Comparator
+                .comparingInt((IndexedLoan il) -> il.score)
+                .reversed()
+                .thenComparing(il -> il.index));
+
+        List<Loan> sortedList = new ArrayList<>(originalList.size());
+        BitSet matched = new BitSet(originalList.size());
+        matchedLoans.forEach(il -> {
+            sortedList.add(il.loan);
+            matched.set(il.index);
+        });
+        // the loans that match no keyword keep their order after the matches
+        for (int i = matched.nextClearBit(0); i < originalList.size(); i = matched.nextClearBit(i + 1)) {
+            sortedList.add(originalList.get(i));
+        }
 
         assert sortedList.size() == originalList.size() : "New list must include all original items";
 
         loanBook.setPersons(sortedList);
 
-        // TO find number of matches found
-        long matchCount = sortedList.stream()
-                        .filter(predicate)
-                        .count();
+        long matchCount = matchedLoans.stream().filter(il -> il.isFullMatch).count();
         return new CommandResult(
                 String.format(Messages.MESSAGE_PERSONS_FOUND_OVERVIEW, matchCount));
     }
@@ -78,24 +138,56 @@ public class FindCommand extends Command {
     public boolean equals(Object other) {
         return other == this
                 || (other instanceof FindCommand
-                && predicate.equals(((FindCommand) other).predicate));
+                && predicate.equals(((FindCommand) other).predicate)
+                && maxEditDistance == ((FindCommand) other).maxEditDistance
+                && isPhonetic == ((FindCommand) other).isPhonetic);
     }
 
     /**
-     * Returns how many keywords are found in the loan's full name (case-insensitive).
+     * Returns the loans whose names contain a keyword, scored by how many keywords they contain. Only the loans found
+     * through the name index are matched, each in one pass over its name.
      */
-    private int getMatchScore(Loan loan) {
-        String lowerName = loan.getName().fullName.toLowerCase();
-        return (int) predicate.keywords().stream()
-                .filter(keyword -> lowerName.contains(keyword.toLowerCase()))
-                .count();
+    private List<IndexedLoan> findMatches(LoanBook loanBook) {
+        List<Loan> loans = loanBook.getPersonList();
+        BitSet candidates = new BitSet(loans.size());
+        predicate.keywords().forEach(keyword -> candidates.or(loanBook.getPositionsWithNameContaining(keyword)));
+
+        List<IndexedLoan> matchedLoans = new ArrayList<>(candidates.cardinality());
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            KeywordMatcher.Match match = predicate.match(loans.get(i));
+            matchedLoans.add(new IndexedLoan(loans.get(i), i, match.getFoundCount(), match.isWordFound()));
+        }
+        return matchedLoans;
+    }
+
+    /**
+     * Returns the loans with a word that matches a keyword, as found by {@code positionsOf} for each keyword, scored
+     * by how many keywords they match. All of them count as full matches.
+     */
+    private List<IndexedLoan> findWordMatches(LoanBook loanBook, Function<String, BitSet> positionsOf) {
+        List<Loan> loans = loanBook.getPersonList();
+        List<BitSet> positionsByKeyword = new ArrayList<>();
+        BitSet matched = new BitSet(loans.size());
+        for (String keyword : predicate.keywords()) {
+            BitSet positions = positionsOf.apply(keyword);
+            positionsByKeyword.add(positions);
+            matched.or(positions);
+        }
+
+        List<IndexedLoan> matchedLoans = new ArrayList<>(matched.cardinality());
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            int position = i;
+            int score = (int) positionsByKeyword.stream().filter(positions -> positions.get(position)).count();
+            matchedLoans.add(new IndexedLoan(loans.get(i), i, score, true));
+        }
+        return matchedLoans;
     }
 
     /**
-     * Helper class to track original index for stable sorting
+     * Helper class to track original index, match score and whether the match is full for stable sorting
      * Immutable data structure.
      */
-    private record IndexedLoan(Loan loan, int index) {
+    private record IndexedLoan(Loan loan, int index, int score, boolean isFullMatch) {
         private IndexedLoan {
             requireNonNull(loan);
         }
@@ -60,7 +60,12 @@ public class IncreaseCommand extends Command {
         }
 
         Loan loanIdentified = lastShownList.get(index.getZeroBased());
-        Loan newLoan = loanIdentified.addLoan(this.amount, this.date);
+        Loan newLoan;
+        try {
+            newLoan = loanIdentified.addLoan(this.amount, this.date);
+        } catch (ArithmeticException e) {
+            throw new CommandException(Messages.MESSAGE_LOAN_AMOUNT_TOO_LARGE);
+        }
         model.setPerson(loanIdentified, newLoan);
 
         return new CommandResult(String.format(MESSAGE_INCREASE_SUCCESS, Messages.format(newLoan)));
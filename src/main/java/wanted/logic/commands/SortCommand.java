@@ -21,8 +21,8 @@ public class SortCommand extends Command {
         LoanBook loanBook = (LoanBook) model.getLoanBook();
         ObservableList<Loan> oldList = loanBook.getPersonList();
         Comparator<Loan> comparator =
-                Comparator.nullsLast(Comparator.comparingInt(a -> (
-                        -a.getLoanAmount().getRemainingAmount().getValueTimesOneHundred())));
+                Comparator.nullsLast(Comparator.comparing((Loan a) -> a.getLoanAmount().getRemainingAmount())
+                        .reversed());
         List<Loan> sortedList = oldList.sorted(comparator);
         loanBook.setPersons(sortedList);
         return new CommandResult(String.format(MESSAGE_SUCCESS));
@@ -54,6 +54,7 @@ public class TagCommand extends Command {
 
         Loan personToEdit = lastShownList.get(index.getZeroBased());
         Loan editedPerson = BaseEdit.createEditedLoan(personToEdit, editLoanDescriptor);
+        // both are TagSets, so this compares bitmasks rather than looking up each tag
         if (!editedPerson.getTags().isEmpty() && personToEdit.getTags().containsAll(editedPerson.getTags())) {
             throw new CommandException(MESSAGE_DUPLICATE_TAG);
         }
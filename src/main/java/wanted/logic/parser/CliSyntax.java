@@ -14,5 +14,7 @@ public class CliSyntax {
     public static final Prefix PREFIX_AMOUNT = new Prefix("l/");
     public static final Prefix PREFIX_DATE = new Prefix("d/");
     public static final Prefix PREFIX_INDEX = new Prefix("i/");
+    public static final Prefix PREFIX_FUZZY = new Prefix("f/");
+    public static final Prefix PREFIX_SOUNDS_LIKE = new Prefix("s/");
 
 }
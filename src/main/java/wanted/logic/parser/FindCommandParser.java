@@ -1,8 +1,12 @@
 package wanted.logic.parser;
 
 import static wanted.logic.Messages.MESSAGE_INVALID_COMMAND_FORMAT;
+import static wanted.logic.parser.CliSyntax.PREFIX_FUZZY;
+import static wanted.logic.parser.CliSyntax.PREFIX_SOUNDS_LIKE;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 import wanted.logic.Messages;
 import wanted.logic.commands.FindCommand;
@@ -23,15 +27,27 @@ public class FindCommandParser implements Parser<FindCommand> {
         if (!FindCommand.IS_ENABLED) {
             throw new ParseException(Messages.MESSAGE_COMMAND_DISABLED);
         }
-        String trimmedArgs = args.trim();
-        if (trimmedArgs.isEmpty()) {
+        ArgumentMultimap argMultimap = ArgumentTokenizer.tokenize(args, PREFIX_FUZZY, PREFIX_SOUNDS_LIKE);
+        argMultimap.verifyNoDuplicatePrefixesFor(PREFIX_FUZZY, PREFIX_SOUNDS_LIKE);
+
+        String preamble = argMultimap.getPreamble();
+        Optional<String> maxEditDistance = argMultimap.getValue(PREFIX_FUZZY);
+        Optional<String> soundsLike = argMultimap.getValue(PREFIX_SOUNDS_LIKE);
+        boolean isPhonetic = soundsLike.isPresent();
+        // s/ takes no value, and cannot be used together with f/
+        if (preamble.isEmpty() || (isPhonetic && (!soundsLike.get().isEmpty() || maxEditDistance.isPresent()))) {
             throw new ParseException(
                     String.format(MESSAGE_INVALID_COMMAND_FORMAT, FindCommand.MESSAGE_USAGE));
         }
-
-        String[] nameKeywords = trimmedArgs.split("\\s+");
-
-        return new FindCommand(new NameContainsKeywordsPredicate(Arrays.asList(nameKeywords)));
+        List<String> nameKeywords = Arrays.asList(preamble.split("\\s+"));
+        NameContainsKeywordsPredicate predicate = new NameContainsKeywordsPredicate(nameKeywords);
+        if (isPhonetic) {
+            return new FindCommand(predicate, true);
+        }
+        if (maxEditDistance.isPresent()) {
+            return new FindCommand(predicate, ParserUtil.parseEditDistance(maxEditDistance.get()));
+        }
+        return new FindCommand(predicate);
     }
 
 }
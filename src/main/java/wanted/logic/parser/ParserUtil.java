@@ -9,6 +9,7 @@ import java.util.Set;
 import wanted.commons.core.datatypes.Index;
 import wanted.commons.core.datatypes.MoneyInt;
 import wanted.commons.util.StringUtil;
+import wanted.logic.commands.FindCommand;
 import wanted.logic.parser.exceptions.ParseException;
 import wanted.model.loan.Address;
 import wanted.model.loan.Email;
@@ -40,6 +41,21 @@ public class ParserUtil {
         return Index.fromOneBased(Integer.parseInt(trimmedIndex));
     }
 
+    /**
+     * Parses {@code maxEditDistance} into the number of typos a fuzzy find allows and returns it. Leading and trailing
+     * whitespaces will be trimmed.
+     * @throws ParseException if it is not a whole number from 1 to {@link FindCommand#MAX_EDIT_DISTANCE}.
+     */
+    public static int parseEditDistance(String maxEditDistance) throws ParseException {
+        requireNonNull(maxEditDistance);
+        String trimmedDistance = maxEditDistance.trim();
+        if (!StringUtil.isNonZeroUnsignedInteger(trimmedDistance)
+                || Integer.parseInt(trimmedDistance) > FindCommand.MAX_EDIT_DISTANCE) {
+            throw new ParseException(FindCommand.MESSAGE_INVALID_EDIT_DISTANCE);
+        }
+        return Integer.parseInt(trimmedDistance);
+    }
+
     /**
      * Parses a {@code String amount} into a {@code MoneyInt}.
      * Leading and trailing whitespaces will be trimmed.
@@ -53,7 +69,12 @@ public class ParserUtil {
             throw new ParseException(MESSAGE_INVALID_MONEY_AMOUNT);
         }
         String[] args = trimmedAmount.split("\\.");
-        return MoneyInt.fromDollarAndCent(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+        try {
+            return MoneyInt.fromDollarAndCent(Long.parseLong(args[0]), Integer.parseInt(args[1]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException, so this also covers too many digits
+            throw new ParseException(MoneyInt.MESSAGE_OVERFLOW);
+        }
     }
 
     /**
@@ -65,11 +86,11 @@ public class ParserUtil {
     public static LoanDate parseDate(String date) throws ParseException {
         requireNonNull(date);
         String trimmedDate = date.trim();
-        if (!LoanDate.isValidLoanDate(trimmedDate)) {
+        try {
+            return new LoanDate(trimmedDate);
+        } catch (IllegalArgumentException e) {
             throw new ParseException(LoanDate.MESSAGE_CONSTRAINTS);
         }
-        // todo: We should have a validity check in the future.
-        return new LoanDate(trimmedDate);
     }
 
     /**
@@ -2,9 +2,11 @@ package wanted.model;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.BitSet;
 import java.util.List;
 
 import javafx.collections.ObservableList;
+import wanted.commons.core.datatypes.MoneyInt;
 import wanted.commons.util.ToStringBuilder;
 import wanted.model.loan.Loan;
 import wanted.model.loan.UniqueLoanList;
@@ -12,10 +14,14 @@ import wanted.model.loan.UniqueLoanList;
 /**
  * Wraps all data at the loan book level
  * Duplicates are not allowed (by .isSamePerson comparison)
+ * <p>
+ * Every change to the loans or their order increases the {@link #getVersion() version}, so callers can tell
+ * whether anything changed since they last looked without comparing the whole book.
  */
 public class LoanBook implements ReadOnlyLoanBook {
 
     private final UniqueLoanList persons;
+    private long version;
 
     /*
      * The 'unusual' code block below is a non-static initialization block, sometimes used to avoid duplication
@@ -45,7 +51,28 @@ public class LoanBook implements ReadOnlyLoanBook {
      * {@code persons} must not contain duplicate persons.
      */
     public void setPersons(List<Loan> persons) {
+        requireNonNull(persons);
+        if (hasSameOrder(persons)) {
+            return;
+        }
         this.persons.setPersons(persons);
+        version++;
+    }
+
+    /**
+     * Returns true if {@code persons} holds exactly the same loans as this {@code LoanBook}, in the same order.
+     */
+    private boolean hasSameOrder(List<Loan> persons) {
+        List<Loan> current = this.persons.asUnmodifiableObservableList();
+        if (current.size() != persons.size()) {
+            return false;
+        }
+        for (int i = 0; i < current.size(); i++) {
+            if (current.get(i) != persons.get(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -73,6 +100,7 @@ public class LoanBook implements ReadOnlyLoanBook {
      */
     public void addPerson(Loan p) {
         persons.add(p);
+        version++;
     }
 
     /**
@@ -84,6 +112,7 @@ public class LoanBook implements ReadOnlyLoanBook {
         requireNonNull(editedPerson);
 
         persons.setPerson(target, editedPerson);
+        version++;
     }
 
     /**
@@ -92,6 +121,63 @@ public class LoanBook implements ReadOnlyLoanBook {
      */
     public void removePerson(Loan key) {
         persons.remove(key);
+        version++;
+    }
+
+    /**
+     * Returns the positions in the loan book of the loans whose full names contain {@code keyword}, ignoring case.
+     */
+    public BitSet getPositionsWithNameContaining(String keyword) {
+        return persons.positionsWithNameContaining(keyword);
+    }
+
+    /**
+     * Returns the positions in the loan book of the loans with a word in their full names within {@code maxDistance}
+     * edits of {@code keyword}, ignoring case.
+     */
+    public BitSet getPositionsWithNameWordWithin(String keyword, int maxDistance) {
+        return persons.positionsWithNameWordWithin(keyword, maxDistance);
+    }
+
+    /**
+     * Returns the positions in the loan book of the loans with a word in their full names that sounds like
+     * {@code keyword}.
+     */
+    public BitSet getPositionsWithNameSoundingLike(String keyword) {
+        return persons.positionsWithNameSoundingLike(keyword);
+    }
+
+    /**
+     * Returns a number that changes whenever the loans in this {@code LoanBook}, or their order, change.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the sum of the total loaned amounts of all loans in this {@code LoanBook}.
+     *
+     * @throws ArithmeticException if the sum does not fit in a {@code MoneyInt}.
+     */
+    public MoneyInt getTotalAmount() {
+        MoneyInt sum = MoneyInt.ZERO;
+        for (Loan loan : persons) {
+            sum = sum.add(loan.getLoanAmount().getTotalAmount());
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of the remaining amounts of all loans in this {@code LoanBook}.
+     *
+     * @throws ArithmeticException if the sum does not fit in a {@code MoneyInt}.
+     */
+    public MoneyInt getRemainingAmount() {
+        MoneyInt sum = MoneyInt.ZERO;
+        for (Loan loan : persons) {
+            sum = sum.add(loan.getLoanAmount().getRemainingAmount());
+        }
+        return sum;
     }
 
     //// util methods
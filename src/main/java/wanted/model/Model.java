@@ -52,6 +52,11 @@ public interface Model {
     /** Returns the LoanBook */
     ReadOnlyLoanBook getLoanBook();
 
+    /**
+     * Returns a number that changes whenever the loan book data changes.
+     */
+    long getLoanBookVersion();
+
     /**
      * Returns true if a loan with the same identity as {@code loan} exists in the loan book.
      */
@@ -87,6 +87,11 @@ public class ModelManager implements Model {
         return loanBook;
     }
 
+    @Override
+    public long getLoanBookVersion() {
+        return loanBook.getVersion();
+    }
+
     @Override
     public boolean hasPerson(Loan person) {
         requireNonNull(person);
@@ -2,9 +2,6 @@ package wanted.model.loan;
 
 import static wanted.commons.util.CollectionUtil.requireAllNonNull;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
@@ -17,6 +14,7 @@ import wanted.model.loan.transaction.AddLoanTransaction;
 import wanted.model.loan.transaction.LoanTransaction;
 import wanted.model.loan.transaction.RepayLoanTransaction;
 import wanted.model.tag.Tag;
+import wanted.model.tag.TagSet;
 
 /**
  * Represents a Loan in the loan book.
@@ -30,7 +28,7 @@ public class Loan {
 
     // Data fields
     private final LoanAmount loanAmount;
-    private final Set<Tag> tags = new HashSet<>();
+    private final TagSet tags;
 
     /**
      * Constructs a new Loan with the given name and the default state.
@@ -40,17 +38,19 @@ public class Loan {
         requireAllNonNull(name);
         this.name = name;
         this.loanAmount = new LoanAmount();
+        this.tags = TagSet.EMPTY;
         this.phone = Phone.EMPTY_PHONE;
     }
 
     /**
      * Constructs a new Loan with the given name, LoanAmount, tags, and phone.
+     * The tags are shared rather than copied if they are already a {@code TagSet}.
      */
     public Loan(Name name, LoanAmount loanAmount, Set<Tag> tags, Phone phone) {
         requireAllNonNull(name, loanAmount, tags);
         this.name = name;
         this.loanAmount = loanAmount;
-        this.tags.addAll(tags);
+        this.tags = TagSet.of(tags);
         this.phone = phone;
     }
 
@@ -70,8 +70,8 @@ public class Loan {
      * Returns an immutable tag set, which throws {@code UnsupportedOperationException}
      * if modification is attempted.
      */
-    public Set<Tag> getTags() {
-        return Collections.unmodifiableSet(tags);
+    public TagSet getTags() {
+        return tags;
     }
 
     /**
@@ -129,6 +129,7 @@ public class Loan {
      * @param loaned Amount given to loanee in this transaction.
      * @param date   Date of the transaction.
      * @return New Loan after the loaning transaction.
+     * @throws ArithmeticException if the total loan amount would not fit in a {@code MoneyInt}.
      */
     public Loan addLoan(MoneyInt loaned, LoanDate date) {
         requireAllNonNull(loaned, date);
@@ -184,14 +185,13 @@ public class Loan {
      */
     public Loan deleteTransaction(Index index) throws ExcessRepaymentException {
         requireAllNonNull(index);
-        ArrayList<LoanTransaction> transactions = this.loanAmount.getTransactionHistoryCopy();
-        if (index.getZeroBased() >= transactions.size()) {
+        if (index.getZeroBased() >= this.loanAmount.getTransactionsCount()) {
             throw new IllegalArgumentException("Index out of bounds.");
         }
 
-        transactions.remove(index.getZeroBased());
+        LoanAmount newLoanAmount = this.loanAmount.deleteTransaction(index.getZeroBased());
 
-        return new Loan(this.name, new LoanAmount(transactions), this.tags, this.phone);
+        return new Loan(this.name, newLoanAmount, this.tags, this.phone);
     }
 
     /**
@@ -205,13 +205,12 @@ public class Loan {
     public Loan replaceTransaction(Index index, LoanTransaction newTransaction)
             throws ExcessRepaymentException {
         requireAllNonNull(index, newTransaction);
-        ArrayList<LoanTransaction> transactions = this.loanAmount.getTransactionHistoryCopy();
-        if (index.getZeroBased() >= transactions.size()) {
+        if (index.getZeroBased() >= this.loanAmount.getTransactionsCount()) {
             throw new IllegalArgumentException("Index out of bounds.");
         }
 
-        transactions.set(index.getZeroBased(), newTransaction);
+        LoanAmount newLoanAmount = this.loanAmount.replaceTransaction(index.getZeroBased(), newTransaction);
 
-        return new Loan(this.name, new LoanAmount(transactions), this.tags, this.phone);
+        return new Loan(this.name, newLoanAmount, this.tags, this.phone);
     }
 }
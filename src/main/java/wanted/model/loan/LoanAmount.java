@@ -3,29 +3,37 @@ package wanted.model.loan;
 import static wanted.commons.util.CollectionUtil.requireAllNonNull;
 
 import java.util.ArrayList;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 import wanted.commons.core.datatypes.MoneyInt;
 import wanted.commons.util.ToStringBuilder;
 import wanted.model.loan.exceptions.ExcessRepaymentException;
 import wanted.model.loan.transaction.LoanTransaction;
+import wanted.model.loan.transaction.TransactionLog;
 
 /**
  * Manages the total amount, the remaining amount, and the transaction history of a loan.
  * Guarantees: immutable values
  * Due to the immutability of the class, methods that modify its state will return a new LoanAmount.
+ * <p>
+ * The transaction history can be deferred (see {@link #deferred}), in which case only the totals are kept until a
+ * transaction is first asked for.
  */
 public class LoanAmount implements Comparable<LoanAmount> {
+    public static final String MESSAGE_HISTORY_MISMATCH = "Deferred transaction history does not match its totals";
+
     private final MoneyInt totalAmount;
     private final MoneyInt remainingAmount;
-    private final ArrayList<LoanTransaction> transactionHistory;
+    private final int transactionsCount;
+    private volatile TransactionLog transactionHistory; // null while the history is deferred
+    private Supplier<TransactionLog> historyLoader; // guarded by this; null once the history is loaded
 
     /**
      * Constructs a new LoanAmount with an empty transaction history (i.e. totalAmount = remainingAmount = 0).
      */
     public LoanAmount() {
-        this.totalAmount = MoneyInt.fromCent(0);
-        this.remainingAmount = MoneyInt.fromCent(0);
-        this.transactionHistory = new ArrayList<>();
+        this(TransactionLog.EMPTY);
     }
 
     /**
@@ -38,40 +46,93 @@ public class LoanAmount implements Comparable<LoanAmount> {
      * @throws ExcessRepaymentException If the loan balance gets negative at any point of time.
      */
     public LoanAmount(ArrayList<LoanTransaction> transactionHistory) throws ExcessRepaymentException {
-        requireAllNonNull(transactionHistory);
+        this(TransactionLog.of(transactionHistory));
+    }
 
-        MoneyInt totalAmount = MoneyInt.fromCent(0);
-        MoneyInt remainingAmount = MoneyInt.fromCent(0);
-        for (LoanTransaction transaction : transactionHistory) {
-            totalAmount = transaction.getTotalAmountAfterTransaction(totalAmount);
-            remainingAmount = transaction.getRemainingAmountAfterTransaction(remainingAmount);
-        }
+    /**
+     * Constructs a new LoanAmount backed by the given (immutable) transaction log.
+     */
+    private LoanAmount(TransactionLog transactionHistory) {
+        this.totalAmount = transactionHistory.getTotalAmount();
+        this.remainingAmount = transactionHistory.getRemainingAmount();
+        this.transactionsCount = transactionHistory.size();
+        this.transactionHistory = transactionHistory;
+    }
 
+    private LoanAmount(MoneyInt totalAmount, MoneyInt remainingAmount, int transactionsCount,
+                       Supplier<TransactionLog> historyLoader) {
         this.totalAmount = totalAmount;
         this.remainingAmount = remainingAmount;
-        this.transactionHistory = new ArrayList<>();
-        this.transactionHistory.addAll(transactionHistory);
+        this.transactionsCount = transactionsCount;
+        this.historyLoader = historyLoader;
+    }
+
+    /**
+     * Returns a LoanAmount with the given totals whose transaction history is only built by {@code historyLoader}
+     * when it is first needed, e.g. to show or edit a transaction. Until then, only the totals are kept.
+     * If the loaded history does not have the given totals, using it throws an {@code IllegalStateException}.
+     */
+    public static LoanAmount deferred(MoneyInt totalAmount, MoneyInt remainingAmount, int transactionsCount,
+                                      Supplier<TransactionLog> historyLoader) {
+        requireAllNonNull(totalAmount, remainingAmount, historyLoader);
+        return new LoanAmount(totalAmount, remainingAmount, transactionsCount, historyLoader);
+    }
+
+    /**
+     * Returns the loader of the transaction history if the history is still deferred, or null if it is loaded.
+     * Lets the storage that deferred the history write it out again without loading it.
+     */
+    public synchronized Supplier<TransactionLog> getHistoryLoader() {
+        return historyLoader;
+    }
+
+    private TransactionLog history() {
+        TransactionLog history = transactionHistory;
+        if (history != null) {
+            return history;
+        }
+        synchronized (this) {
+            if (transactionHistory == null) {
+                TransactionLog loaded = historyLoader.get();
+                if (loaded.size() != transactionsCount || !loaded.getTotalAmount().equals(totalAmount)
+                        || !loaded.getRemainingAmount().equals(remainingAmount)) {
+                    throw new IllegalStateException(MESSAGE_HISTORY_MISMATCH);
+                }
+                transactionHistory = loaded;
+                historyLoader = null;
+            }
+            return transactionHistory;
+        }
     }
 
     /**
      * Returns the total amount of money loaned so far.
      */
     public MoneyInt getTotalAmount() {
-        return this.totalAmount;
+        return totalAmount;
     }
 
     /**
      * Returns the amount of money that is loaned but not yet repaid.
      */
     public MoneyInt getRemainingAmount() {
-        return this.remainingAmount;
+        return remainingAmount;
     }
 
     /**
      * Returns the number of recorded transactions.
      */
     public int getTransactionsCount() {
-        return this.transactionHistory.size();
+        return transactionsCount;
+    }
+
+    /**
+     * Returns the transaction at the given zero-based index of the transaction history.
+     *
+     * @throws IndexOutOfBoundsException If {@code index} is not smaller than {@link #getTransactionsCount()}.
+     */
+    public LoanTransaction getTransaction(int index) {
+        return history().get(index);
     }
 
     /**
@@ -82,37 +143,61 @@ public class LoanAmount implements Comparable<LoanAmount> {
      * Note that LoanTransaction objects themselves need not be copied since they are truly immutable.
      */
     public ArrayList<LoanTransaction> getTransactionHistoryCopy() {
-        ArrayList<LoanTransaction> copiedTransactionHistory = new ArrayList<>();
-        copiedTransactionHistory.addAll(this.transactionHistory);
-        return copiedTransactionHistory;
+        return history().toArrayList();
     }
 
     /**
      * Returns a new LoanAmount with the given LoanTransaction appended to this LoanAmount object.
+     * The existing history is shared with the new LoanAmount rather than copied,
+     * and the totals are carried forward from this LoanAmount.
      */
     public LoanAmount appendTransaction(LoanTransaction transaction) throws ExcessRepaymentException {
         requireAllNonNull(transaction);
 
-        ArrayList<LoanTransaction> newTransactionHistory = this.getTransactionHistoryCopy();
-        newTransactionHistory.add(transaction);
+        return new LoanAmount(history().append(transaction));
+    }
+
+    /**
+     * Returns a new LoanAmount with the transaction at the given zero-based index replaced by {@code transaction}.
+     * Only O(log n) parts of the history are copied; the rest is shared with this LoanAmount.
+     *
+     * @throws ExcessRepaymentException If the loan balance gets negative at any point of time.
+     * @throws IndexOutOfBoundsException If {@code index} is not smaller than {@link #getTransactionsCount()}.
+     */
+    public LoanAmount replaceTransaction(int index, LoanTransaction transaction) throws ExcessRepaymentException {
+        requireAllNonNull(transaction);
 
-        return new LoanAmount(newTransactionHistory);
+        return new LoanAmount(history().set(index, transaction));
+    }
+
+    /**
+     * Returns a new LoanAmount with the transaction at the given zero-based index removed.
+     * Only O(log n) parts of the history are copied; the rest is shared with this LoanAmount.
+     *
+     * @throws ExcessRepaymentException If the loan balance gets negative at any point of time.
+     * @throws IndexOutOfBoundsException If {@code index} is not smaller than {@link #getTransactionsCount()}.
+     */
+    public LoanAmount deleteTransaction(int index) throws ExcessRepaymentException {
+        return new LoanAmount(history().remove(index));
     }
 
     /**
      * Returns if the remaining loan amount equals zero.
      */
     public boolean isRepaid() {
-        return this.remainingAmount.getValueTimesOneHundred() == 0;
+        return this.getRemainingAmount().isZero();
     }
 
     @Override
     public String toString() {
-        return new ToStringBuilder(this)
-                .add("totalAmount", totalAmount)
-                .add("remainingAmount", remainingAmount)
-                .add("transactions", transactionHistory)
-                .toString();
+        ToStringBuilder builder = new ToStringBuilder(this)
+                .add("totalAmount", getTotalAmount())
+                .add("remainingAmount", getRemainingAmount());
+        // a deferred history is not loaded just to be printed
+        TransactionLog history = transactionHistory;
+        return history == null
+                ? builder.add("transactionsCount", transactionsCount).toString()
+                : builder.add("transactions", history).toString();
     }
 
     @Override
@@ -126,13 +211,21 @@ public class LoanAmount implements Comparable<LoanAmount> {
             return false;
         }
         LoanAmount otherLoanAmount = (LoanAmount) other;
-        return this.totalAmount.equals(otherLoanAmount.totalAmount)
-                && this.remainingAmount.equals(otherLoanAmount.remainingAmount)
-                && this.transactionHistory.equals(otherLoanAmount.transactionHistory);
+        // the totals tell most amounts apart without loading a deferred history
+        return transactionsCount == otherLoanAmount.transactionsCount
+                && totalAmount.equals(otherLoanAmount.totalAmount)
+                && remainingAmount.equals(otherLoanAmount.remainingAmount)
+                && history().equals(otherLoanAmount.history());
+    }
+
+    @Override
+    public int hashCode() {
+        // the totals that equal amounts share, so that hashing does not load a deferred history
+        return Objects.hash(transactionsCount, totalAmount, remainingAmount);
     }
 
     @Override
     public int compareTo(LoanAmount o) {
-        return this.remainingAmount.getValueTimesOneHundred() - o.remainingAmount.getValueTimesOneHundred();
+        return this.getRemainingAmount().compareTo(o.getRemainingAmount());
     }
 }
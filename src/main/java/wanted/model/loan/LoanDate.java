@@ -1,20 +1,22 @@
 package wanted.model.loan;
 
 import static java.util.Objects.requireNonNull;
+import static wanted.commons.util.AppUtil.checkArgument;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.format.ResolverStyle;
 
-import wanted.commons.core.datatypes.Date;
-
 /**
  * A wrapper class to manage the date a loan was taken out
  * Guarantees: immutable; is valid as declared in {@link #isValidLoanDate(String)}
+ * <p>
+ * The date is parsed once on construction and stored as the number of days since 1970-01-01 (the epoch day),
+ * so that comparing, hashing and checking ranges of dates are plain integer operations.
  */
 
-public class LoanDate {
+public class LoanDate implements Comparable<LoanDate> {
 
     public static final String MESSAGE_CONSTRAINTS =
             "Date value should be in format YYYY-MM-DD. (e.g. d/2024-01-21)";
@@ -22,37 +24,69 @@ public class LoanDate {
      * The first character of the date must not be a whitespace,
      * otherwise " " (a blank string) becomes a valid input.
      * There should be 3 alphanumeric inputs to simulate Day-Month-Year
-     * To be updated with the addition of a datetime object
      */
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("uuuu-MM-dd")
             .withResolverStyle(ResolverStyle.STRICT);
 
-    public final Date value;
+    private final int epochDay;
+
     /**
-     * Constructs a {@code Date}.
+     * Constructs a {@code LoanDate}.
      *
-     * @param date and valid date - following the valid name structure.
+     * @param date A valid date, in the format YYYY-MM-DD.
+     * @throws IllegalArgumentException if {@code date} is not a valid date.
      */
     public LoanDate(String date) {
         requireNonNull(date);
-        value = new Date(date);
+        Integer parsedEpochDay = parseEpochDay(date);
+        checkArgument(parsedEpochDay != null, MESSAGE_CONSTRAINTS);
+        this.epochDay = parsedEpochDay;
+    }
+
+    private LoanDate(int epochDay) {
+        this.epochDay = epochDay;
+    }
+
+    /**
+     * Returns the {@code LoanDate} that is {@code epochDay} days after 1970-01-01.
+     */
+    public static LoanDate ofEpochDay(int epochDay) {
+        return new LoanDate(epochDay);
     }
 
     /**
      * Returns true if a given string is a valid loan date.
      */
     public static boolean isValidLoanDate(String test) {
+        requireNonNull(test);
+        return parseEpochDay(test) != null;
+    }
+
+    /**
+     * Returns the epoch day of the given date, or {@code null} if it is not a valid loan date.
+     */
+    private static Integer parseEpochDay(String date) {
         try {
-            LocalDate.parse(test, dateFormatter);
-            return true;
+            long parsedEpochDay = LocalDate.parse(date, dateFormatter).toEpochDay();
+            if (parsedEpochDay < Integer.MIN_VALUE || parsedEpochDay > Integer.MAX_VALUE) {
+                return null;
+            }
+            return (int) parsedEpochDay;
         } catch (DateTimeParseException e) {
-            return false;
+            return null;
         }
     }
 
+    /**
+     * Returns the number of days from 1970-01-01 to this date.
+     */
+    public int getEpochDay() {
+        return epochDay;
+    }
+
     @Override
     public String toString() {
-        return value.toString();
+        return LocalDate.ofEpochDay(epochDay).format(dateFormatter);
     }
 
     @Override
@@ -67,11 +101,16 @@ public class LoanDate {
         }
 
         LoanDate otherDate = (LoanDate) other;
-        return value.equals(otherDate.value);
+        return epochDay == otherDate.epochDay;
     }
 
     @Override
     public int hashCode() {
-        return value.hashCode();
+        return Integer.hashCode(epochDay);
+    }
+
+    @Override
+    public int compareTo(LoanDate other) {
+        return Integer.compare(epochDay, other.epochDay);
     }
 }
@@ -0,0 +1,169 @@
+package wanted.model.loan;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of names by the lower-case words of their full names, arranged as a BK-tree by the edit (Levenshtein)
+ * distance between words, for finding the names with a word close to a keyword without looking at every name.
+ * <p>
+ * Every distinct word is a node, and the children of a node are keyed by their distance from it. As edit distance
+ * obeys the triangle inequality, a search for the words within {@code k} of a keyword that is at distance {@code d}
+ * from a node only needs to go down the children keyed from {@code d - k} to {@code d + k}, which for small
+ * {@code k} is a small part of the tree. Words that no name has any more stay in the tree to guide searches, until
+ * they make up half of all words, when the tree is built again.
+ */
+class NameBkTree {
+
+    /** Unused words are only cleaned up once there are at least this many, so small trees are not rebuilt often. */
+    private static final int MIN_UNUSED_WORDS_TO_REBUILD = 1024;
+
+    private final HashMap<String, Node> nodeByWord = new HashMap<>();
+    private Node root;
+    private int unusedWords;
+
+    /**
+     * Adds {@code name} to the index under each of its words.
+     */
+    public void add(Name name) {
+        requireNonNull(name);
+        for (String word : wordsOf(name)) {
+            Node node = nodeByWord.get(word);
+            if (node == null) {
+                node = insert(word);
+            } else if (node.names.isEmpty()) {
+                unusedWords--;
+            }
+            node.names.add(name);
+        }
+    }
+
+    /**
+     * Removes {@code name} from the index. The name must be in the index.
+     */
+    public void remove(Name name) {
+        requireNonNull(name);
+        for (String word : wordsOf(name)) {
+            Node node = nodeByWord.get(word);
+            assert node != null && node.names.contains(name);
+            node.names.remove(name);
+            if (node.names.isEmpty()) {
+                unusedWords++;
+            }
+        }
+        if (unusedWords >= MIN_UNUSED_WORDS_TO_REBUILD && unusedWords * 2 >= nodeByWord.size()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Returns the names in the index with a word within {@code maxDistance} edits of {@code keyword}, ignoring case.
+     */
+    public Set<Name> namesWithWordWithin(String keyword, int maxDistance) {
+        requireNonNull(keyword);
+        String word = keyword.toLowerCase();
+
+        Set<Name> names = new LinkedHashSet<>();
+        ArrayDeque<Node> toVisit = new ArrayDeque<>();
+        if (root != null) {
+            toVisit.push(root);
+        }
+        while (!toVisit.isEmpty()) {
+            Node node = toVisit.pop();
+            int distance = editDistance(word, node.word);
+            if (distance <= maxDistance) {
+                names.addAll(node.names);
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    toVisit.push(child.getValue());
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the number of edits (insertions, deletions or substitutions of a character) that turn {@code a} into
+     * {@code b}.
+     */
+    static int editDistance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private Node insert(String word) {
+        Node added = new Node(word);
+        nodeByWord.put(word, added);
+        if (root == null) {
+            root = added;
+            return added;
+        }
+        Node node = root;
+        while (true) {
+            int distance = editDistance(word, node.word);
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, added);
+                return added;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Builds the tree again from the words that names still have.
+     */
+    private void rebuild() {
+        Set<Name> names = new LinkedHashSet<>();
+        for (Node node : nodeByWord.values()) {
+            names.addAll(node.names);
+        }
+        nodeByWord.clear();
+        root = null;
+        unusedWords = 0;
+        names.forEach(this::add);
+    }
+
+    private static Set<String> wordsOf(Name name) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : name.fullName.toLowerCase().split("\\s+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * A distinct word, with the names that have it and the words below it by their distance from it.
+     */
+    private static class Node {
+        private final String word;
+        private final Set<Name> names = new LinkedHashSet<>();
+        private final HashMap<Integer, Node> children = new HashMap<>();
+
+        Node(String word) {
+            this.word = word;
+        }
+    }
+}
@@ -1,20 +1,51 @@
 package wanted.model.loan;
 
+import static wanted.commons.util.CollectionUtil.requireAllNonNull;
+
 import java.util.List;
 import java.util.function.Predicate;
 
-import wanted.commons.util.StringUtil;
+import wanted.commons.util.KeywordMatcher;
 import wanted.commons.util.ToStringBuilder;
 
 /**
  * Tests that a {@code Loan}'s {@code Name} matches any of the keywords given.
+ * The keywords are compiled into a {@code KeywordMatcher} once, so that each name is matched in a single pass.
  */
-public record NameContainsKeywordsPredicate(List<String> keywords) implements Predicate<Loan> {
+public class NameContainsKeywordsPredicate implements Predicate<Loan> {
+
+    private final List<String> keywords;
+    private final KeywordMatcher matcher; // compiled from keywords
+
+    /**
+     * Creates a predicate for {@code keywords}, compiling them into a matcher.
+     */
+    public NameContainsKeywordsPredicate(List<String> keywords) {
+        requireAllNonNull(keywords);
+        // copied, so that the keywords cannot change after the matcher is compiled from them
+        this.keywords = List.copyOf(keywords);
+        this.matcher = KeywordMatcher.compile(this.keywords);
+    }
+
+    /**
+     * Returns the keywords, which cannot be changed.
+     */
+    public List<String> keywords() {
+        return keywords;
+    }
 
     @Override
     public boolean test(Loan person) {
-        return keywords.stream()
-                .anyMatch(keyword -> StringUtil.containsWordIgnoreCase(person.getName().fullName, keyword));
+        return match(person).isWordFound();
+    }
+
+    /**
+     * Returns the keywords found in the name of {@code person}, as whole words or as parts of words.
+     *
+     * @throws IllegalArgumentException if a keyword is empty or is not a single word.
+     */
+    public KeywordMatcher.Match match(Loan person) {
+        return matcher.match(person.getName().fullName);
     }
 
     @Override
@@ -24,6 +55,11 @@ public record NameContainsKeywordsPredicate(List<String> keywords) implements Pr
                 && keywords.equals(((NameContainsKeywordsPredicate) other).keywords)); // state check
     }
 
+    @Override
+    public int hashCode() {
+        return keywords.hashCode();
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this).add("keywords", keywords).toString();
@@ -0,0 +1,68 @@
+package wanted.model.loan;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import wanted.commons.util.PhoneticEncoder;
+
+/**
+ * An index of names by the phonetic codes of the words of their full names, for finding the names with a word that
+ * sounds like a keyword with one hash lookup.
+ * <p>
+ * A name is encoded once, when it is added, and its codes are kept so that it can be removed without encoding it
+ * again. Finding the names that sound like a keyword only encodes the keyword.
+ */
+class NamePhoneticIndex {
+
+    private final HashMap<String, Set<Name>> namesByCode = new HashMap<>();
+    private final HashMap<Name, Set<String>> codesByName = new HashMap<>();
+
+    /**
+     * Adds {@code name} to the index under the code of each of its words. The name must not be in the index already.
+     */
+    public void add(Name name) {
+        requireNonNull(name);
+        assert !codesByName.containsKey(name);
+
+        Set<String> codes = new LinkedHashSet<>();
+        for (String word : name.fullName.split("\\s+")) {
+            String code = PhoneticEncoder.encode(word);
+            if (!code.isEmpty()) {
+                codes.add(code);
+            }
+        }
+        codesByName.put(name, codes);
+        for (String code : codes) {
+            namesByCode.computeIfAbsent(code, key -> new LinkedHashSet<>()).add(name);
+        }
+    }
+
+    /**
+     * Removes {@code name} from the index. The name must be in the index.
+     */
+    public void remove(Name name) {
+        requireNonNull(name);
+        Set<String> codes = codesByName.remove(name);
+        assert codes != null;
+
+        for (String code : codes) {
+            Set<Name> names = namesByCode.get(code);
+            names.remove(name);
+            if (names.isEmpty()) {
+                namesByCode.remove(code);
+            }
+        }
+    }
+
+    /**
+     * Returns the names in the index with a word that sounds like {@code keyword}. Must not be changed.
+     */
+    public Set<Name> namesSoundingLike(String keyword) {
+        requireNonNull(keyword);
+        String code = PhoneticEncoder.encode(keyword);
+        return code.isEmpty() ? Set.of() : namesByCode.getOrDefault(code, Set.of());
+    }
+}
@@ -0,0 +1,175 @@
+package wanted.model.loan;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * An index of names by the trigrams (substrings of three characters) of their lower-case full names, for finding
+ * the names that contain a keyword without looking at every name.
+ * <p>
+ * Each name is given a slot number when it is added, and the index keeps, for every trigram, the slots of the names
+ * that contain it in increasing order. The names that may contain a keyword are those in the slots found in the
+ * lists of all trigrams of the keyword, which are found by merging sorted lists, and only those names are checked
+ * for the keyword itself. Keywords shorter than a trigram are checked against every name. The slots of removed
+ * names stay in the lists until they make up half of all slots, when the lists are built again.
+ */
+class NameTrigramIndex {
+
+    static final int TRIGRAM_LENGTH = 3;
+
+    /** Removed slots are only cleaned up once there are at least this many, so small lists are not rebuilt often. */
+    private static final int MIN_REMOVED_SLOTS_TO_REBUILD = 1024;
+
+    private final HashMap<Name, Integer> slotByName = new HashMap<>();
+    private final ArrayList<Name> nameBySlot = new ArrayList<>(); // null for the slots of removed names
+    private final ArrayList<String> lowerCaseNameBySlot = new ArrayList<>(); // null for the slots of removed names
+    private final HashMap<Long, Slots> slotsByTrigram = new HashMap<>();
+    private int removedSlots;
+
+    /**
+     * Adds {@code name} to the index. The name must not be in the index already.
+     */
+    public void add(Name name) {
+        requireNonNull(name);
+        assert !slotByName.containsKey(name);
+
+        int slot = nameBySlot.size();
+        String lowerCaseName = name.fullName.toLowerCase();
+        slotByName.put(name, slot);
+        nameBySlot.add(name);
+        lowerCaseNameBySlot.add(lowerCaseName);
+        for (int i = 0; i + TRIGRAM_LENGTH <= lowerCaseName.length(); i++) {
+            // a trigram that appears twice in the name is listed once, as the slot is already the last in its list
+            slotsByTrigram.computeIfAbsent(trigramAt(lowerCaseName, i), key -> new Slots()).addIfLast(slot);
+        }
+    }
+
+    /**
+     * Removes {@code name} from the index. The name must be in the index.
+     */
+    public void remove(Name name) {
+        requireNonNull(name);
+        Integer slot = slotByName.remove(name);
+        assert slot != null;
+
+        nameBySlot.set(slot, null);
+        lowerCaseNameBySlot.set(slot, null);
+        removedSlots++;
+        if (removedSlots >= MIN_REMOVED_SLOTS_TO_REBUILD && removedSlots * 2 >= nameBySlot.size()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Returns true if {@code name} is in the index.
+     */
+    public boolean contains(Name name) {
+        return slotByName.containsKey(name);
+    }
+
+    /**
+     * Returns the names in the index that contain {@code keyword}, ignoring case, in the order they were added.
+     */
+    public List<Name> namesContaining(String keyword) {
+        requireNonNull(keyword);
+        String lowerCaseKeyword = keyword.toLowerCase();
+
+        List<Name> names = new ArrayList<>();
+        if (lowerCaseKeyword.length() < TRIGRAM_LENGTH) {
+            for (int slot = 0; slot < nameBySlot.size(); slot++) {
+                addIfContains(names, slot, lowerCaseKeyword);
+            }
+            return names;
+        }
+
+        List<Slots> lists = new ArrayList<>();
+        for (int i = 0; i + TRIGRAM_LENGTH <= lowerCaseKeyword.length(); i++) {
+            Slots slots = slotsByTrigram.get(trigramAt(lowerCaseKeyword, i));
+            if (slots == null) {
+                return names;
+            }
+            lists.add(slots);
+        }
+        // starting from the shortest list keeps every intermediate result as short as possible
+        lists.sort(Comparator.comparingInt(slots -> slots.size));
+        int[] candidates = Arrays.copyOf(lists.get(0).slots, lists.get(0).size);
+        int candidateCount = candidates.length;
+        for (int i = 1; i < lists.size() && candidateCount > 0; i++) {
+            candidateCount = intersect(candidates, candidateCount, lists.get(i));
+        }
+        for (int i = 0; i < candidateCount; i++) {
+            addIfContains(names, candidates[i], lowerCaseKeyword);
+        }
+        return names;
+    }
+
+    private void addIfContains(List<Name> names, int slot, String lowerCaseKeyword) {
+        String lowerCaseName = lowerCaseNameBySlot.get(slot);
+        if (lowerCaseName != null && lowerCaseName.contains(lowerCaseKeyword)) {
+            names.add(nameBySlot.get(slot));
+        }
+    }
+
+    /**
+     * Keeps only the first {@code count} slots of {@code candidates} that are also in {@code other}, moving them to
+     * the front, and returns how many are kept. Both must be in increasing order.
+     */
+    private static int intersect(int[] candidates, int count, Slots other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < count && j < other.size; i++) {
+            while (j < other.size && other.slots[j] < candidates[i]) {
+                j++;
+            }
+            if (j < other.size && other.slots[j] == candidates[i]) {
+                candidates[kept++] = candidates[i];
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Gives the names in the index new slots without gaps, dropping the slots of removed names from every list.
+     */
+    private void rebuild() {
+        List<Name> names = new ArrayList<>();
+        for (Name name : nameBySlot) {
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        slotByName.clear();
+        nameBySlot.clear();
+        lowerCaseNameBySlot.clear();
+        slotsByTrigram.clear();
+        removedSlots = 0;
+        names.forEach(this::add);
+    }
+
+    private static long trigramAt(String s, int index) {
+        return (long) s.charAt(index) << 32 | (long) s.charAt(index + 1) << 16 | s.charAt(index + 2);
+    }
+
+    /**
+     * A growable list of slots in increasing order.
+     */
+    private static class Slots {
+        private int[] slots = new int[2];
+        private int size;
+
+        void addIfLast(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
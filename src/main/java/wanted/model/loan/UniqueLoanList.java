@@ -3,8 +3,12 @@ package wanted.model.loan;
 import static java.util.Objects.requireNonNull;
 import static wanted.commons.util.CollectionUtil.requireAllNonNull;
 
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -19,6 +23,12 @@ import wanted.model.loan.exceptions.LoanNotFoundException;
  * as to ensure that the loan with exactly the same fields will be removed.
  *
  * Supports a minimal set of list operations.
+ * The position of every loan in the list is indexed by its {@code Name}, so that looking up a loan by identity
+ * takes constant time instead of a scan of the whole list. The names are indexed by their trigrams, so that
+ * finding the loans whose names contain a keyword looks only at the names that have every trigram of the keyword.
+ * The words of the names are also kept in a BK-tree, so that finding the loans with a word within a few edits of a
+ * keyword looks only at a small part of the words, and by their phonetic codes, so that finding the loans with a
+ * word that sounds like a keyword takes one hash lookup. Names are only indexed when a loan is added or renamed.
  *
  * @see Loan#isSameLoan(Loan)
  */
@@ -27,13 +37,17 @@ public class UniqueLoanList implements Iterable<Loan> {
     private final ObservableList<Loan> internalList = FXCollections.observableArrayList();
     private final ObservableList<Loan> internalUnmodifiableList =
             FXCollections.unmodifiableObservableList(internalList);
+    private final HashMap<Name, Integer> indexByName = new HashMap<>();
+    private final NameTrigramIndex nameIndex = new NameTrigramIndex();
+    private final NameBkTree nameWordTree = new NameBkTree();
+    private final NamePhoneticIndex namePhoneticIndex = new NamePhoneticIndex();
 
     /**
      * Returns true if the list contains an equivalent loan as the given argument.
      */
     public boolean contains(Loan toCheck) {
         requireNonNull(toCheck);
-        return internalList.stream().anyMatch(toCheck::isSameLoan);
+        return indexByName.containsKey(toCheck.getName());
     }
 
     /**
@@ -45,6 +59,8 @@ public class UniqueLoanList implements Iterable<Loan> {
         if (contains(toAdd)) {
             throw new DuplicateLoanException();
         }
+        indexByName.put(toAdd.getName(), internalList.size());
+        indexName(toAdd.getName());
         internalList.add(toAdd);
     }
 
@@ -56,7 +72,7 @@ public class UniqueLoanList implements Iterable<Loan> {
     public void setPerson(Loan target, Loan editedPerson) {
         requireAllNonNull(target, editedPerson);
 
-        int index = internalList.indexOf(target);
+        int index = indexOf(target);
         if (index == -1) {
             throw new LoanNotFoundException();
         }
@@ -65,6 +81,12 @@ public class UniqueLoanList implements Iterable<Loan> {
             throw new DuplicateLoanException();
         }
 
+        indexByName.remove(target.getName());
+        indexByName.put(editedPerson.getName(), index);
+        if (!target.getName().equals(editedPerson.getName())) {
+            unindexName(target.getName());
+            indexName(editedPerson.getName());
+        }
         internalList.set(index, editedPerson);
     }
 
@@ -74,14 +96,25 @@ public class UniqueLoanList implements Iterable<Loan> {
      */
     public void remove(Loan toRemove) {
         requireNonNull(toRemove);
-        if (!internalList.remove(toRemove)) {
+        int index = indexOf(toRemove);
+        if (index == -1) {
             throw new LoanNotFoundException();
         }
+
+        internalList.remove(index);
+        indexByName.remove(toRemove.getName());
+        unindexName(toRemove.getName());
+        for (int i = index; i < internalList.size(); i++) {
+            indexByName.put(internalList.get(i).getName(), i);
+        }
     }
 
     public void setPersons(UniqueLoanList replacement) {
         requireNonNull(replacement);
+        updateNameIndex(replacement.internalList);
         internalList.setAll(replacement.internalList);
+        indexByName.clear();
+        indexByName.putAll(replacement.indexByName);
     }
 
     /**
@@ -94,7 +127,46 @@ public class UniqueLoanList implements Iterable<Loan> {
             throw new DuplicateLoanException();
         }
 
+        updateNameIndex(persons);
         internalList.setAll(persons);
+        rebuildIndex();
+    }
+
+    /**
+     * Returns the positions of the loans whose full names contain {@code keyword}, ignoring case.
+     */
+    public BitSet positionsWithNameContaining(String keyword) {
+        requireNonNull(keyword);
+        BitSet result = new BitSet(internalList.size());
+        for (Name name : nameIndex.namesContaining(keyword)) {
+            result.set(indexByName.get(name));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the positions of the loans with a word in their full names within {@code maxDistance} edits of
+     * {@code keyword}, ignoring case.
+     */
+    public BitSet positionsWithNameWordWithin(String keyword, int maxDistance) {
+        requireNonNull(keyword);
+        BitSet result = new BitSet(internalList.size());
+        for (Name name : nameWordTree.namesWithWordWithin(keyword, maxDistance)) {
+            result.set(indexByName.get(name));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the positions of the loans with a word in their full names that sounds like {@code keyword}.
+     */
+    public BitSet positionsWithNameSoundingLike(String keyword) {
+        requireNonNull(keyword);
+        BitSet result = new BitSet(internalList.size());
+        for (Name name : namePhoneticIndex.namesSoundingLike(keyword)) {
+            result.set(indexByName.get(name));
+        }
+        return result;
     }
 
     /**
@@ -106,7 +178,7 @@ public class UniqueLoanList implements Iterable<Loan> {
 
     @Override
     public Iterator<Loan> iterator() {
-        return internalList.iterator();
+        return internalUnmodifiableList.iterator();
     }
 
     @Override
@@ -134,15 +206,68 @@ public class UniqueLoanList implements Iterable<Loan> {
         return internalList.toString();
     }
 
+    /**
+     * Returns the position of the loan equal to {@code loan} (by {@code Loan#equals(Object)}),
+     * or -1 if there is no such loan.
+     */
+    private int indexOf(Loan loan) {
+        Integer index = indexByName.get(loan.getName());
+        if (index == null) {
+            return -1;
+        }
+        Loan candidate = internalList.get(index);
+        return candidate == loan || candidate.equals(loan) ? index : -1;
+    }
+
+    /**
+     * Recomputes the position of every loan from {@code internalList}.
+     */
+    private void rebuildIndex() {
+        indexByName.clear();
+        for (int i = 0; i < internalList.size(); i++) {
+            indexByName.put(internalList.get(i).getName(), i);
+        }
+    }
+
+    /**
+     * Brings the name index from the names in {@code internalList} to the names in {@code persons}. Loans are
+     * reordered far more often than they are replaced, so only the names that come or go are indexed or removed.
+     */
+    private void updateNameIndex(List<Loan> persons) {
+        Set<Name> names = new HashSet<>();
+        for (Loan person : persons) {
+            names.add(person.getName());
+            if (!nameIndex.contains(person.getName())) {
+                indexName(person.getName());
+            }
+        }
+        for (Loan person : internalList) {
+            if (!names.contains(person.getName())) {
+                unindexName(person.getName());
+            }
+        }
+    }
+
+    private void indexName(Name name) {
+        nameIndex.add(name);
+        nameWordTree.add(name);
+        namePhoneticIndex.add(name);
+    }
+
+    private void unindexName(Name name) {
+        nameIndex.remove(name);
+        nameWordTree.remove(name);
+        namePhoneticIndex.remove(name);
+    }
+
     /**
      * Returns true if {@code persons} contains only unique persons.
      */
     private boolean personsAreUnique(List<Loan> persons) {
-        for (int i = 0; i < persons.size() - 1; i++) {
-            for (int j = i + 1; j < persons.size(); j++) {
-                if (persons.get(i).isSameLoan(persons.get(j))) {
-                    return false;
-                }
+        Set<Name> names = new HashSet<>();
+        for (Loan person : persons) {
+            if (!names.add(person.getName())) {
+                return false;
             }
         }
         return true;
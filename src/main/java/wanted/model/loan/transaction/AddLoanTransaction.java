@@ -27,17 +27,13 @@ public class AddLoanTransaction extends LoanTransaction {
     @Override
     public MoneyInt getTotalAmountAfterTransaction(MoneyInt previousTotalAmount) {
         requireAllNonNull(previousTotalAmount);
-        int resultCent = previousTotalAmount.getValueTimesOneHundred()
-                + this.getAmount().getValueTimesOneHundred();
-        return MoneyInt.fromCent(resultCent);
+        return previousTotalAmount.add(this.getAmount());
     }
 
     @Override
     public MoneyInt getRemainingAmountAfterTransaction(MoneyInt previousRemainingAmount) {
         requireAllNonNull(previousRemainingAmount);
-        int resultCent = previousRemainingAmount.getValueTimesOneHundred()
-                + this.getAmount().getValueTimesOneHundred();
-        return MoneyInt.fromCent(resultCent);
+        return previousRemainingAmount.add(this.getAmount());
     }
 
     @Override
@@ -3,6 +3,7 @@ package wanted.model.loan.transaction;
 import static wanted.commons.util.CollectionUtil.requireAllNonNull;
 
 import wanted.commons.core.datatypes.MoneyInt;
+import wanted.commons.util.ToStringBuilder;
 import wanted.model.loan.LoanDate;
 import wanted.model.loan.exceptions.ExcessRepaymentException;
 
@@ -64,4 +65,12 @@ public abstract class LoanTransaction {
      * Returns a new {@code LoanTransaction} of the same instance type having the given amount and date.
      */
     public abstract LoanTransaction getNewTransactionOfSameType(MoneyInt amount, LoanDate date);
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .add("amount", amount)
+                .add("date", date)
+                .toString();
+    }
 }
@@ -35,12 +35,10 @@ public class RepayLoanTransaction extends LoanTransaction {
     public MoneyInt getRemainingAmountAfterTransaction(MoneyInt previousRemainingAmount)
             throws ExcessRepaymentException {
         requireAllNonNull(previousRemainingAmount);
-        int resultCent = previousRemainingAmount.getValueTimesOneHundred()
-                - this.getAmount().getValueTimesOneHundred();
-        if (resultCent < 0) {
+        if (previousRemainingAmount.compareTo(this.getAmount()) < 0) {
             throw new ExcessRepaymentException();
         }
-        return MoneyInt.fromCent(resultCent);
+        return previousRemainingAmount.subtract(this.getAmount());
     }
 
     @Override
@@ -0,0 +1,484 @@
+package wanted.model.loan.transaction;
+
+import static wanted.commons.util.CollectionUtil.requireAllNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import wanted.commons.core.datatypes.MoneyInt;
+import wanted.model.loan.LoanDate;
+import wanted.model.loan.exceptions.ExcessRepaymentException;
+
+/**
+ * A persistent sequence of {@code LoanTransaction}s.
+ * <p>
+ * Transactions are stored in the leaves of a segment tree whose nodes are never modified after creation.
+ * Every update copies only the path from the root to the affected leaf and shares the rest of the tree,
+ * so appending, replacing and deleting a transaction all take O(log n) time.
+ * <p>
+ * Each leaf holds up to {@link #CHUNK_SIZE} transactions in parallel primitive columns (amount in cents, epoch day
+ * and a type byte) instead of one object per transaction. {@code LoanTransaction} objects are only created when they
+ * are read through {@link #get(int)} or {@link #toArrayList()}.
+ * <p>
+ * Each node also keeps the changes it makes to the total and remaining amounts, together with the lowest
+ * remaining amount reached within it (relative to the amount before it).
+ * Whether an update makes the remaining amount negative at any point of time is therefore known from the root
+ * without replaying the history.
+ * <p>
+ * Deleted transactions leave an empty slot behind. The tree is rebuilt once more than half of its slots are empty.
+ * Guarantees: immutable; the remaining amount is never negative at any point of the history.
+ */
+public final class TransactionLog {
+    public static final TransactionLog EMPTY = new TransactionLog(null, 0, 0);
+
+    /** Number of slots in each leaf of the tree. */
+    static final int CHUNK_SIZE = 32;
+
+    private static final byte TYPE_NONE = 0;
+    private static final byte TYPE_ADD = 1;
+    private static final byte TYPE_REPAY = 2;
+
+    private final Node root; // null if there are no transactions
+    private final int height; // the tree has 2^height leaves
+    private final int usedSlots; // slots [0, usedSlots) are either filled or deleted; the rest are free
+    private final MoneyInt totalAmount;
+    private final MoneyInt remainingAmount;
+
+    private TransactionLog(Node root, int height, int usedSlots) {
+        this.root = root;
+        this.height = height;
+        this.usedSlots = usedSlots;
+        this.totalAmount = MoneyInt.fromCent(Node.totalDeltaOf(root));
+        this.remainingAmount = MoneyInt.fromCent(Node.remainingDeltaOf(root));
+    }
+
+    /**
+     * Returns a log containing the given transactions in the given order.
+     *
+     * @throws ExcessRepaymentException If the remaining amount gets negative at any point of time.
+     */
+    public static TransactionLog of(List<LoanTransaction> transactions) throws ExcessRepaymentException {
+        requireAllNonNull(transactions);
+        int height = 0;
+        while (capacityOf(height) < transactions.size()) {
+            height++;
+        }
+        return checked(Node.build(transactions, 0, height), height, transactions.size());
+    }
+
+    /**
+     * Returns a new log with the given transaction appended to this log.
+     * This log remains unchanged and shares all but O(log n) nodes with the returned log.
+     *
+     * @throws ExcessRepaymentException If the remaining amount becomes negative after the transaction.
+     */
+    public TransactionLog append(LoanTransaction transaction) throws ExcessRepaymentException {
+        requireAllNonNull(transaction);
+        Node grownRoot = root;
+        int grownHeight = height;
+        while (usedSlots >= capacityOf(grownHeight)) {
+            grownRoot = grownRoot == null ? null : Node.internal(grownRoot, null);
+            grownHeight++;
+        }
+        return checked(Node.setSlot(grownRoot, grownHeight, usedSlots, typeOf(transaction),
+                centsOf(transaction), dayOf(transaction)), grownHeight, usedSlots + 1);
+    }
+
+    /**
+     * Returns a new log with the transaction at the given zero-based index replaced by {@code transaction}.
+     *
+     * @throws ExcessRepaymentException If the remaining amount gets negative at any point of time.
+     * @throws IndexOutOfBoundsException If {@code index} is not smaller than {@link #size()}.
+     */
+    public TransactionLog set(int index, LoanTransaction transaction) throws ExcessRepaymentException {
+        requireAllNonNull(transaction);
+        Objects.checkIndex(index, size());
+        return checked(Node.setIndex(root, index, typeOf(transaction), centsOf(transaction), dayOf(transaction)),
+                height, usedSlots);
+    }
+
+    /**
+     * Returns a new log with the transaction at the given zero-based index removed.
+     *
+     * @throws ExcessRepaymentException If the remaining amount gets negative at any point of time.
+     * @throws IndexOutOfBoundsException If {@code index} is not smaller than {@link #size()}.
+     */
+    public TransactionLog remove(int index) throws ExcessRepaymentException {
+        Objects.checkIndex(index, size());
+        TransactionLog removed = checked(Node.setIndex(root, index, TYPE_NONE, 0, 0), height, usedSlots);
+        if (removed.size() * 2 < removed.usedSlots) {
+            return of(removed.toArrayList());
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the transaction at the given zero-based index.
+     *
+     * @throws IndexOutOfBoundsException If {@code index} is not smaller than {@link #size()}.
+     */
+    public LoanTransaction get(int index) {
+        Objects.checkIndex(index, size());
+        Node node = root;
+        while (!node.isLeaf()) {
+            int leftCount = Node.countOf(node.left);
+            if (index < leftCount) {
+                node = node.left;
+            } else {
+                index -= leftCount;
+                node = node.right;
+            }
+        }
+        return node.transactionAt(node.offsetOf(index));
+    }
+
+    /**
+     * Returns the number of transactions in this log.
+     */
+    public int size() {
+        return Node.countOf(root);
+    }
+
+    /**
+     * Returns the total amount of money loaned after all transactions in this log.
+     */
+    public MoneyInt getTotalAmount() {
+        return totalAmount;
+    }
+
+    /**
+     * Returns the remaining amount of money after all transactions in this log.
+     */
+    public MoneyInt getRemainingAmount() {
+        return remainingAmount;
+    }
+
+    /**
+     * Returns the transactions in this log, from the oldest to the latest, as a new {@code ArrayList}.
+     */
+    public ArrayList<LoanTransaction> toArrayList() {
+        ArrayList<LoanTransaction> transactions = new ArrayList<>(size());
+        for (Node leaf : leaves()) {
+            for (int offset = 0; offset < leaf.types.length; offset++) {
+                if (leaf.types[offset] != TYPE_NONE) {
+                    transactions.add(leaf.transactionAt(offset));
+                }
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Returns the non-empty leaves of this log, from the oldest to the latest.
+     */
+    private List<Node> leaves() {
+        List<Node> leaves = new ArrayList<>();
+        Node.collectLeaves(root, leaves);
+        return leaves;
+    }
+
+    /**
+     * Returns a log with the given tree after checking that the remaining amount is never negative.
+     */
+    private static TransactionLog checked(Node root, int height, int usedSlots) throws ExcessRepaymentException {
+        if (Node.minRemainingDeltaOf(root) < 0) {
+            throw new ExcessRepaymentException();
+        }
+        return new TransactionLog(root, height, usedSlots);
+    }
+
+    private static int capacityOf(int height) {
+        return CHUNK_SIZE << height;
+    }
+
+    private static byte typeOf(LoanTransaction transaction) {
+        if (transaction instanceof AddLoanTransaction) {
+            return TYPE_ADD;
+        } else if (transaction instanceof RepayLoanTransaction) {
+            return TYPE_REPAY;
+        } else {
+            throw new IllegalArgumentException("Unknown LoanTransaction type");
+        }
+    }
+
+    private static long centsOf(LoanTransaction transaction) {
+        return transaction.getAmount().getValueTimesOneHundred();
+    }
+
+    private static int dayOf(LoanTransaction transaction) {
+        return transaction.getDate().getEpochDay();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+
+        // instanceof handles nulls
+        if (!(other instanceof TransactionLog)) {
+            return false;
+        }
+
+        TransactionLog otherLog = (TransactionLog) other;
+        if (size() != otherLog.size()
+                || !totalAmount.equals(otherLog.totalAmount)
+                || !remainingAmount.equals(otherLog.remainingAmount)) {
+            return false;
+        }
+
+        // walks both logs in parallel, skipping empty slots, without creating any LoanTransaction
+        List<Node> leaves = leaves();
+        List<Node> otherLeaves = otherLog.leaves();
+        int leafIndex = 0;
+        int offset = -1;
+        int otherLeafIndex = 0;
+        int otherOffset = -1;
+        for (int i = 0; i < size(); i++) {
+            do {
+                offset++;
+                if (offset == leaves.get(leafIndex).types.length) {
+                    leafIndex++;
+                    offset = 0;
+                }
+            } while (leaves.get(leafIndex).types[offset] == TYPE_NONE);
+            do {
+                otherOffset++;
+                if (otherOffset == otherLeaves.get(otherLeafIndex).types.length) {
+                    otherLeafIndex++;
+                    otherOffset = 0;
+                }
+            } while (otherLeaves.get(otherLeafIndex).types[otherOffset] == TYPE_NONE);
+
+            if (!leaves.get(leafIndex).hasSameEntry(offset, otherLeaves.get(otherLeafIndex), otherOffset)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(size(), totalAmount.getValueTimesOneHundred(), remainingAmount.getValueTimesOneHundred());
+    }
+
+    @Override
+    public String toString() {
+        return toArrayList().toString();
+    }
+
+    /**
+     * A node of the segment tree. A {@code null} node stands for a subtree without any transaction.
+     * Leaves store their slots in parallel columns of the same length; internal nodes have no columns.
+     * Amounts are kept in cents, and sums fail with an {@code ArithmeticException} rather than overflow.
+     */
+    private static final class Node {
+        private final Node left;
+        private final Node right;
+        private final long[] amounts;
+        private final int[] epochDays;
+        private final byte[] types; // non-null only for leaves
+        private final int count;
+        private final long totalDelta;
+        private final long remainingDelta;
+        private final long minRemainingDelta; // lowest prefix sum of remainingDelta, including the empty prefix
+
+        private Node(Node left, Node right, long[] amounts, int[] epochDays, byte[] types,
+                     int count, long totalDelta, long remainingDelta, long minRemainingDelta) {
+            this.left = left;
+            this.right = right;
+            this.amounts = amounts;
+            this.epochDays = epochDays;
+            this.types = types;
+            this.count = count;
+            this.totalDelta = totalDelta;
+            this.remainingDelta = remainingDelta;
+            this.minRemainingDelta = minRemainingDelta;
+        }
+
+        /**
+         * Returns a leaf owning the given columns, or {@code null} if none of its slots is filled.
+         */
+        static Node leaf(long[] amounts, int[] epochDays, byte[] types) {
+            int count = 0;
+            long totalDelta = 0;
+            long remainingDelta = 0;
+            long minRemainingDelta = 0;
+            for (int offset = 0; offset < types.length; offset++) {
+                switch (types[offset]) {
+                case TYPE_ADD:
+                    totalDelta = Math.addExact(totalDelta, amounts[offset]);
+                    remainingDelta = Math.addExact(remainingDelta, amounts[offset]);
+                    break;
+                case TYPE_REPAY:
+                    remainingDelta = Math.subtractExact(remainingDelta, amounts[offset]);
+                    minRemainingDelta = Math.min(minRemainingDelta, remainingDelta);
+                    break;
+                default:
+                    continue;
+                }
+                count++;
+            }
+            if (count == 0) {
+                return null;
+            }
+            return new Node(null, null, amounts, epochDays, types,
+                    count, totalDelta, remainingDelta, minRemainingDelta);
+        }
+
+        /**
+         * Returns an internal node with the given children, or {@code null} if both children are empty.
+         */
+        static Node internal(Node left, Node right) {
+            if (left == null && right == null) {
+                return null;
+            }
+            long minRemainingDeltaOfRight = Math.addExact(remainingDeltaOf(left), minRemainingDeltaOf(right));
+            return new Node(left, right, null, null, null,
+                    countOf(left) + countOf(right),
+                    Math.addExact(totalDeltaOf(left), totalDeltaOf(right)),
+                    Math.addExact(remainingDeltaOf(left), remainingDeltaOf(right)),
+                    Math.min(minRemainingDeltaOf(left), minRemainingDeltaOfRight));
+        }
+
+        /**
+         * Builds a subtree of the given height, filled with the transactions starting from {@code from}.
+         */
+        static Node build(List<LoanTransaction> transactions, int from, int height) {
+            if (from >= transactions.size()) {
+                return null;
+            }
+            if (height > 0) {
+                int half = capacityOf(height - 1);
+                return internal(build(transactions, from, height - 1),
+                        build(transactions, from + half, height - 1));
+            }
+            int length = Math.min(CHUNK_SIZE, transactions.size() - from);
+            long[] amounts = new long[length];
+            int[] epochDays = new int[length];
+            byte[] types = new byte[length];
+            for (int offset = 0; offset < length; offset++) {
+                LoanTransaction transaction = transactions.get(from + offset);
+                amounts[offset] = centsOf(transaction);
+                epochDays[offset] = dayOf(transaction);
+                types[offset] = typeOf(transaction);
+            }
+            return leaf(amounts, epochDays, types);
+        }
+
+        /**
+         * Returns a copy of {@code node}, a subtree of the given height, with the given slot overwritten.
+         */
+        static Node setSlot(Node node, int height, int slot, byte type, long amount, int epochDay) {
+            if (height == 0) {
+                return withEntry(node, slot, type, amount, epochDay);
+            }
+            int half = capacityOf(height - 1);
+            Node left = node == null ? null : node.left;
+            Node right = node == null ? null : node.right;
+            if (slot < half) {
+                return internal(setSlot(left, height - 1, slot, type, amount, epochDay), right);
+            } else {
+                return internal(left, setSlot(right, height - 1, slot - half, type, amount, epochDay));
+            }
+        }
+
+        /**
+         * Returns a copy of {@code node} with the slot of its {@code index}-th transaction overwritten.
+         */
+        static Node setIndex(Node node, int index, byte type, long amount, int epochDay) {
+            if (node.isLeaf()) {
+                return withEntry(node, node.offsetOf(index), type, amount, epochDay);
+            }
+            int leftCount = countOf(node.left);
+            if (index < leftCount) {
+                return internal(setIndex(node.left, index, type, amount, epochDay), node.right);
+            } else {
+                return internal(node.left, setIndex(node.right, index - leftCount, type, amount, epochDay));
+            }
+        }
+
+        /**
+         * Returns a copy of {@code leaf} (which may be {@code null}) with the slot at {@code offset} overwritten.
+         */
+        static Node withEntry(Node leaf, int offset, byte type, long amount, int epochDay) {
+            int length = Math.max(leaf == null ? 0 : leaf.types.length, offset + 1);
+            long[] amounts = leaf == null ? new long[length] : Arrays.copyOf(leaf.amounts, length);
+            int[] epochDays = leaf == null ? new int[length] : Arrays.copyOf(leaf.epochDays, length);
+            byte[] types = leaf == null ? new byte[length] : Arrays.copyOf(leaf.types, length);
+            amounts[offset] = amount;
+            epochDays[offset] = epochDay;
+            types[offset] = type;
+            return leaf(amounts, epochDays, types);
+        }
+
+        static void collectLeaves(Node node, List<Node> leaves) {
+            if (node == null) {
+                return;
+            }
+            if (node.isLeaf()) {
+                leaves.add(node);
+                return;
+            }
+            collectLeaves(node.left, leaves);
+            collectLeaves(node.right, leaves);
+        }
+
+        boolean isLeaf() {
+            return types != null;
+        }
+
+        /**
+         * Returns the offset of the {@code index}-th filled slot of this leaf.
+         */
+        int offsetOf(int index) {
+            for (int offset = 0; offset < types.length; offset++) {
+                if (types[offset] != TYPE_NONE && index-- == 0) {
+                    return offset;
+                }
+            }
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        /**
+         * Creates a {@code LoanTransaction} from the filled slot at {@code offset} of this leaf.
+         */
+        LoanTransaction transactionAt(int offset) {
+            MoneyInt amount = MoneyInt.fromCent(amounts[offset]);
+            LoanDate date = LoanDate.ofEpochDay(epochDays[offset]);
+            if (types[offset] == TYPE_ADD) {
+                return new AddLoanTransaction(amount, date);
+            }
+            assert types[offset] == TYPE_REPAY;
+            return new RepayLoanTransaction(amount, date);
+        }
+
+        /**
+         * Returns true if the slot at {@code offset} of this leaf holds the same transaction as
+         * the slot at {@code otherOffset} of {@code other}.
+         */
+        boolean hasSameEntry(int offset, Node other, int otherOffset) {
+            return types[offset] == other.types[otherOffset]
+                    && amounts[offset] == other.amounts[otherOffset]
+                    && epochDays[offset] == other.epochDays[otherOffset];
+        }
+
+        static int countOf(Node node) {
+            return node == null ? 0 : node.count;
+        }
+
+        static long totalDeltaOf(Node node) {
+            return node == null ? 0 : node.totalDelta;
+        }
+
+        static long remainingDeltaOf(Node node) {
+            return node == null ? 0 : node.remainingDelta;
+        }
+
+        static long minRemainingDeltaOf(Node node) {
+            return node == null ? 0 : node.minRemainingDelta;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package wanted.model.tag;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Gives every distinct {@code Tag} a small integer id, so that sets of tags can be stored as bitsets.
+ * <p>
+ * Ids are handed out in the order in which tags are first seen and are never reused. Loans are immutable values that
+ * are made before they join a loan book, so there is one dictionary for the whole application rather than one per
+ * book. A book uses only a handful of distinct tags, so the dictionary stays small.
+ */
+public final class TagDictionary {
+
+    private static final ConcurrentHashMap<String, Integer> idByName = new ConcurrentHashMap<>();
+    // appended to under the class lock only; readers need no lock
+    private static final List<Tag> tagById = new CopyOnWriteArrayList<>();
+
+    private TagDictionary() {}
+
+    /**
+     * Returns the id of {@code tag}, giving it the next free id if it has none yet.
+     */
+    public static int intern(Tag tag) {
+        requireNonNull(tag);
+        Integer id = idByName.get(tag.tagName);
+        if (id != null) {
+            return id;
+        }
+        synchronized (TagDictionary.class) {
+            id = idByName.get(tag.tagName);
+            if (id == null) {
+                id = tagById.size();
+                // the tag is added before its id is published, so anyone who sees the id can look up the tag
+                tagById.add(tag);
+                idByName.put(tag.tagName, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Returns the id of {@code tag}, or -1 if it has never been interned, in which case no loan has it.
+     */
+    public static int lookup(Tag tag) {
+        requireNonNull(tag);
+        return idByName.getOrDefault(tag.tagName, -1);
+    }
+
+    /**
+     * Returns the tag with the given id, which must have been handed out by {@link #intern(Tag)}.
+     */
+    public static Tag get(int id) {
+        return tagById.get(id);
+    }
+}
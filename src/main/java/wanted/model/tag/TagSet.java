@@ -0,0 +1,195 @@
+package wanted.model.tag;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * An immutable set of tags, stored as a bitset over the ids given to tags by {@link TagDictionary}.
+ * <p>
+ * Comparing two {@code TagSet}s, or checking whether one contains all tags of the other, takes one operation for
+ * every 64 tags rather than a hash lookup for every tag. A {@code TagSet} equals, and hashes the same as, any other
+ * {@code Set} of the same tags. The tags are iterated in the order of their ids.
+ */
+public final class TagSet extends AbstractSet<Tag> {
+
+    public static final TagSet EMPTY = new TagSet(new long[0]);
+
+    private final long[] words; // bit (id % 64) of word (id / 64) is set if the tag with that id is in the set
+    private final int size;
+    private final int hashCode;
+
+    private TagSet(long[] words) {
+        int last = words.length;
+        while (last > 0 && words[last - 1] == 0) {
+            last--;
+        }
+        this.words = last == words.length ? words : Arrays.copyOf(words, last);
+
+        int count = 0;
+        int hash = 0;
+        for (int id = nextId(0); id >= 0; id = nextId(id + 1)) {
+            count++;
+            hash += TagDictionary.get(id).hashCode();
+        }
+        this.size = count;
+        this.hashCode = hash;
+    }
+
+    /**
+     * Returns a {@code TagSet} of {@code tags}, which is {@code tags} itself if it is already a {@code TagSet}.
+     */
+    public static TagSet of(Collection<Tag> tags) {
+        requireNonNull(tags);
+        if (tags instanceof TagSet) {
+            return (TagSet) tags;
+        }
+        if (tags.isEmpty()) {
+            return EMPTY;
+        }
+        long[] words = new long[0];
+        for (Tag tag : tags) {
+            int id = TagDictionary.intern(tag);
+            if (id / Long.SIZE >= words.length) {
+                words = Arrays.copyOf(words, id / Long.SIZE + 1);
+            }
+            words[id / Long.SIZE] |= 1L << id;
+        }
+        return new TagSet(words);
+    }
+
+    /**
+     * Returns a {@code TagSet} of the given tags.
+     */
+    public static TagSet of(Tag... tags) {
+        return of(Arrays.asList(tags));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Tag)) {
+            return false;
+        }
+        int id = TagDictionary.lookup((Tag) o);
+        return id >= 0 && id / Long.SIZE < words.length && (words[id / Long.SIZE] & 1L << id) != 0;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (!(c instanceof TagSet)) {
+            return super.containsAll(c);
+        }
+        long[] otherWords = ((TagSet) c).words;
+        if (otherWords.length > words.length) {
+            return false;
+        }
+        for (int i = 0; i < otherWords.length; i++) {
+            if ((otherWords[i] & ~words[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean add(Tag tag) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Tag> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Tag> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<Tag> iterator() {
+        return new Iterator<>() {
+            private int nextId = nextId(0);
+
+            @Override
+            public boolean hasNext() {
+                return nextId >= 0;
+            }
+
+            @Override
+            public Tag next() {
+                if (nextId < 0) {
+                    throw new NoSuchElementException();
+                }
+                Tag tag = TagDictionary.get(nextId);
+                nextId = nextId(nextId + 1);
+                return tag;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) {
+            return true;
+        }
+
+        if (other instanceof TagSet) {
+            return Arrays.equals(words, ((TagSet) other).words);
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * Returns the smallest id in this set that is at least {@code fromId}, or -1 if there is none.
+     */
+    private int nextId(int fromId) {
+        int i = fromId / Long.SIZE;
+        if (i >= words.length) {
+            return -1;
+        }
+        long word = words[i] & (-1L << fromId);
+        while (word == 0) {
+            if (++i == words.length) {
+                return -1;
+            }
+            word = words[i];
+        }
+        return i * Long.SIZE + Long.numberOfTrailingZeros(word);
+    }
+}
@@ -0,0 +1,93 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import wanted.commons.core.LogsCenter;
+import wanted.commons.exceptions.DataLoadingException;
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.FileUtil;
+import wanted.model.ReadOnlyLoanBook;
+
+/**
+ * A class to access LoanBook data exported as a read-only archive on the hard disk.
+ * <p>
+ * Reading maps the archive into memory (see {@link MappedLoanBookArchive}) and returns a loan book whose loans are
+ * decoded from the mapped file as they are accessed, so a few loans can be looked up in a very large archive without
+ * reading it in full. Copying the returned loan book, as the model does with the loan book it starts from, decodes
+ * every loan, so an archive is not meant to be the data file of the app. Saving writes a new archive next to the old
+ * one and then moves it into place, so that archives already open are not changed.
+ */
+public class ArchiveLoanBookStorage implements LoanBookStorage {
+
+    private static final Logger logger = LogsCenter.getLogger(ArchiveLoanBookStorage.class);
+
+    private final Path filePath;
+
+    public ArchiveLoanBookStorage(Path filePath) {
+        this.filePath = filePath;
+    }
+
+    @Override
+    public Path getLoanBookFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public Optional<ReadOnlyLoanBook> readLoanBook() throws DataLoadingException {
+        return readLoanBook(filePath);
+    }
+
+    /**
+     * Similar to {@link #readLoanBook()}.
+     * A loan in the returned loan book that turns out to be corrupted throws an {@code IllegalStateException} when
+     * it is accessed.
+     *
+     * @param filePath location of the archive. Cannot be null.
+     * @throws DataLoadingException if the file is not an archive or could not be mapped.
+     */
+    @Override
+    public Optional<ReadOnlyLoanBook> readLoanBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+
+        if (!Files.exists(filePath)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(MappedLoanBookArchive.open(filePath));
+        } catch (IOException e) {
+            logger.warning("Error reading from " + filePath + ": " + e);
+            throw new DataLoadingException(e);
+        } catch (IllegalValueException ive) {
+            logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
+            throw new DataLoadingException(ive);
+        }
+    }
+
+    @Override
+    public void saveLoanBook(ReadOnlyLoanBook loanBook) throws IOException {
+        saveLoanBook(loanBook, filePath);
+    }
+
+    /**
+     * Similar to {@link #saveLoanBook(ReadOnlyLoanBook)}.
+     *
+     * @param filePath location of the archive. Cannot be null.
+     */
+    @Override
+    public void saveLoanBook(ReadOnlyLoanBook loanBook, Path filePath) throws IOException {
+        requireNonNull(loanBook);
+        requireNonNull(filePath);
+
+        FileUtil.createParentDirsOfFile(filePath);
+        Path tempFile = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        MappedLoanBookArchive.write(loanBook.getPersonList(), tempFile);
+        FileUtil.moveAtomically(tempFile, filePath);
+    }
+}
@@ -0,0 +1,535 @@
+package wanted.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import wanted.commons.core.datatypes.MoneyInt;
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.model.LoanBook;
+import wanted.model.loan.Loan;
+import wanted.model.loan.LoanAmount;
+import wanted.model.loan.LoanDate;
+import wanted.model.loan.Name;
+import wanted.model.loan.Phone;
+import wanted.model.loan.exceptions.ExcessRepaymentException;
+import wanted.model.loan.transaction.AddLoanTransaction;
+import wanted.model.loan.transaction.LoanTransaction;
+import wanted.model.loan.transaction.RepayLoanTransaction;
+import wanted.model.loan.transaction.TransactionLog;
+import wanted.model.tag.Tag;
+
+/**
+ * Encodes loans in a compact binary format, which loads much faster than JSON as no text has to be parsed.
+ * <p>
+ * A file starts with {@link #MAGIC} and a format version byte. Then comes a table of every distinct tag, followed by
+ * the loans. A loan is its name, its phone (empty if it has none), the positions of its tags in the table, the number
+ * of its transactions, its total and remaining amounts in cents, and the length in bytes of its transactions followed
+ * by the transactions themselves. A transaction is a type byte, its amount in cents and the number of days since the
+ * date of the previous transaction of the loan (or since 1970-01-01 for the first). Counts, lengths, positions and
+ * amounts are varints, day differences are zigzag varints and strings are UTF-8.
+ * <p>
+ * As the totals of a loan are stored with it, its transactions can be left undecoded until they are needed (see
+ * {@link LoanAmount#deferred}); they are then written out again as they are.
+ */
+class BinaryLoanBookFormat {
+
+    /** The bytes every file in this format starts with; JSON files never do. */
+    public static final byte[] MAGIC = {'W', 'L', 'B', 0};
+    public static final int VERSION = 2;
+    /** The version before the totals of each loan were stored, whose transactions are always decoded on load. */
+    public static final int VERSION_WITHOUT_TOTALS = 1;
+
+    public static final String MESSAGE_NOT_BINARY = "File is not a binary loan book.";
+    public static final String MESSAGE_UNSUPPORTED_VERSION = "Binary loan book version %d is not supported.";
+    public static final String MESSAGE_CORRUPTED = "Binary loan book is corrupted.";
+
+    private static final int TYPE_ADD = 1;
+    private static final int TYPE_REPAY = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Returns true if {@code header}, the first bytes of a file, mark it as a binary loan book.
+     */
+    public static boolean isBinary(byte[] header, int length) {
+        return length >= MAGIC.length && Arrays.equals(header, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+    }
+
+    /**
+     * Writes {@code loans} to {@code out} in this format. {@code out} is not closed.
+     */
+    public static void write(List<Loan> loans, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder(out);
+        encoder.writeBytes(MAGIC);
+        encoder.writeByte(VERSION);
+        Map<Tag, Integer> tagTable = writeTagTable(encoder, loans);
+        encoder.writeVarLong(loans.size());
+        for (Loan loan : loans) {
+            writeLoan(encoder, loan, tagTable);
+        }
+        encoder.flush();
+    }
+
+    /**
+     * Reads a loan book in this format from {@code in}, magic bytes included.
+     *
+     * @param isHistoryDeferred whether to keep the transactions of each loan undecoded until they are needed.
+     * @throws IOException if the input ends early, is not in this format or is corrupted.
+     * @throws IllegalValueException if a loan in the input is invalid or the same loan appears twice.
+     */
+    public static LoanBook read(InputStream in, boolean isHistoryDeferred) throws IOException, IllegalValueException {
+        Decoder decoder = new Decoder(in);
+        byte[] magic = decoder.readBytes(MAGIC.length);
+        if (!isBinary(magic, magic.length)) {
+            throw new IOException(MESSAGE_NOT_BINARY);
+        }
+        int version = decoder.readByte();
+        if (version != VERSION && version != VERSION_WITHOUT_TOTALS) {
+            throw new IOException(String.format(MESSAGE_UNSUPPORTED_VERSION, version));
+        }
+
+        Tag[] tags = readTagTable(decoder);
+        LoanBook loanBook = new LoanBook();
+        int loanCount = decoder.readCount();
+        for (int i = 0; i < loanCount; i++) {
+            Loan loan = readLoan(decoder, tags, version == VERSION, isHistoryDeferred);
+            if (loanBook.hasPerson(loan)) {
+                throw new IllegalValueException(JsonSerializableLoanBook.MESSAGE_DUPLICATE_PERSON);
+            }
+            loanBook.addPerson(loan);
+        }
+        return loanBook;
+    }
+
+    /**
+     * Writes the table of the distinct tags of {@code loans} and returns the position of each tag in it.
+     */
+    static Map<Tag, Integer> writeTagTable(Encoder encoder, List<Loan> loans) throws IOException {
+        Map<Tag, Integer> tagTable = new HashMap<>();
+        List<Tag> tags = new ArrayList<>();
+        for (Loan loan : loans) {
+            for (Tag tag : loan.getTags()) {
+                if (tagTable.putIfAbsent(tag, tags.size()) == null) {
+                    tags.add(tag);
+                }
+            }
+        }
+
+        encoder.writeVarLong(tags.size());
+        for (Tag tag : tags) {
+            encoder.writeString(tag.tagName);
+        }
+        return tagTable;
+    }
+
+    /**
+     * Reads a table written by {@link #writeTagTable(Encoder, List)}.
+     */
+    static Tag[] readTagTable(Decoder decoder) throws IOException, IllegalValueException {
+        Tag[] tags = new Tag[decoder.readCount()];
+        for (int i = 0; i < tags.length; i++) {
+            try {
+                tags[i] = new Tag(decoder.readString());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalValueException(Tag.MESSAGE_CONSTRAINTS);
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Writes a single loan, referring to its tags by their position in {@code tagTable}.
+     */
+    static void writeLoan(Encoder encoder, Loan loan, Map<Tag, Integer> tagTable) throws IOException {
+        encoder.writeString(loan.getName().fullName);
+        encoder.writeString(loan.getPhone() == Phone.EMPTY_PHONE ? "" : loan.getPhone().getValue());
+        encoder.writeVarLong(loan.getTags().size());
+        for (Tag tag : loan.getTags()) {
+            encoder.writeVarLong(tagTable.get(tag));
+        }
+
+        LoanAmount loanAmount = loan.getLoanAmount();
+        encoder.writeVarLong(loanAmount.getTransactionsCount());
+        encoder.writeVarLong(loanAmount.getTotalAmount().getValueTimesOneHundred());
+        encoder.writeVarLong(loanAmount.getRemainingAmount().getValueTimesOneHundred());
+        if (loanAmount.getHistoryLoader() instanceof EncodedHistory) {
+            ByteBuffer history = ((EncodedHistory) loanAmount.getHistoryLoader()).getBytes();
+            encoder.writeVarLong(history.remaining());
+            encoder.writeBytes(history);
+            return;
+        }
+
+        List<LoanTransaction> transactions = loanAmount.getTransactionHistoryCopy();
+        long historyLength = 0;
+        long previousDay = 0;
+        for (LoanTransaction transaction : transactions) {
+            int day = transaction.getDate().getEpochDay();
+            historyLength += 1 + varLongLength(transaction.getAmount().getValueTimesOneHundred())
+                    + varLongLength(zigzag(day - previousDay));
+            previousDay = day;
+        }
+        encoder.writeVarLong(historyLength);
+        previousDay = 0;
+        for (LoanTransaction transaction : transactions) {
+            int day = transaction.getDate().getEpochDay();
+            encoder.writeByte(transaction instanceof RepayLoanTransaction ? TYPE_REPAY : TYPE_ADD);
+            encoder.writeVarLong(transaction.getAmount().getValueTimesOneHundred());
+            encoder.writeVarLong(zigzag(day - previousDay));
+            previousDay = day;
+        }
+    }
+
+    /**
+     * Reads a single loan written by {@link #writeLoan(Encoder, Loan, Map)}.
+     *
+     * @param isHistoryDeferred whether to keep the transactions of the loan undecoded until they are needed.
+     */
+    static Loan readLoan(Decoder decoder, Tag[] tags, boolean isHistoryDeferred)
+            throws IOException, IllegalValueException {
+        return readLoan(decoder, tags, true, isHistoryDeferred);
+    }
+
+    private static Loan readLoan(Decoder decoder, Tag[] tags, boolean hasTotals, boolean isHistoryDeferred)
+            throws IOException, IllegalValueException {
+        final Name name;
+        try {
+            name = new Name(decoder.readString());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalValueException(Name.MESSAGE_CONSTRAINTS);
+        }
+        String phone = decoder.readString();
+
+        int tagCount = decoder.readCount();
+        Set<Tag> loanTags = new HashSet<>();
+        for (int i = 0; i < tagCount; i++) {
+            int tagIndex = decoder.readCount();
+            if (tagIndex >= tags.length) {
+                throw new IOException(MESSAGE_CORRUPTED);
+            }
+            loanTags.add(tags[tagIndex]);
+        }
+
+        int transactionCount = decoder.readCount();
+        try {
+            LoanAmount loanAmount = hasTotals
+                    ? readLoanAmount(decoder, transactionCount, isHistoryDeferred)
+                    : new LoanAmount(readTransactions(decoder, transactionCount));
+            return new Loan(name, loanAmount, loanTags,
+                    Phone.isValidPhone(phone) ? new Phone(phone) : Phone.EMPTY_PHONE);
+        } catch (ExcessRepaymentException e) {
+            throw new IllegalValueException(JsonAdaptedLoan.LOAN_EXCESS_REPAYMENT_MESSAGE);
+        } catch (ArithmeticException e) {
+            throw new IllegalValueException(MoneyInt.MESSAGE_OVERFLOW);
+        }
+    }
+
+    /**
+     * Reads the stored totals and the transactions of a loan with {@code transactionCount} transactions.
+     */
+    private static LoanAmount readLoanAmount(Decoder decoder, int transactionCount, boolean isHistoryDeferred)
+            throws IOException, ExcessRepaymentException {
+        long totalCents = decoder.readVarLong();
+        long remainingCents = decoder.readVarLong();
+        int historyLength = decoder.readCount();
+        if (totalCents < 0 || remainingCents < 0 || remainingCents > totalCents) {
+            throw new IOException(MESSAGE_CORRUPTED);
+        }
+
+        if (isHistoryDeferred) {
+            EncodedHistory history = new EncodedHistory(decoder.readBuffer(historyLength), transactionCount);
+            history.checkTotals(totalCents, remainingCents);
+            return LoanAmount.deferred(MoneyInt.fromCent(totalCents), MoneyInt.fromCent(remainingCents),
+                    transactionCount, history);
+        }
+        LoanAmount loanAmount = new LoanAmount(readTransactions(decoder, transactionCount));
+        if (loanAmount.getTotalAmount().getValueTimesOneHundred() != totalCents
+                || loanAmount.getRemainingAmount().getValueTimesOneHundred() != remainingCents) {
+            throw new IOException(MESSAGE_CORRUPTED);
+        }
+        return loanAmount;
+    }
+
+    private static ArrayList<LoanTransaction> readTransactions(Decoder decoder, int transactionCount)
+            throws IOException {
+        ArrayList<LoanTransaction> transactions = new ArrayList<>();
+        long day = 0;
+        for (int i = 0; i < transactionCount; i++) {
+            int type = decoder.readByte();
+            long cents = decoder.readVarLong();
+            day += unzigzag(decoder.readVarLong());
+            if (cents < 0 || day != (int) day) {
+                throw new IOException(MESSAGE_CORRUPTED);
+            }
+            MoneyInt amount = MoneyInt.fromCent(cents);
+            LoanDate date = LoanDate.ofEpochDay((int) day);
+            if (type == TYPE_ADD) {
+                transactions.add(new AddLoanTransaction(amount, date));
+            } else if (type == TYPE_REPAY) {
+                transactions.add(new RepayLoanTransaction(amount, date));
+            } else {
+                throw new IOException(MESSAGE_CORRUPTED);
+            }
+        }
+        return transactions;
+    }
+
+    private static int varLongLength(long value) {
+        int length = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes the primitive values of the format to a stream through a buffer.
+     */
+    static class Encoder {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private long flushedBytes;
+
+        Encoder(OutputStream out) {
+            this.out = out;
+        }
+
+        void writeByte(int value) throws IOException {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) throws IOException {
+            if (bytes.length > buffer.length - position) {
+                flush();
+                if (bytes.length > buffer.length) {
+                    out.write(bytes);
+                    flushedBytes += bytes.length;
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeBytes(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                if (position == buffer.length) {
+                    flush();
+                }
+                int length = Math.min(bytes.remaining(), buffer.length - position);
+                bytes.get(buffer, position, length);
+                position += length;
+            }
+        }
+
+        /** Writes {@code value} as an unsigned varint: 7 bits per byte, lowest first, high bit set if more follow. */
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes);
+        }
+
+        /** Returns the number of bytes written so far, including those still in the buffer. */
+        long getBytesWritten() {
+            return flushedBytes + position;
+        }
+
+        void flush() throws IOException {
+            out.write(buffer, 0, position);
+            flushedBytes += position;
+            position = 0;
+        }
+    }
+
+    /**
+     * Reads the primitive values of the format from a stream through a buffer, or from a buffer holding all the input.
+     */
+    static class Decoder {
+        private final InputStream in; // null if there is no more input than the buffer
+        private final ByteBuffer buffer;
+
+        Decoder(InputStream in) {
+            this.in = in;
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE).limit(0);
+        }
+
+        Decoder(ByteBuffer buffer) {
+            this.in = null;
+            this.buffer = buffer;
+        }
+
+        int readByte() throws IOException {
+            if (!buffer.hasRemaining()) {
+                int length = in == null ? 0 : in.readNBytes(buffer.array(), 0, buffer.capacity());
+                if (length == 0) {
+                    throw new EOFException(MESSAGE_CORRUPTED);
+                }
+                buffer.position(0).limit(length);
+            }
+            return buffer.get() & 0xFF;
+        }
+
+        byte[] readBytes(int length) throws IOException {
+            int buffered = Math.min(length, buffer.remaining());
+            // readNBytes grows its result as it reads, so a corrupted length fails at the end of the input
+            byte[] rest = in == null ? new byte[0] : in.readNBytes(length - buffered);
+            if (rest.length < length - buffered) {
+                throw new EOFException(MESSAGE_CORRUPTED);
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes, 0, buffered);
+            System.arraycopy(rest, 0, bytes, buffered, rest.length);
+            return bytes;
+        }
+
+        /**
+         * Returns the next {@code length} bytes. They are shared with the input if it is all in the buffer, and
+         * copied otherwise.
+         */
+        ByteBuffer readBuffer(int length) throws IOException {
+            if (in != null) {
+                return ByteBuffer.wrap(readBytes(length));
+            }
+            if (length > buffer.remaining()) {
+                throw new EOFException(MESSAGE_CORRUPTED);
+            }
+            ByteBuffer bytes = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            return bytes;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException(MESSAGE_CORRUPTED);
+        }
+
+        /** Reads a varint that counts or indexes something, which always fits in an {@code int}. */
+        int readCount() throws IOException {
+            long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IOException(MESSAGE_CORRUPTED);
+            }
+            return (int) value;
+        }
+
+        String readString() throws IOException {
+            int length = readCount();
+            if (length <= buffer.remaining() && buffer.hasArray()) {
+                int position = buffer.position();
+                buffer.position(position + length);
+                return new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+            }
+            return new String(readBytes(length), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Transactions of a loan kept in this format until they are needed.
+     */
+    static class EncodedHistory implements Supplier<TransactionLog> {
+        private final ByteBuffer bytes;
+        private final int transactionCount;
+
+        EncodedHistory(ByteBuffer bytes, int transactionCount) {
+            this.bytes = bytes.asReadOnlyBuffer();
+            this.transactionCount = transactionCount;
+        }
+
+        /**
+         * Returns the encoded transactions.
+         */
+        ByteBuffer getBytes() {
+            return bytes.duplicate();
+        }
+
+        /**
+         * Checks that the encoded transactions are well-formed, never repay more than is owed and add up to the given
+         * totals, without building them. A damaged history is then found when it is loaded rather than when it is
+         * first needed.
+         *
+         * @throws IOException if they do not.
+         */
+        void checkTotals(long totalCents, long remainingCents) throws IOException {
+            ByteBuffer encoded = getBytes();
+            Decoder decoder = new Decoder(encoded);
+            long total = 0;
+            long remaining = 0;
+            long day = 0;
+            try {
+                for (int i = 0; i < transactionCount; i++) {
+                    int type = decoder.readByte();
+                    long cents = decoder.readVarLong();
+                    day = Math.addExact(day, unzigzag(decoder.readVarLong()));
+                    if (cents < 0 || day != (int) day) {
+                        throw new IOException(MESSAGE_CORRUPTED);
+                    }
+                    if (type == TYPE_ADD) {
+                        total = Math.addExact(total, cents);
+                        remaining = Math.addExact(remaining, cents);
+                    } else if (type == TYPE_REPAY && cents <= remaining) {
+                        remaining -= cents;
+                    } else {
+                        throw new IOException(MESSAGE_CORRUPTED);
+                    }
+                }
+            } catch (ArithmeticException e) {
+                throw new IOException(MESSAGE_CORRUPTED);
+            }
+            if (encoded.hasRemaining() || total != totalCents || remaining != remainingCents) {
+                throw new IOException(MESSAGE_CORRUPTED);
+            }
+        }
+
+        /**
+         * Decodes the transactions.
+         *
+         * @throws IllegalStateException if they are corrupted.
+         */
+        @Override
+        public TransactionLog get() {
+            try {
+                return TransactionLog.of(readTransactions(new Decoder(getBytes()), transactionCount));
+            } catch (IOException | ExcessRepaymentException e) {
+                throw new IllegalStateException(MESSAGE_CORRUPTED, e);
+            }
+        }
+    }
+}
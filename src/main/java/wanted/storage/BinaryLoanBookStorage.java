@@ -0,0 +1,124 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import wanted.commons.core.LogsCenter;
+import wanted.commons.exceptions.DataLoadingException;
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.FileUtil;
+import wanted.model.ReadOnlyLoanBook;
+
+/**
+ * A class to access LoanBook data stored in the binary format of {@link BinaryLoanBookFormat} on the hard disk.
+ * <p>
+ * Reading looks at the first bytes of the file to tell the formats apart, so a file written by
+ * {@link JsonLoanBookStorage} is still read; it is replaced by a binary file on the next save. Like that storage,
+ * a save writes a temporary file and then moves it into place.
+ */
+public class BinaryLoanBookStorage implements LoanBookStorage {
+
+    private static final Logger logger = LogsCenter.getLogger(BinaryLoanBookStorage.class);
+
+    private final Path filePath;
+    private final boolean isHistoryDeferred;
+
+    public BinaryLoanBookStorage(Path filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Creates a storage that, if {@code isHistoryDeferred}, reads only the totals of each loan from a binary file and
+     * keeps its transactions undecoded until they are first needed. Loading then only checks the encoded transactions
+     * against the totals instead of building them, and saving writes undecoded transactions out as they are.
+     */
+    public BinaryLoanBookStorage(Path filePath, boolean isHistoryDeferred) {
+        this.filePath = filePath;
+        this.isHistoryDeferred = isHistoryDeferred;
+    }
+
+    @Override
+    public Path getLoanBookFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public Optional<ReadOnlyLoanBook> readLoanBook() throws DataLoadingException {
+        return readLoanBook(filePath);
+    }
+
+    /**
+     * Similar to {@link #readLoanBook()}.
+     *
+     * @param filePath location of the data, in either the binary or the JSON format. Cannot be null.
+     * @throws DataLoadingException if loading the data from storage failed.
+     */
+    @Override
+    public Optional<ReadOnlyLoanBook> readLoanBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+
+        if (!Files.exists(filePath)) {
+            return Optional.empty();
+        }
+
+        try {
+            if (!isBinaryFile(filePath)) {
+                logger.info(filePath + " is not in the binary format, reading it as JSON");
+                return Optional.of(new JsonLoanBookReader(filePath).read());
+            }
+            try (InputStream in = Files.newInputStream(filePath)) {
+                return Optional.of(BinaryLoanBookFormat.read(in, isHistoryDeferred));
+            }
+        } catch (IOException e) {
+            logger.warning("Error reading from " + filePath + ": " + e);
+            throw new DataLoadingException(e);
+        } catch (IllegalValueException ive) {
+            logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
+            throw new DataLoadingException(ive);
+        }
+    }
+
+    /**
+     * Returns true if the file at {@code filePath} starts with the magic bytes of the binary format.
+     */
+    public static boolean isBinaryFile(Path filePath) throws IOException {
+        try (InputStream in = Files.newInputStream(filePath)) {
+            byte[] header = in.readNBytes(BinaryLoanBookFormat.MAGIC.length);
+            return BinaryLoanBookFormat.isBinary(header, header.length);
+        }
+    }
+
+    @Override
+    public void saveLoanBook(ReadOnlyLoanBook loanBook) throws IOException {
+        saveLoanBook(loanBook, filePath);
+    }
+
+    /**
+     * Similar to {@link #saveLoanBook(ReadOnlyLoanBook)}.
+     *
+     * @param filePath location of the data. Cannot be null.
+     */
+    @Override
+    public void saveLoanBook(ReadOnlyLoanBook loanBook, Path filePath) throws IOException {
+        requireNonNull(loanBook);
+        requireNonNull(filePath);
+
+        FileUtil.createParentDirsOfFile(filePath);
+        Path tempFile = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BinaryLoanBookFormat.write(loanBook.getPersonList(), Channels.newOutputStream(channel));
+            channel.force(false);
+        }
+        FileUtil.moveAtomically(tempFile, filePath);
+    }
+}
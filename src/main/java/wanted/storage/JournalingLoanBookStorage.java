@@ -0,0 +1,457 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import wanted.commons.core.LogsCenter;
+import wanted.commons.exceptions.DataLoadingException;
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.FileUtil;
+import wanted.commons.util.JsonUtil;
+import wanted.model.LoanBook;
+import wanted.model.ReadOnlyLoanBook;
+import wanted.model.loan.Loan;
+import wanted.model.loan.exceptions.DuplicateLoanException;
+
+/**
+ * A class to access LoanBook data stored as a json snapshot plus a write-ahead journal on the hard disk.
+ * <p>
+ * The snapshot has the same format as the file written by {@link JsonLoanBookStorage}. Each save appends a single
+ * numbered line to the journal (the snapshot path with {@link #JOURNAL_SUFFIX} appended) describing only the loans
+ * that changed since the previous save, so its cost is proportional to the change rather than to the book. The
+ * record is forced to the disk before the save returns; saves made through a {@link LoanBookSaveScheduler} while
+ * one is being forced are combined into the next record, so a burst of changes shares a single disk flush.
+ * Reading replays the journal records that are newer than the snapshot.
+ * <p>
+ * Once the journal holds {@code compactionThreshold} records, or grows larger than the snapshot, a background
+ * thread writes a fresh snapshot of the saved loans and then drops the records it covers from the journal.
+ * Both files are replaced atomically, so a crash at any point loses no saved change, and saves carry on appending
+ * while the snapshot is being written. This keeps the journal, and so the time taken to read it back, bounded.
+ * <p>
+ * If the files cannot be read in full, {@link #recoverLoanBook()} recovers the snapshot with a
+ * {@link JsonLoanBookRecovery} and replays the journal on top of it, up to the first record that cannot be applied.
+ */
+public class JournalingLoanBookStorage implements LoanBookStorage {
+
+    public static final String JOURNAL_SUFFIX = ".journal";
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 256;
+    public static final String MESSAGE_MISSING_RECORDS = "Journal does not continue from the snapshot.";
+    public static final String MESSAGE_UNKNOWN_SNAPSHOT = "Journal record cannot be applied, as the snapshot "
+            + "does not say which records it includes.";
+    public static final String MESSAGE_AFTER_LOST_RECORD = "Journal record follows one that could not be applied.";
+
+    private static final Logger logger = LogsCenter.getLogger(JournalingLoanBookStorage.class);
+
+    private final Path filePath;
+    private final Path journalPath;
+    private final Path snapshotTempPath; // where a save writes a snapshot before moving it into place
+    private final Path compactedPath; // where the compactor writes a snapshot before moving it into place
+    private final JsonLoanBookWriter writer = new JsonLoanBookWriter(false);
+    private final int compactionThreshold;
+    private ExecutorService compactor; // created on first use
+
+    // The fields below are guarded by this object's lock.
+    private List<Loan> savedLoans; // loans as of the last read or save of filePath, null if unknown; never mutated
+    private long lastSequence; // sequence number of the last journal record written or replayed
+    private int journalRecords; // records in the journal that are not part of the snapshot yet
+    private long journalBytes;
+    private long snapshotBytes;
+    private long generation; // changes whenever the files are replaced without the compactor
+    private Future<?> compaction; // the compaction in progress, if any
+
+    public JournalingLoanBookStorage(Path filePath) {
+        this(filePath, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Creates a storage that compacts the journal into the snapshot after {@code compactionThreshold} records.
+     */
+    public JournalingLoanBookStorage(Path filePath, int compactionThreshold) {
+        requireNonNull(filePath);
+        this.filePath = filePath;
+        this.journalPath = journalPathOf(filePath);
+        this.snapshotTempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        this.compactedPath = filePath.resolveSibling(filePath.getFileName() + ".compacted");
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Returns the path of the journal that belongs to the snapshot at {@code filePath}.
+     */
+    public static Path journalPathOf(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + JOURNAL_SUFFIX);
+    }
+
+    @Override
+    public Path getLoanBookFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public Optional<ReadOnlyLoanBook> readLoanBook() throws DataLoadingException {
+        return readLoanBook(filePath);
+    }
+
+    /**
+     * Similar to {@link #readLoanBook()}.
+     *
+     * @param filePath location of the snapshot. Its journal, if any, is replayed on top of it. Cannot be null.
+     * @throws DataLoadingException if loading the data from storage failed.
+     */
+    @Override
+    public synchronized Optional<ReadOnlyLoanBook> readLoanBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+        boolean isOwnFile = filePath.equals(this.filePath);
+        if (isOwnFile) {
+            savedLoans = null;
+            generation++;
+        }
+
+        if (!Files.exists(filePath)) {
+            return Optional.empty();
+        }
+
+        try {
+            long snapshotSize = Files.size(filePath);
+            JsonLoanBookReader snapshotReader = new JsonLoanBookReader(filePath);
+            List<Loan> loans = new ArrayList<>(snapshotReader.read().getPersonList());
+
+            Optional<Long> snapshotSequence = snapshotReader.getJournalSequence();
+            Path journalPath = journalPathOf(filePath);
+            JournalReplay replay = new JournalReplay(snapshotSequence.orElse(0L));
+            if (snapshotSequence.isPresent()) {
+                replay.replay(journalPath, loans);
+            } else if (Files.exists(journalPath)) {
+                logger.warning("Ignoring " + journalPath + " as " + filePath + " was not written with it");
+            }
+
+            LoanBook loanBook = new LoanBook();
+            loanBook.setPersons(loans);
+            if (isOwnFile && snapshotSequence.isPresent()) {
+                if (replay.validBytes < replay.totalBytes) {
+                    // drop the record that was cut short so that new records are not appended after it
+                    try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+                        channel.truncate(replay.validBytes);
+                    }
+                }
+                savedLoans = loans;
+                lastSequence = replay.lastSequence;
+                journalRecords = replay.records;
+                journalBytes = replay.validBytes;
+                snapshotBytes = snapshotSize;
+            }
+            return Optional.of(loanBook);
+        } catch (IOException e) {
+            logger.warning("Error reading from " + filePath + ": " + e);
+            throw new DataLoadingException(e);
+        } catch (IllegalValueException ive) {
+            logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
+            throw new DataLoadingException(ive);
+        } catch (DuplicateLoanException e) {
+            IllegalValueException ive = new IllegalValueException(JsonSerializableLoanBook.MESSAGE_DUPLICATE_PERSON);
+            logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
+            throw new DataLoadingException(ive);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Loans lost from the snapshot that were later deleted or replaced by a journal record are not reported, and
+     * the first journal record that cannot be applied is lost with every record after it.
+     */
+    @Override
+    public synchronized RecoveredLoanBook recoverLoanBook() throws DataLoadingException {
+        savedLoans = null;
+        generation++;
+
+        try {
+            JsonLoanBookRecovery recovery = new JsonLoanBookRecovery(filePath);
+            if (Files.exists(filePath)) {
+                recovery.read();
+                new JournalReplay(recovery.getJournalSequence().orElse(0L)).recover(journalPath, recovery);
+            }
+            // the next save writes a full snapshot, which drops the journal, so recovering again loses nothing
+            return recovery.finish();
+        } catch (IOException e) {
+            logger.warning("Error recovering from " + filePath + ": " + e);
+            throw new DataLoadingException(e);
+        }
+    }
+
+    @Override
+    public void saveLoanBook(ReadOnlyLoanBook loanBook) throws IOException {
+        saveLoanBook(loanBook, filePath);
+    }
+
+    /**
+     * Similar to {@link #saveLoanBook(ReadOnlyLoanBook)}.
+     * Saving to a path other than {@link #getLoanBookFilePath()} always writes a full snapshot.
+     *
+     * @param filePath location of the data. Cannot be null.
+     */
+    @Override
+    public synchronized void saveLoanBook(ReadOnlyLoanBook loanBook, Path filePath) throws IOException {
+        requireNonNull(loanBook);
+        requireNonNull(filePath);
+
+        if (!filePath.equals(this.filePath)) {
+            FileUtil.createParentDirsOfFile(filePath);
+            Path tempPath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+            writer.write(loanBook.getPersonList(), null, tempPath);
+            FileUtil.moveAtomically(tempPath, filePath);
+            return;
+        }
+
+        List<Loan> loans = new ArrayList<>(loanBook.getPersonList());
+        if (savedLoans == null) {
+            // nothing on disk is known to be ours, so start over from a snapshot of the whole book
+            generation++;
+            // the snapshot includes every record of the old journal, so none is replayed on top of it if the app
+            // stops before the journal is deleted
+            lastSequence = Math.max(lastSequence, lastSequenceIn(journalPath));
+            FileUtil.createParentDirsOfFile(this.filePath);
+            long snapshotSize = writer.write(loans, lastSequence, snapshotTempPath);
+            FileUtil.moveAtomically(snapshotTempPath, this.filePath);
+            Files.deleteIfExists(journalPath);
+            savedLoans = loans;
+            journalRecords = 0;
+            journalBytes = 0;
+            snapshotBytes = snapshotSize;
+            return;
+        }
+
+        JsonAdaptedLoanBookEdit edit = JsonAdaptedLoanBookEdit.between(lastSequence + 1, savedLoans, loans);
+        if (edit.isEmpty()) {
+            return;
+        }
+        byte[] record = (JsonUtil.toCompactJsonString(edit) + "\n").getBytes(StandardCharsets.UTF_8);
+        appendToJournal(record);
+        savedLoans = loans;
+        lastSequence++;
+        journalRecords++;
+        journalBytes += record.length;
+
+        if (compaction == null && (journalRecords >= compactionThreshold || journalBytes > snapshotBytes)) {
+            scheduleCompaction();
+        }
+    }
+
+    /**
+     * Blocks until the compaction in progress, if any, has finished.
+     * Must not be called while holding the lock of this storage.
+     */
+    public void awaitCompaction() {
+        Future<?> pending;
+        synchronized (this) {
+            pending = compaction;
+        }
+        if (pending == null) {
+            return;
+        }
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warning("Compaction of " + filePath + " failed: " + e.getCause());
+        }
+    }
+
+    /**
+     * Returns the largest sequence number of the readable records of the journal at {@code journalPath}, or 0 if
+     * there are none.
+     */
+    private static long lastSequenceIn(Path journalPath) throws IOException {
+        if (!Files.exists(journalPath)) {
+            return 0;
+        }
+        long last = 0;
+        for (String line : new String(Files.readAllBytes(journalPath), StandardCharsets.UTF_8).split("\n")) {
+            try {
+                JsonAdaptedLoanBookEdit edit = JsonUtil.fromJsonString(line, JsonAdaptedLoanBookEdit.class);
+                if (edit != null) {
+                    last = Math.max(last, edit.getSequence());
+                }
+            } catch (IOException e) {
+                // a damaged record is never replayed, so its sequence number does not matter
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Appends {@code record} to the journal and forces it to the disk, so that the save survives a crash.
+     */
+    private void appendToJournal(byte[] record) throws IOException {
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            boolean isNew = channel.size() == 0;
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            if (isNew) {
+                FileUtil.forceParentDir(journalPath);
+            }
+        }
+    }
+
+    private void scheduleCompaction() {
+        assert Thread.holdsLock(this);
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "loanbook-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        List<Loan> loans = savedLoans;
+        long sequence = lastSequence;
+        int records = journalRecords;
+        long bytes = journalBytes;
+        long expectedGeneration = generation;
+        compaction = compactor.submit(() -> compact(loans, sequence, records, bytes, expectedGeneration));
+    }
+
+    /**
+     * Replaces the snapshot with {@code loans}, which include all records up to {@code sequence}, and then removes
+     * the first {@code records} records, which take up {@code bytes} bytes, from the journal.
+     * Does nothing if the files were replaced in the meantime. Runs on the compactor thread.
+     */
+    private void compact(List<Loan> loans, long sequence, int records, long bytes, long expectedGeneration) {
+        try {
+            // the snapshot is serialised and written without holding the lock, so saves are not held up
+            long snapshotSize = writer.write(loans, sequence, compactedPath);
+            synchronized (this) {
+                if (generation != expectedGeneration) {
+                    Files.deleteIfExists(compactedPath);
+                    return;
+                }
+                FileUtil.moveAtomically(compactedPath, filePath);
+                byte[] journal = Files.readAllBytes(journalPath);
+                FileUtil.writeToFileAtomically(journalPath, Arrays.copyOfRange(journal, (int) bytes, journal.length));
+                journalRecords -= records;
+                journalBytes -= bytes;
+                snapshotBytes = snapshotSize;
+            }
+            logger.fine("Compacted " + records + " journal records into " + filePath);
+        } catch (IOException e) {
+            // the records stay in the journal and a later save tries again
+            logger.warning("Could not compact " + journalPath + ": " + e);
+        } finally {
+            synchronized (this) {
+                compaction = null;
+            }
+        }
+    }
+
+    /**
+     * Replays a journal on top of the snapshot that includes every record up to a given sequence number.
+     */
+    private static class JournalReplay {
+        private long lastSequence;
+        private int records;
+        private long validBytes; // length of the part of the journal made of complete records
+        private long totalBytes;
+
+        JournalReplay(long snapshotSequence) {
+            this.lastSequence = snapshotSequence;
+        }
+
+        /**
+         * Applies the records of the journal at {@code journalPath} that are newer than the snapshot to
+         * {@code loans}, in order. A last record without its terminating newline is taken to be a save that was cut
+         * short and ignored, but a terminated record that cannot be read is an error like any other.
+         */
+        void replay(Path journalPath, List<Loan> loans) throws IOException, IllegalValueException {
+            if (!Files.exists(journalPath)) {
+                return;
+            }
+            byte[] journal = Files.readAllBytes(journalPath);
+            totalBytes = journal.length;
+            int start = 0;
+            while (start < journal.length) {
+                int end = start;
+                while (end < journal.length && journal[end] != '\n') {
+                    end++;
+                }
+                if (end == journal.length) {
+                    logger.warning("Ignoring incomplete last record of " + journalPath);
+                    return;
+                }
+                JsonAdaptedLoanBookEdit edit = JsonAdaptedLoanBookEdit.fromJson(new String(journal, start,
+                        end - start, StandardCharsets.UTF_8));
+                if (edit.getSequence() > lastSequence + 1) {
+                    throw new IllegalValueException(MESSAGE_MISSING_RECORDS);
+                }
+                if (edit.getSequence() > lastSequence) {
+                    edit.applyTo(loans);
+                    lastSequence = edit.getSequence();
+                    records++;
+                }
+                start = end + 1;
+                validBytes = start;
+            }
+        }
+
+        /**
+         * Applies the records of the journal at {@code journalPath} that are newer than the snapshot to the loans of
+         * {@code recovery}, like {@link #replay(Path, List)}, but records the first record that cannot be applied,
+         * and every record after it, as lost instead of failing.
+         */
+        void recover(Path journalPath, JsonLoanBookRecovery recovery) throws IOException {
+            if (!Files.exists(journalPath)) {
+                return;
+            }
+            boolean isSnapshotKnown = recovery.getJournalSequence().isPresent();
+            boolean isBroken = false; // whether a record could not be applied
+            int lineNumber = 0;
+            // unlike in replay, a line cut short by a crash is a save that never finished, so it is dropped unread
+            List<String> lines = List.of(new String(Files.readAllBytes(journalPath), StandardCharsets.UTF_8)
+                    .split("\n", -1));
+            for (String line : lines.subList(0, lines.size() - 1)) {
+                lineNumber++;
+                String location = "line " + lineNumber + " of " + journalPath.getFileName();
+                if (!isSnapshotKnown || isBroken) {
+                    String reason = isSnapshotKnown ? MESSAGE_AFTER_LOST_RECORD : MESSAGE_UNKNOWN_SNAPSHOT;
+                    recovery.addLoss(new JsonLoanBookRecovery.LostRecord(location, null, reason, line));
+                    continue;
+                }
+                try {
+                    JsonAdaptedLoanBookEdit edit = JsonAdaptedLoanBookEdit.fromJson(line);
+                    if (edit.getSequence() > lastSequence + 1) {
+                        throw new IllegalValueException(MESSAGE_MISSING_RECORDS);
+                    }
+                    if (edit.getSequence() > lastSequence) {
+                        edit.applyTo(recovery.getLoans(), recovery.getLostRecords());
+                        lastSequence = edit.getSequence();
+                    }
+                } catch (IOException e) {
+                    recovery.addLoss(new JsonLoanBookRecovery.LostRecord(location, null,
+                            JsonLoanBookRecovery.MESSAGE_NOT_JSON, line));
+                    isBroken = true;
+                } catch (IllegalValueException e) {
+                    recovery.addLoss(new JsonLoanBookRecovery.LostRecord(location, null, e.getMessage(), line));
+                    isBroken = true;
+                }
+            }
+        }
+    }
+}
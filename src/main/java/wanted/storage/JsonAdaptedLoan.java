@@ -1,14 +1,22 @@
 package wanted.storage;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.zip.CRC32C;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
 
+import wanted.commons.core.datatypes.MoneyInt;
 import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.JsonUtil;
 import wanted.model.loan.Loan;
 import wanted.model.loan.LoanAmount;
 import wanted.model.loan.Name;
@@ -19,26 +27,53 @@ import wanted.model.tag.Tag;
 
 /**
  * Jackson-friendly version of {@link Loan}.
+ * <p>
+ * A loan may carry a CRC32C checksum of the compact JSON of its other fields, which is checked when it is converted
+ * back into a {@code Loan}, so that a record damaged on disk is not mistaken for a valid loan. Where the reader
+ * remembers the JSON the loan was read from, the checksum is checked against that JSON, which saves serialising the
+ * loan again. The checksum is always written as the first field, which makes its content easy to tell apart.
  */
+@JsonPropertyOrder({"checksum"})
 class JsonAdaptedLoan {
 
     public static final String MISSING_FIELD_MESSAGE_FORMAT = "Loan's %s field is missing!";
     public static final String LOAN_EXCESS_REPAYMENT_MESSAGE = "Loan transactions violate the constraint that "
             + "the remaining loan amount should never be negative.";
+    public static final String MESSAGE_CHECKSUM_MISMATCH = "Loan record does not match its checksum.";
+
+    private static final String CHECKSUM_FIELD = "{\"checksum\":";
 
     private final String name;
     private final String phoneValue;
     private final List<JsonAdaptedLoanTransaction> transactions = new ArrayList<>();
     private final List<JsonAdaptedTag> tags = new ArrayList<>();
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Long checksum;
+    @JsonIgnore
+    private final String record; // the JSON this loan was read from, null if unknown
+
+    /**
+     * Constructs a {@code JsonAdaptedLoan} with the given loan details and no checksum.
+     */
+    public JsonAdaptedLoan(String name, List<JsonAdaptedLoanTransaction> transactions, List<JsonAdaptedTag> tags,
+                           String phoneValue) {
+        this(name, transactions, tags, phoneValue, null);
+    }
 
     /**
-     * Constructs a {@code JsonAdaptedLoan} with the given loan details.
+     * Constructs a {@code JsonAdaptedLoan} with the given loan details and checksum, which may be null.
      */
     @JsonCreator
     public JsonAdaptedLoan(@JsonProperty("name") String name,
                            @JsonProperty("transactions") List<JsonAdaptedLoanTransaction> transactions,
                            @JsonProperty("tags") List<JsonAdaptedTag> tags,
-                           @JsonProperty("phone") String phoneValue) {
+                           @JsonProperty("phone") String phoneValue,
+                           @JsonProperty("checksum") Long checksum) {
+        this(name, transactions, tags, phoneValue, checksum, null);
+    }
+
+    private JsonAdaptedLoan(String name, List<JsonAdaptedLoanTransaction> transactions, List<JsonAdaptedTag> tags,
+                            String phoneValue, Long checksum, String record) {
         this.name = name;
         if (transactions != null) {
             this.transactions.addAll(transactions);
@@ -47,6 +82,8 @@ class JsonAdaptedLoan {
             this.tags.addAll(tags);
         }
         this.phoneValue = phoneValue;
+        this.checksum = checksum;
+        this.record = record;
     }
 
     /**
@@ -64,6 +101,40 @@ class JsonAdaptedLoan {
                 .toList());
 
         phoneValue = source.getPhone() == null ? null : source.getPhone().getValue();
+        checksum = null;
+        record = null;
+    }
+
+    /**
+     * Returns the name recorded in this loan, which may be null.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns a copy of this loan that carries the checksum of its content.
+     */
+    public JsonAdaptedLoan withChecksum() throws JsonProcessingException {
+        return new JsonAdaptedLoan(name, transactions, tags, phoneValue,
+                checksumOf(JsonUtil.toCompactJsonString(withoutChecksum())));
+    }
+
+    /**
+     * Returns a copy of this loan that remembers {@code record}, the JSON it was read from, so that its checksum is
+     * checked against that JSON.
+     */
+    public JsonAdaptedLoan withRecord(String record) {
+        return new JsonAdaptedLoan(name, transactions, tags, phoneValue, checksum, record);
+    }
+
+    /**
+     * Returns the compact JSON of this loan with the checksum of its content as its first field.
+     * The loan is serialised once, which makes this cheaper than serialising the result of {@link #withChecksum()}.
+     */
+    public String toChecksummedJson() throws JsonProcessingException {
+        String content = JsonUtil.toCompactJsonString(withoutChecksum());
+        return CHECKSUM_FIELD + checksumOf(content) + "," + content.substring(1);
     }
 
     /**
@@ -72,6 +143,9 @@ class JsonAdaptedLoan {
      * @throws IllegalValueException if there were any data constraints violated in the adapted loan.
      */
     public Loan toModelType() throws IllegalValueException {
+        if (checksum != null && !checksum.equals(computeChecksum())) {
+            throw new IllegalValueException(MESSAGE_CHECKSUM_MISMATCH);
+        }
         if (name == null) {
             throw new IllegalValueException(String.format(MISSING_FIELD_MESSAGE_FORMAT, Name.class.getSimpleName()));
         }
@@ -102,6 +176,55 @@ class JsonAdaptedLoan {
             return new Loan(modelName, new LoanAmount(modelTransactions), modelTags, phone);
         } catch (ExcessRepaymentException e) {
             throw new IllegalValueException(LOAN_EXCESS_REPAYMENT_MESSAGE);
+        } catch (ArithmeticException e) {
+            throw new IllegalValueException(MoneyInt.MESSAGE_OVERFLOW);
         }
     }
+
+    private JsonAdaptedLoan withoutChecksum() {
+        return checksum == null ? this : new JsonAdaptedLoan(name, transactions, tags, phoneValue, null);
+    }
+
+    private Long computeChecksum() throws IllegalValueException {
+        String content = record == null ? null : contentOf(record);
+        if (content != null) {
+            return checksumOf(content);
+        }
+        // the JSON read is unknown or not in a layout written here, so the checksum is of the JSON written now
+        try {
+            return checksumOf(JsonUtil.toCompactJsonString(withoutChecksum()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalValueException(MESSAGE_CHECKSUM_MISMATCH, e);
+        }
+    }
+
+    /**
+     * Returns {@code record} without its checksum field, if that is its first field, as written here. Returns null
+     * otherwise.
+     */
+    private static String contentOf(String record) {
+        if (!record.startsWith(CHECKSUM_FIELD)) {
+            return null;
+        }
+        int end = record.indexOf(',');
+        return end >= 0 && isNumber(record, CHECKSUM_FIELD.length(), end) ? "{" + record.substring(end + 1) : null;
+    }
+
+    private static boolean isNumber(String text, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long checksumOf(String content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
 }
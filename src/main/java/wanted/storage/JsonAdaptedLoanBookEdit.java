@@ -0,0 +1,252 @@
+package wanted.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.JsonUtil;
+import wanted.model.loan.Loan;
+
+/**
+ * Jackson-friendly version of one journal record: an edit of the loan list since the previous record.
+ * <p>
+ * An edit replaces the {@code deleteCount} loans starting at position {@code from} with {@code loans}, which is
+ * enough to express adding, editing, deleting and reordering loans. Loans that were only moved, such as by sorting
+ * the list, are not written out again: the edit then also has an {@code order}, which gives for each position of the
+ * replaced range either the position the loan had before the edit, or {@link #NEW_LOAN} for the next loan of
+ * {@code loans}. Records are numbered by {@code sequence}, so that records already folded into a newer snapshot are
+ * skipped.
+ */
+class JsonAdaptedLoanBookEdit {
+
+    public static final String MESSAGE_OUT_OF_RANGE = "Journal record does not fit the loan list.";
+    public static final String MESSAGE_NOT_A_RECORD = "Journal record must be a JSON object.";
+    public static final int NEW_LOAN = -1;
+
+    private final long sequence;
+    private final int from;
+    private final int deleteCount;
+    private final List<JsonAdaptedLoan> loans = new ArrayList<>();
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private final List<Integer> order = new ArrayList<>(); // empty if the replaced range is just loans
+
+    /**
+     * Constructs a {@code JsonAdaptedLoanBookEdit} with the given details.
+     */
+    @JsonCreator
+    public JsonAdaptedLoanBookEdit(@JsonProperty("sequence") long sequence, @JsonProperty("from") int from,
+                                   @JsonProperty("deleteCount") int deleteCount,
+                                   @JsonProperty("loans") List<JsonAdaptedLoan> loans,
+                                   @JsonProperty("order") List<Integer> order) {
+        this.sequence = sequence;
+        this.from = from;
+        this.deleteCount = deleteCount;
+        if (loans != null) {
+            this.loans.addAll(loans);
+        }
+        if (order != null) {
+            this.order.addAll(order);
+        }
+    }
+
+    /**
+     * Returns the edit with the given sequence number that turns {@code before} into {@code after}.
+     * Only the loans between the longest common prefix and suffix of the two lists are kept, and of those only the
+     * loans that are not in {@code before} are written out; the others are recorded by their positions.
+     * Loans are immutable, so unchanged loans are recognised by reference. The written loans carry their checksums.
+     */
+    public static JsonAdaptedLoanBookEdit between(long sequence, List<Loan> before, List<Loan> after)
+            throws JsonProcessingException {
+        int shorter = Math.min(before.size(), after.size());
+        int prefix = 0;
+        while (prefix < shorter && before.get(prefix) == after.get(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < shorter - prefix
+                && before.get(before.size() - 1 - suffix) == after.get(after.size() - 1 - suffix)) {
+            suffix++;
+        }
+        int deleteCount = before.size() - suffix - prefix;
+
+        Map<Loan, Integer> positionsBefore = new IdentityHashMap<>(deleteCount);
+        for (int i = prefix; i < prefix + deleteCount; i++) {
+            positionsBefore.put(before.get(i), i);
+        }
+        List<JsonAdaptedLoan> inserted = new ArrayList<>();
+        List<Integer> order = new ArrayList<>();
+        boolean isAnyMoved = false;
+        for (Loan loan : after.subList(prefix, after.size() - suffix)) {
+            Integer position = positionsBefore.get(loan);
+            if (position == null) {
+                inserted.add(new JsonAdaptedLoan(loan).withChecksum());
+                order.add(NEW_LOAN);
+            } else {
+                order.add(position);
+                isAnyMoved = true;
+            }
+        }
+        return new JsonAdaptedLoanBookEdit(sequence, prefix, deleteCount, inserted, isAnyMoved ? order : null);
+    }
+
+    /**
+     * Returns the edit written as {@code json}, a single journal record.
+     * Each loan in it remembers the JSON it was read from, so that its checksum is checked without serialising it.
+     *
+     * @throws IOException if {@code json} is not a JSON object, or a field of it has the wrong type.
+     */
+    public static JsonAdaptedLoanBookEdit fromJson(String json) throws IOException {
+        long sequence = 0;
+        int from = 0;
+        int deleteCount = 0;
+        List<JsonAdaptedLoan> loans = new ArrayList<>();
+        List<Integer> order = null;
+        try (JsonParser parser = JsonUtil.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, MESSAGE_NOT_A_RECORD);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                case "sequence":
+                    sequence = parser.getLongValue();
+                    break;
+                case "from":
+                    from = parser.getIntValue();
+                    break;
+                case "deleteCount":
+                    deleteCount = parser.getIntValue();
+                    break;
+                case "loans":
+                    readLoans(parser, json, loans);
+                    break;
+                case "order":
+                    Integer[] positions = JsonUtil.readValue(parser, Integer[].class);
+                    order = positions == null ? null : Arrays.asList(positions);
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new JsonParseException(parser, MESSAGE_NOT_A_RECORD);
+            }
+        }
+        return new JsonAdaptedLoanBookEdit(sequence, from, deleteCount, loans, order);
+    }
+
+    private static void readLoans(JsonParser parser, String json, List<JsonAdaptedLoan> loans) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, MESSAGE_NOT_A_RECORD);
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, MESSAGE_NOT_A_RECORD);
+            }
+            int start = (int) parser.getTokenLocation().getCharOffset();
+            JsonAdaptedLoan loan = JsonUtil.readValue(parser, JsonAdaptedLoan.class);
+            int end = (int) parser.currentLocation().getCharOffset();
+            loans.add(loan.withRecord(json.substring(start, end)));
+        }
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns true if applying this edit would not change anything.
+     */
+    public boolean isEmpty() {
+        return deleteCount == 0 && loans.isEmpty();
+    }
+
+    /**
+     * Applies this edit to {@code loanList} in place.
+     *
+     * @throws IllegalValueException if the edit does not fit {@code loanList} or a loan in it is invalid.
+     */
+    public void applyTo(List<Loan> loanList) throws IllegalValueException {
+        applyTo(loanList, null);
+    }
+
+    /**
+     * Applies this edit to {@code loanList} in place, and makes the same change to {@code parallelList}, which holds
+     * an entry for each loan, moving the entries of moved loans and inserting {@code null} for each new loan.
+     * The parallel list may be null.
+     *
+     * @throws IllegalValueException if the edit does not fit {@code loanList} or a loan in it is invalid.
+     */
+    public <T> void applyTo(List<Loan> loanList, List<T> parallelList) throws IllegalValueException {
+        if (from < 0 || deleteCount < 0 || from > loanList.size() - deleteCount) {
+            throw new IllegalValueException(MESSAGE_OUT_OF_RANGE);
+        }
+        List<Loan> inserted = new ArrayList<>();
+        for (JsonAdaptedLoan loan : loans) {
+            inserted.add(loan.toModelType());
+        }
+        List<T> parallelInserted = new ArrayList<>();
+        if (order.isEmpty()) {
+            parallelInserted.addAll(Collections.nCopies(inserted.size(), null));
+        } else {
+            inserted = reorder(loanList, parallelList, inserted, parallelInserted);
+        }
+        List<Loan> replaced = loanList.subList(from, from + deleteCount);
+        replaced.clear();
+        replaced.addAll(inserted);
+        if (parallelList != null) {
+            List<T> parallelReplaced = parallelList.subList(from, from + deleteCount);
+            parallelReplaced.clear();
+            parallelReplaced.addAll(parallelInserted);
+        }
+    }
+
+    /**
+     * Returns the loans that replace the range of this edit, as given by {@code order}, taking moved loans from
+     * {@code loanList} and new loans from {@code newLoans}. Adds the matching entries of {@code parallelList}, or
+     * {@code null} for new loans, to {@code parallelInserted}.
+     *
+     * @throws IllegalValueException if {@code order} does not fit the range or {@code newLoans}.
+     */
+    private <T> List<Loan> reorder(List<Loan> loanList, List<T> parallelList, List<Loan> newLoans,
+            List<T> parallelInserted) throws IllegalValueException {
+        List<Loan> result = new ArrayList<>(order.size());
+        int newLoansUsed = 0;
+        for (Integer position : order) {
+            if (position == null || position != NEW_LOAN && (position < from || position >= from + deleteCount)) {
+                throw new IllegalValueException(MESSAGE_OUT_OF_RANGE);
+            }
+            if (position != NEW_LOAN) {
+                result.add(loanList.get(position));
+                parallelInserted.add(parallelList == null ? null : parallelList.get(position));
+            } else if (newLoansUsed < newLoans.size()) {
+                result.add(newLoans.get(newLoansUsed++));
+                parallelInserted.add(null);
+            } else {
+                throw new IllegalValueException(MESSAGE_OUT_OF_RANGE);
+            }
+        }
+        if (newLoansUsed != newLoans.size()) {
+            throw new IllegalValueException(MESSAGE_OUT_OF_RANGE);
+        }
+        return result;
+    }
+}
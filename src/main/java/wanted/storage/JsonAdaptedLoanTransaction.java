@@ -70,10 +70,12 @@ class JsonAdaptedLoanTransaction {
         if (date == null) {
             throw new IllegalValueException(String.format(MISSING_FIELD_MESSAGE_FORMAT, "date"));
         }
-        if (!LoanDate.isValidLoanDate(date)) {
+        final LoanDate modelDate;
+        try {
+            modelDate = new LoanDate(date);
+        } catch (IllegalArgumentException e) {
             throw new IllegalValueException(LoanDate.MESSAGE_CONSTRAINTS);
         }
-        final LoanDate modelDate = new LoanDate(date);
 
         if (type == null) {
             throw new IllegalValueException(String.format(MISSING_FIELD_MESSAGE_FORMAT, "type"));
@@ -0,0 +1,228 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import wanted.commons.core.LogsCenter;
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.JsonUtil;
+import wanted.model.LoanBook;
+
+/**
+ * Reads a loan book file in the format of {@link JsonSerializableLoanBook} one loan at a time.
+ * <p>
+ * The file is parsed as a stream of tokens, and each loan is handed to a {@link ParallelLoanConverter} as soon as
+ * it is read, so only the loans still waiting to be converted are ever held in their JSON form, while the loans
+ * already read are converted and checked on the other cores. The text of each loan is kept with it, so that its
+ * checksum is checked against the text rather than against the loan serialised again. Progress is reported as the
+ * percentage of the file read so far.
+ */
+class JsonLoanBookReader {
+
+    public static final String MESSAGE_NOT_A_LOAN_BOOK = "Loan book file must contain a JSON object.";
+    public static final String MESSAGE_MISSING_LOAN = "Loans list contains an empty loan.";
+
+    /** Files smaller than this load quickly enough that their progress is not logged. */
+    static final long PROGRESS_LOG_MIN_BYTES = 1 << 20;
+
+    private static final Logger logger = LogsCenter.getLogger(JsonLoanBookReader.class);
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_LOG_STEP = 10;
+
+    private final Path filePath;
+    private final IntConsumer progressListener;
+
+    private ParallelLoanConverter converter;
+    private RecordingInputStream recording;
+    private Long journalSequence;
+    private long fileSize;
+    private int reportedPercent;
+    private int loggedPercent;
+
+    /**
+     * Creates a reader for the file at {@code filePath} that logs its progress if the file is large.
+     */
+    public JsonLoanBookReader(Path filePath) {
+        this(filePath, null);
+    }
+
+    /**
+     * Creates a reader for the file at {@code filePath} that passes the percentage of the file read so far to
+     * {@code progressListener} whenever it goes up. A null listener logs the progress if the file is large.
+     */
+    public JsonLoanBookReader(Path filePath, IntConsumer progressListener) {
+        requireNonNull(filePath);
+        this.filePath = filePath;
+        this.progressListener = progressListener != null ? progressListener : this::logProgress;
+    }
+
+    /**
+     * Reads the loan book from the file.
+     *
+     * @throws IOException if the file could not be read or is not valid JSON.
+     * @throws IllegalValueException if a loan in the file is invalid or the same loan appears twice.
+     */
+    public LoanBook read() throws IOException, IllegalValueException {
+        converter = new ParallelLoanConverter();
+        journalSequence = null;
+        fileSize = Files.size(filePath);
+        reportedPercent = 0;
+        loggedPercent = 0;
+
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(filePath), BUFFER_SIZE);
+             RecordingInputStream recording = new RecordingInputStream(in);
+             JsonParser parser = JsonUtil.createParser(recording)) {
+            this.recording = recording;
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, MESSAGE_NOT_A_LOAN_BOOK);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (field.equals("persons") && value == JsonToken.START_ARRAY) {
+                    readLoans(parser);
+                } else if (field.equals("journalSequence") && value == JsonToken.VALUE_NUMBER_INT) {
+                    journalSequence = parser.getLongValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                throw new JsonParseException(parser, MESSAGE_NOT_A_LOAN_BOOK);
+            }
+        }
+        LoanBook loanBook = new LoanBook();
+        loanBook.setPersons(converter.finish());
+        reportProgress(100);
+        return loanBook;
+    }
+
+    /**
+     * Returns the journal sequence number stored with the loans that were read, if any.
+     */
+    public Optional<Long> getJournalSequence() {
+        return Optional.ofNullable(journalSequence);
+    }
+
+    private void readLoans(JsonParser parser) throws IOException, IllegalValueException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, MESSAGE_NOT_A_LOAN_BOOK);
+            }
+            long start = parser.getTokenLocation().getByteOffset();
+            recording.discardBefore(start);
+            JsonAdaptedLoan loan = JsonUtil.readValue(parser, JsonAdaptedLoan.class);
+            long end = parser.currentLocation().getByteOffset();
+            converter.add(loan == null ? null : loan.withRecord(recording.text(start, end)));
+            if (fileSize > 0) {
+                reportProgress((int) (end * 100 / fileSize));
+            }
+        }
+    }
+
+    private void reportProgress(int percent) {
+        if (percent > reportedPercent) {
+            reportedPercent = percent;
+            progressListener.accept(percent);
+        }
+    }
+
+    private void logProgress(int percent) {
+        if (fileSize >= PROGRESS_LOG_MIN_BYTES && percent >= loggedPercent + PROGRESS_LOG_STEP) {
+            loggedPercent = percent;
+            logger.info("Loaded " + percent + "% of " + filePath);
+        }
+    }
+
+    /**
+     * Passes on the bytes of a stream, keeping the bytes read from a given offset on, so that the text of a value
+     * the parser has just read can be taken from them.
+     */
+    private static class RecordingInputStream extends FilterInputStream {
+        private byte[] kept = new byte[BUFFER_SIZE];
+        private long keptStart; // offset in the stream of kept[0]
+        private int keptLength;
+        private long keepFrom; // the bytes before this offset are no longer needed
+
+        RecordingInputStream(InputStream in) {
+            super(in);
+        }
+
+        /**
+         * Allows the bytes before {@code offset} to be dropped.
+         */
+        void discardBefore(long offset) {
+            assert offset >= keptStart && offset <= keptStart + keptLength;
+            keepFrom = offset;
+        }
+
+        /**
+         * Returns the text of the bytes from {@code from} (inclusive) to {@code to} (exclusive), which must be kept.
+         */
+        String text(long from, long to) {
+            assert from >= keepFrom && to <= keptStart + keptLength;
+            return new String(kept, (int) (from - keptStart), (int) (to - from), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                keep(new byte[] {(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int count = in.read(b, off, len);
+            if (count > 0) {
+                keep(b, off, count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // skipped bytes must be kept too, so they are read
+            byte[] skipped = new byte[(int) Math.min(n, BUFFER_SIZE)];
+            int count = read(skipped, 0, skipped.length);
+            return Math.max(count, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void keep(byte[] b, int off, int len) {
+            if (keptLength + len > kept.length) {
+                int discarded = (int) (keepFrom - keptStart);
+                System.arraycopy(kept, discarded, kept, 0, keptLength - discarded);
+                keptStart = keepFrom;
+                keptLength -= discarded;
+                if (keptLength + len > kept.length) {
+                    kept = Arrays.copyOf(kept, Math.max(2 * kept.length, keptLength + len));
+                }
+            }
+            System.arraycopy(b, off, kept, keptLength, len);
+            keptLength += len;
+        }
+    }
+}
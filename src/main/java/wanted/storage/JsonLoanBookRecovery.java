@@ -0,0 +1,263 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.JsonUtil;
+import wanted.model.LoanBook;
+import wanted.model.loan.Loan;
+import wanted.model.loan.Name;
+
+/**
+ * Reads a loan book file written by {@link JsonLoanBookWriter} in a single pass, keeping every loan that can be read
+ * and setting aside the records that cannot.
+ * <p>
+ * The writer puts each loan on a line of its own with a checksum of its content, so damage to a record is confined
+ * to its line: the record is recognised as damaged by its checksum, or by not being valid JSON or a valid loan, and
+ * reading carries on with the next line. Lost records keep their place in {@link #getLoans()} as {@code null}, so
+ * that journal records, which refer to loans by position, can still be applied on top. Files in the older layout,
+ * with the loans not on lines of their own, can only be recovered loan by loan if they are still valid JSON.
+ * <p>
+ * {@link #finish()} copies every lost record to the quarantine file before returning the recovered loans, so saving
+ * them over the damaged file loses nothing that could not be restored by hand.
+ */
+class JsonLoanBookRecovery {
+
+    public static final String MESSAGE_NOT_JSON = "Record is not valid JSON.";
+    public static final String MESSAGE_CUT_SHORT = "File ends before the end of the loans list, "
+            + "so any loans after the last one read are missing.";
+
+    private static final Pattern JOURNAL_SEQUENCE = Pattern.compile("\"journalSequence\"\\s*:\\s*(\\d+)");
+
+    private final Path filePath;
+    private final List<Loan> loans = new ArrayList<>(); // null where a record was lost
+    private final List<LostRecord> lostRecords = new ArrayList<>(); // the record lost at each place, or null
+    private final List<LostRecord> otherLosses = new ArrayList<>(); // losses that have no place in the list
+    private Long journalSequence;
+
+    public JsonLoanBookRecovery(Path filePath) {
+        requireNonNull(filePath);
+        this.filePath = filePath;
+    }
+
+    /**
+     * Reads the loans from the file, recording the records that cannot be read as lost.
+     *
+     * @throws IOException if the file could not be read, or is in the older layout and is not valid JSON.
+     */
+    public void read() throws IOException {
+        // malformed bytes are decoded as replacement characters, which the checksum of their record then catches
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(filePath),
+                StandardCharsets.UTF_8))) {
+            StringBuilder head = new StringBuilder();
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                head.append(line).append('\n');
+                if (line.contains("\"persons\"") && line.trim().endsWith("[")) {
+                    readRecords(reader, lineNumber);
+                    return;
+                }
+            }
+            readOlderLayout(head.toString());
+        }
+    }
+
+    /**
+     * Returns the loans read so far, with {@code null} in place of each lost record. The list may be changed.
+     */
+    public List<Loan> getLoans() {
+        return loans;
+    }
+
+    /**
+     * Returns the lost record at each place of {@link #getLoans()}, or {@code null} where the loan was read.
+     * The list may be changed, but must be kept as long as the list of loans.
+     */
+    public List<LostRecord> getLostRecords() {
+        return lostRecords;
+    }
+
+    /**
+     * Returns the journal sequence number stored with the loans, if it could be read.
+     */
+    public Optional<Long> getJournalSequence() {
+        return Optional.ofNullable(journalSequence);
+    }
+
+    /**
+     * Records the loss of a record that has no place in the list of loans.
+     */
+    public void addLoss(LostRecord lostRecord) {
+        requireNonNull(lostRecord);
+        otherLosses.add(lostRecord);
+    }
+
+    /**
+     * Returns the recovered loan book, without the lost records and without the later of any two loans with the same
+     * name, after copying every lost record to the quarantine file.
+     *
+     * @throws IOException if the lost records could not be copied to the quarantine file.
+     */
+    public RecoveredLoanBook finish() throws IOException {
+        List<Loan> kept = new ArrayList<>();
+        List<LostRecord> lost = new ArrayList<>();
+        Set<Name> names = new HashSet<>();
+        for (int i = 0; i < loans.size(); i++) {
+            Loan loan = loans.get(i);
+            if (loan == null) {
+                lost.add(lostRecords.get(i));
+            } else if (!names.add(loan.getName())) {
+                lost.add(new LostRecord("loan " + (i + 1) + " of " + filePath.getFileName(), loan.getName().fullName,
+                        JsonSerializableLoanBook.MESSAGE_DUPLICATE_PERSON,
+                        new JsonAdaptedLoan(loan).toChecksummedJson()));
+            } else {
+                kept.add(loan);
+            }
+        }
+        lost.addAll(otherLosses);
+
+        LoanBook loanBook = new LoanBook();
+        loanBook.setPersons(kept);
+        if (lost.isEmpty()) {
+            return new RecoveredLoanBook(loanBook, List.of(), null);
+        }
+        Path quarantinePath = RecoveredLoanBook.quarantinePathOf(filePath);
+        quarantine(lost, quarantinePath);
+        return new RecoveredLoanBook(loanBook, lost.stream().map(LostRecord::describe).toList(), quarantinePath);
+    }
+
+    private void readRecords(BufferedReader reader, int lineNumber) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String record = line.trim();
+            if (record.startsWith("]")) {
+                readTrailer(record, reader);
+                return;
+            }
+            if (record.endsWith(",")) {
+                record = record.substring(0, record.length() - 1);
+            }
+            if (!record.isEmpty()) {
+                readRecord(record, "line " + lineNumber + " of " + filePath.getFileName());
+            }
+        }
+        otherLosses.add(new LostRecord("end of " + filePath.getFileName(), null, MESSAGE_CUT_SHORT, ""));
+    }
+
+    private void readTrailer(String firstLine, BufferedReader reader) throws IOException {
+        StringBuilder trailer = new StringBuilder(firstLine);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            trailer.append(line);
+        }
+        Matcher matcher = JOURNAL_SEQUENCE.matcher(trailer);
+        if (matcher.find()) {
+            try {
+                journalSequence = Long.parseLong(matcher.group(1));
+            } catch (NumberFormatException e) {
+                // too long to be a sequence number, so it is as good as missing
+            }
+        }
+    }
+
+    private void readOlderLayout(String content) throws IOException {
+        JsonNode root = JsonUtil.fromJsonString(content, JsonNode.class);
+        JsonNode persons = root == null ? null : root.get("persons");
+        if (persons == null || !persons.isArray()) {
+            throw new IOException(JsonLoanBookReader.MESSAGE_NOT_A_LOAN_BOOK);
+        }
+        for (int i = 0; i < persons.size(); i++) {
+            readRecord(persons.get(i).toString(), "loan " + (i + 1) + " of " + filePath.getFileName());
+        }
+        JsonNode sequence = root.get("journalSequence");
+        if (sequence != null && sequence.isIntegralNumber()) {
+            journalSequence = sequence.asLong();
+        }
+    }
+
+    private void readRecord(String record, String location) {
+        JsonAdaptedLoan adaptedLoan = null;
+        try {
+            adaptedLoan = JsonUtil.fromJsonString(record, JsonAdaptedLoan.class);
+            if (adaptedLoan == null) {
+                throw new IllegalValueException(JsonLoanBookReader.MESSAGE_MISSING_LOAN);
+            }
+            loans.add(adaptedLoan.withRecord(record).toModelType());
+            lostRecords.add(null);
+        } catch (IOException e) {
+            lose(new LostRecord(location, null, MESSAGE_NOT_JSON, record));
+        } catch (IllegalValueException e) {
+            lose(new LostRecord(location, adaptedLoan == null ? null : adaptedLoan.getName(), e.getMessage(), record));
+        }
+    }
+
+    private void lose(LostRecord lostRecord) {
+        loans.add(null);
+        lostRecords.add(lostRecord);
+    }
+
+    /**
+     * Appends {@code lost} to the quarantine file at {@code quarantinePath}, one JSON line each, and forces them to
+     * the disk, as the damaged file may be overwritten as soon as they are returned.
+     */
+    private static void quarantine(List<LostRecord> lost, Path quarantinePath) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (LostRecord lostRecord : lost) {
+            lines.append(JsonUtil.toCompactJsonString(lostRecord)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(quarantinePath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * A record that could not be recovered, kept in the quarantine file as it was found.
+     */
+    static class LostRecord {
+        private final String location;
+        private final String name; // the name given in the record, if any
+        private final String reason;
+        private final String record;
+
+        LostRecord(String location, String name, String reason, String record) {
+            this.location = location;
+            this.name = name;
+            this.reason = reason;
+            this.record = record;
+        }
+
+        /**
+         * Returns a description of the lost record for the user.
+         */
+        String describe() {
+            return location + (name == null ? "" : " (" + name + ")") + ": " + reason;
+        }
+    }
+}
@@ -3,7 +3,9 @@ package wanted.storage;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
 
@@ -11,20 +13,34 @@ import wanted.commons.core.LogsCenter;
 import wanted.commons.exceptions.DataLoadingException;
 import wanted.commons.exceptions.IllegalValueException;
 import wanted.commons.util.FileUtil;
-import wanted.commons.util.JsonUtil;
+import wanted.model.LoanBook;
 import wanted.model.ReadOnlyLoanBook;
 
 /**
  * A class to access LoanBook data stored as a json file on the hard disk.
+ * The file is read and written one loan at a time by {@link JsonLoanBookReader} and {@link JsonLoanBookWriter}.
+ * A save writes the whole book to a temporary file next to the old one and then moves it into place, so a crash
+ * during a save leaves the previous file as it was. Each loan is saved with a checksum on a line of its own, so a
+ * damaged file can be recovered loan by loan by {@link #recoverLoanBook()}.
  */
 public class JsonLoanBookStorage implements LoanBookStorage {
 
     private static final Logger logger = LogsCenter.getLogger(JsonLoanBookStorage.class);
 
     private Path filePath;
+    private final JsonLoanBookWriter writer;
 
     public JsonLoanBookStorage(Path filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Creates a storage that saves the file indented over several lines if {@code isPrettyPrinted},
+     * and on a single line otherwise.
+     */
+    public JsonLoanBookStorage(Path filePath, boolean isPrettyPrinted) {
         this.filePath = filePath;
+        this.writer = new JsonLoanBookWriter(isPrettyPrinted);
     }
 
     public Path getLoanBookFilePath() {
@@ -45,20 +61,37 @@ public class JsonLoanBookStorage implements LoanBookStorage {
     public Optional<ReadOnlyLoanBook> readLoanBook(Path filePath) throws DataLoadingException {
         requireNonNull(filePath);
 
-        Optional<JsonSerializableLoanBook> jsonAddressBook = JsonUtil.readJsonFile(
-                filePath, JsonSerializableLoanBook.class);
-        if (!jsonAddressBook.isPresent()) {
+        if (!Files.exists(filePath)) {
             return Optional.empty();
         }
 
         try {
-            return Optional.of(jsonAddressBook.get().toModelType());
+            return Optional.of(new JsonLoanBookReader(filePath).read());
+        } catch (IOException e) {
+            logger.warning("Error reading from " + filePath + ": " + e);
+            throw new DataLoadingException(e);
         } catch (IllegalValueException ive) {
             logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
             throw new DataLoadingException(ive);
         }
     }
 
+    @Override
+    public RecoveredLoanBook recoverLoanBook() throws DataLoadingException {
+        if (!Files.exists(filePath)) {
+            return new RecoveredLoanBook(new LoanBook(), List.of(), null);
+        }
+
+        try {
+            JsonLoanBookRecovery recovery = new JsonLoanBookRecovery(filePath);
+            recovery.read();
+            return recovery.finish();
+        } catch (IOException e) {
+            logger.warning("Error recovering from " + filePath + ": " + e);
+            throw new DataLoadingException(e);
+        }
+    }
+
     @Override
     public void saveLoanBook(ReadOnlyLoanBook loanBook) throws IOException {
         saveLoanBook(loanBook, filePath);
@@ -73,8 +106,10 @@ public class JsonLoanBookStorage implements LoanBookStorage {
         requireNonNull(loanBook);
         requireNonNull(filePath);
 
-        FileUtil.createIfMissing(filePath);
-        JsonUtil.saveJsonFile(new JsonSerializableLoanBook(loanBook), filePath);
+        FileUtil.createParentDirsOfFile(filePath);
+        Path tempFile = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        writer.write(loanBook.getPersonList(), null, tempFile);
+        FileUtil.moveAtomically(tempFile, filePath);
     }
 
 }
@@ -0,0 +1,73 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import wanted.commons.util.JsonUtil;
+import wanted.model.loan.Loan;
+
+/**
+ * Writes loans to a file in the format of {@link JsonSerializableLoanBook} one loan at a time.
+ * <p>
+ * Each loan is converted and written through a buffer straight to the file before the next one is converted, so
+ * saving needs the same small amount of memory however many loans there are. Each loan is written on a line of its
+ * own with a checksum of its content, so that {@link JsonLoanBookRecovery} can tell a damaged loan from the others
+ * and keep the rest. Only the lines around the loans are indented if the writer is pretty-printing.
+ */
+class JsonLoanBookWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final boolean isPrettyPrinted;
+
+    public JsonLoanBookWriter(boolean isPrettyPrinted) {
+        this.isPrettyPrinted = isPrettyPrinted;
+    }
+
+    /**
+     * Replaces the content of {@code filePath} with {@code loans}, creating the file if it does not exist, and forces
+     * the content to the disk. The parent directories of the file must exist.
+     *
+     * @param journalSequence the last journal record included in the loans, or null if there is no journal.
+     * @return the size of the written file in bytes.
+     */
+    public long write(List<Loan> loans, Long journalSequence, Path filePath) throws IOException {
+        requireNonNull(loans);
+        requireNonNull(filePath);
+
+        FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try (OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+             JsonGenerator generator = JsonUtil.createGenerator(out, isPrettyPrinted)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("persons");
+            // the loans are written raw, so the generator does not add separators or indentation within the array
+            String separator = "\n";
+            for (Loan loan : loans) {
+                generator.writeRaw(separator);
+                generator.writeRaw(new JsonAdaptedLoan(loan).toChecksummedJson());
+                separator = ",\n";
+            }
+            generator.writeRaw("\n");
+            generator.writeEndArray();
+            if (journalSequence != null) {
+                generator.writeNumberField("journalSequence", journalSequence);
+            }
+            generator.writeEndObject();
+            generator.flush();
+            channel.force(false);
+        }
+        return Files.size(filePath);
+    }
+}
@@ -5,13 +5,13 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
 
 import wanted.commons.exceptions.IllegalValueException;
 import wanted.model.LoanBook;
 import wanted.model.ReadOnlyLoanBook;
-import wanted.model.loan.Loan;
 
 /**
  * An Immutable LoanBook that is serializable to JSON format.
@@ -24,12 +24,26 @@ class JsonSerializableLoanBook {
     @JsonProperty("persons")
     private final List<JsonAdaptedLoan> persons = new ArrayList<>();
 
+    // the last journal record already included in this snapshot, if the snapshot belongs to a journal
+    @JsonProperty("journalSequence")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Long journalSequence;
+
     /**
      * Constructs a {@code JsonSerializableLoanBook} with the given loans.
      */
+    public JsonSerializableLoanBook(List<JsonAdaptedLoan> loans) {
+        this(loans, null);
+    }
+
+    /**
+     * Constructs a {@code JsonSerializableLoanBook} with the given loans and journal sequence number.
+     */
     @JsonCreator
-    public JsonSerializableLoanBook(@JsonProperty("persons") List<JsonAdaptedLoan> loans) {
+    public JsonSerializableLoanBook(@JsonProperty("persons") List<JsonAdaptedLoan> loans,
+                                    @JsonProperty("journalSequence") Long journalSequence) {
         this.persons.addAll(loans);
+        this.journalSequence = journalSequence;
     }
 
     /**
@@ -38,23 +52,22 @@ class JsonSerializableLoanBook {
      * @param source future changes to this will not affect the created {@code JsonSerializableLoanBook}.
      */
     public JsonSerializableLoanBook(ReadOnlyLoanBook source) {
-        persons.addAll(source.getPersonList().stream().map(JsonAdaptedLoan::new).collect(Collectors.toList()));
+        this(source.getPersonList().stream().map(JsonAdaptedLoan::new).collect(Collectors.toList()), null);
     }
 
     /**
      * Converts this loan book into the model's {@code LoanBook} object.
+     * The loans are converted in parallel (see {@link ParallelLoanConverter}).
      *
      * @throws IllegalValueException if there were any data constraints violated.
      */
     public LoanBook toModelType() throws IllegalValueException {
-        LoanBook loanBook = new LoanBook();
+        ParallelLoanConverter converter = new ParallelLoanConverter();
         for (JsonAdaptedLoan jsonAdaptedLoan : persons) {
-            Loan person = jsonAdaptedLoan.toModelType();
-            if (loanBook.hasPerson(person)) {
-                throw new IllegalValueException(MESSAGE_DUPLICATE_PERSON);
-            }
-            loanBook.addPerson(person);
+            converter.add(jsonAdaptedLoan);
         }
+        LoanBook loanBook = new LoanBook();
+        loanBook.setPersons(converter.finish());
         return loanBook;
     }
 
@@ -0,0 +1,41 @@
+package wanted.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One shard of a {@link ShardedLoanBookStorage} that is serializable to JSON format: some of the loans of the book,
+ * each with the key that orders it among all the loans of the book.
+ */
+class JsonSerializableLoanShard {
+
+    public static final String MESSAGE_ORDERS_MISMATCH = "Shard does not have one order key per loan.";
+
+    private final List<Long> orders = new ArrayList<>();
+    private final List<JsonAdaptedLoan> loans = new ArrayList<>();
+
+    /**
+     * Constructs a {@code JsonSerializableLoanShard} with the given order keys and loans, which correspond one to one.
+     */
+    @JsonCreator
+    public JsonSerializableLoanShard(@JsonProperty("orders") List<Long> orders,
+                                     @JsonProperty("loans") List<JsonAdaptedLoan> loans) {
+        if (orders != null) {
+            this.orders.addAll(orders);
+        }
+        if (loans != null) {
+            this.loans.addAll(loans);
+        }
+    }
+
+    public List<Long> getOrders() {
+        return orders;
+    }
+
+    public List<JsonAdaptedLoan> getLoans() {
+        return loans;
+    }
+}
@@ -0,0 +1,50 @@
+package wanted.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The manifest of a {@link ShardedLoanBookStorage} that is serializable to JSON format.
+ * <p>
+ * For every shard it names the file holding the shard, or null if the shard is empty, and the checksum of that
+ * file. The manifest is replaced as a whole, so it always names a complete set of shard files.
+ */
+class JsonSerializableShardManifest {
+
+    public static final String MESSAGE_INVALID_MANIFEST = "Shard manifest must have a file and checksum per shard.";
+
+    private final List<String> files = new ArrayList<>();
+    private final List<Long> checksums = new ArrayList<>();
+
+    /**
+     * Constructs a {@code JsonSerializableShardManifest} with the file and checksum of each shard.
+     */
+    @JsonCreator
+    public JsonSerializableShardManifest(@JsonProperty("files") List<String> files,
+                                         @JsonProperty("checksums") List<Long> checksums) {
+        if (files != null) {
+            this.files.addAll(files);
+        }
+        if (checksums != null) {
+            this.checksums.addAll(checksums);
+        }
+    }
+
+    public List<String> getFiles() {
+        return files;
+    }
+
+    public List<Long> getChecksums() {
+        return checksums;
+    }
+
+    /**
+     * Returns true if the manifest names at least one shard and has a checksum for every shard.
+     */
+    public boolean isValid() {
+        return !files.isEmpty() && files.size() == checksums.size() && !checksums.contains(null);
+    }
+}
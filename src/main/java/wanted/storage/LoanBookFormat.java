@@ -0,0 +1,77 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The formats a loan book can be kept in on the hard disk, each with the storage that reads and writes it.
+ * <p>
+ * The format of a data file is given by the extension of its name, so it is chosen by the data file path in the
+ * user preferences. A file with any other extension is kept in the {@link #JSON} format.
+ */
+public enum LoanBookFormat {
+    /** A json snapshot and its journal, kept by {@link JournalingLoanBookStorage}. */
+    JSON(".json"),
+    /** The binary format of {@link BinaryLoanBookStorage}, which also reads a json file of the same name. */
+    BINARY(".bin"),
+    /** A manifest of shard files, kept by {@link ShardedLoanBookStorage}, of which a save rewrites only a few. */
+    SHARDED(".manifest");
+
+    private final String extension;
+
+    LoanBookFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Returns the format of the data file at {@code filePath}, going by the extension of its name.
+     */
+    public static LoanBookFormat of(Path filePath) {
+        requireNonNull(filePath);
+        Path fileName = filePath.getFileName();
+        String name = fileName == null ? "" : fileName.toString().toLowerCase(Locale.ROOT);
+        for (LoanBookFormat format : values()) {
+            if (name.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * Returns a storage for the data file at {@code filePath} in this format.
+     */
+    public LoanBookStorage createStorage(Path filePath) {
+        requireNonNull(filePath);
+        switch (this) {
+        case BINARY:
+            return new BinaryLoanBookStorage(filePath, true);
+        case SHARDED:
+            return new ShardedLoanBookStorage(filePath);
+        default:
+            return new JournalingLoanBookStorage(filePath);
+        }
+    }
+
+    /**
+     * Returns the files that hold the loan book stored at {@code filePath} in this format, which a
+     * {@link LoanBookSnapshotCache} is checked against, or an empty list if loan books in this format are not cached.
+     * The shards of a sharded book are not all known up front.
+     */
+    public List<Path> getCachedFiles(Path filePath) {
+        requireNonNull(filePath);
+        switch (this) {
+        case JSON:
+            return List.of(filePath, JournalingLoanBookStorage.journalPathOf(filePath));
+        default:
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import wanted.commons.core.LogsCenter;
+import wanted.model.ReadOnlyLoanBook;
+import wanted.model.loan.Loan;
+
+/**
+ * Saves snapshots of a loan book to a {@code LoanBookStorage} on a background thread.
+ * <p>
+ * Scheduling a save only copies the list of loans, which are themselves immutable, so the caller never waits for
+ * the disk. Saves are written one at a time, and a save scheduled while another is being written replaces any save
+ * still waiting: a burst of changes is written once, as its last snapshot. A save that fails is reported by
+ * {@link #takeFailure()}, and written again by {@link #flush()} unless a newer snapshot has been saved since. An
+ * unexpected exception from the storage counts as a failed save, wrapped in an {@code IOException}.
+ */
+public class LoanBookSaveScheduler {
+
+    private static final Logger logger = LogsCenter.getLogger(LoanBookSaveScheduler.class);
+
+    private final LoanBookStorage storage;
+    private ExecutorService saver; // created on first use
+
+    // The fields below are guarded by this object's lock.
+    private ReadOnlyLoanBook pending; // the newest snapshot not written yet, if any
+    private ReadOnlyLoanBook failed; // the newest snapshot written, if writing it failed
+    private IOException failedCause; // why writing the failed snapshot failed
+    private IOException failure; // the failure of a save that has not been reported yet
+    private boolean isWriting;
+
+    public LoanBookSaveScheduler(LoanBookStorage storage) {
+        requireNonNull(storage);
+        this.storage = storage;
+    }
+
+    /**
+     * Schedules {@code loanBook} as it is now to be saved, replacing any snapshot that is still waiting.
+     * Must be called on the thread that changes {@code loanBook}.
+     */
+    public synchronized void schedule(ReadOnlyLoanBook loanBook) {
+        requireNonNull(loanBook);
+        ObservableList<Loan> loans = FXCollections.unmodifiableObservableList(
+                FXCollections.observableArrayList(loanBook.getPersonList()));
+        pending = () -> loans; // a loan book of just these loans
+        failed = null;
+        if (!isWriting) {
+            isWriting = true;
+            startSaver();
+        }
+    }
+
+    /**
+     * Returns the failure of a save since the last call, if any, so that it can be reported.
+     */
+    public synchronized Optional<IOException> takeFailure() {
+        Optional<IOException> taken = Optional.ofNullable(failure);
+        failure = null;
+        return taken;
+    }
+
+    /**
+     * Blocks until every scheduled snapshot has been written. If the last snapshot written failed, it is written
+     * again first.
+     *
+     * @throws IOException if the last snapshot could still not be written.
+     */
+    public synchronized void flush() throws IOException {
+        boolean isRetried = false;
+        while (true) {
+            try {
+                while (isWriting) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (failed == null) {
+                return;
+            }
+            if (isRetried) {
+                failure = null;
+                throw failedCause;
+            }
+            pending = failed;
+            failed = null;
+            isWriting = true;
+            startSaver();
+            isRetried = true;
+        }
+    }
+
+    private void startSaver() {
+        assert Thread.holdsLock(this);
+        if (saver == null) {
+            saver = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "loanbook-saver");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        saver.execute(this::writePending);
+    }
+
+    /**
+     * Writes the pending snapshots until none is left. Runs on the saver thread.
+     */
+    private void writePending() {
+        while (true) {
+            ReadOnlyLoanBook snapshot;
+            synchronized (this) {
+                snapshot = pending;
+                pending = null;
+                if (snapshot == null) {
+                    isWriting = false;
+                    notifyAll();
+                    return;
+                }
+            }
+            try {
+                storage.saveLoanBook(snapshot);
+            } catch (IOException e) {
+                recordFailure(snapshot, e);
+            } catch (RuntimeException e) {
+                // a bug in writing one snapshot must not lose the snapshots after it, nor go unreported
+                recordFailure(snapshot, new IOException(e));
+            }
+        }
+    }
+
+    private void recordFailure(ReadOnlyLoanBook snapshot, IOException cause) {
+        logger.warning("Failed to save " + storage.getLoanBookFilePath() + ": " + cause);
+        synchronized (this) {
+            if (pending == null) {
+                failed = snapshot;
+                failedCause = cause;
+            }
+            failure = cause;
+        }
+    }
+}
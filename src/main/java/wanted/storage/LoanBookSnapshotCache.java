@@ -0,0 +1,180 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import wanted.commons.core.LogsCenter;
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.FileUtil;
+import wanted.model.ReadOnlyLoanBook;
+
+/**
+ * A copy of a loan book in the binary format of {@link BinaryLoanBookFormat}, kept next to the files it was loaded
+ * from or saved to so that the next launch can skip reading them.
+ * <p>
+ * The cache records the size, modification time and CRC32C checksum of each of those source files, and is only
+ * used while all of them still match. Reading it takes a fraction of the time of parsing the JSON files, and the
+ * transactions of each loan are only decoded when they are needed. The cache also records a CRC32C checksum of the
+ * loan book it holds, which is checked as the loan book is read, along with the totals of each loan's transactions.
+ * Anything wrong with the cache just means that it is not used.
+ */
+public class LoanBookSnapshotCache {
+
+    public static final String CACHE_SUFFIX = ".cache";
+
+    private static final byte[] MAGIC = {'W', 'L', 'C', 0};
+    private static final int VERSION = 2;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final Logger logger = LogsCenter.getLogger(LoanBookSnapshotCache.class);
+
+    private final Path cachePath;
+    private final List<Path> sourceFiles;
+
+    /**
+     * Creates a cache at {@code cachePath} of the loan book stored in {@code sourceFiles}, which need not exist.
+     */
+    public LoanBookSnapshotCache(Path cachePath, List<Path> sourceFiles) {
+        requireNonNull(cachePath);
+        requireNonNull(sourceFiles);
+        this.cachePath = cachePath;
+        this.sourceFiles = List.copyOf(sourceFiles);
+    }
+
+    /**
+     * Returns the path of the cache kept for the loan book file at {@code filePath}.
+     */
+    public static Path cachePathOf(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + CACHE_SUFFIX);
+    }
+
+    public Path getCachePath() {
+        return cachePath;
+    }
+
+    /**
+     * Returns the cached loan book if the cache exists, is intact and the source files have not changed since it was
+     * written.
+     */
+    public Optional<ReadOnlyLoanBook> read() {
+        if (!Files.exists(cachePath)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cachePath),
+                BUFFER_SIZE))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC) || in.readByte() != VERSION) {
+                logger.info("Ignoring " + cachePath + " as it is not a loan book cache of this version");
+                return Optional.empty();
+            }
+            long[] expectedKey = keyOfSources();
+            boolean isKeyMatching = in.readInt() == expectedKey.length;
+            for (int i = 0; isKeyMatching && i < expectedKey.length; i++) {
+                isKeyMatching = in.readLong() == expectedKey[i];
+            }
+            if (!isKeyMatching) {
+                logger.info("Ignoring " + cachePath + " as the loan book files have changed since it was written");
+                return Optional.empty();
+            }
+            long expectedChecksum = in.readLong();
+            CRC32C crc = new CRC32C();
+            CheckedInputStream body = new CheckedInputStream(in, crc);
+            ReadOnlyLoanBook loanBook = BinaryLoanBookFormat.read(body, true);
+            body.transferTo(OutputStream.nullOutputStream());
+            if (crc.getValue() != expectedChecksum) {
+                logger.warning("Ignoring " + cachePath + " as its checksum does not match");
+                return Optional.empty();
+            }
+            return Optional.of(loanBook);
+        } catch (IOException | IllegalValueException | RuntimeException e) {
+            logger.warning("Ignoring " + cachePath + " as it could not be read: " + e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces the cache with {@code loanBook}, which must hold exactly what the source files hold now. The new cache
+     * is forced to the disk before it replaces the old one.
+     */
+    public void write(ReadOnlyLoanBook loanBook) throws IOException {
+        requireNonNull(loanBook);
+
+        FileUtil.createParentDirsOfFile(cachePath);
+        long[] key = keyOfSources();
+        Path tempFile = cachePath.resolveSibling(cachePath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel),
+                    BUFFER_SIZE));
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(key.length);
+            for (long part : key) {
+                out.writeLong(part);
+            }
+            long checksumPosition = out.size();
+            out.writeLong(0); // replaced by the checksum once the loan book is written
+            CRC32C crc = new CRC32C();
+            BinaryLoanBookFormat.write(loanBook.getPersonList(), new CheckedOutputStream(out, crc));
+            out.flush();
+            ByteBuffer checksum = ByteBuffer.allocate(Long.BYTES).putLong(0, crc.getValue());
+            while (checksum.hasRemaining()) {
+                channel.write(checksum, checksumPosition + checksum.position());
+            }
+            channel.force(true);
+        }
+        FileUtil.moveAtomically(tempFile, cachePath);
+    }
+
+    /**
+     * Returns the size, modification time and checksum of each source file, or -1 for each if it does not exist.
+     */
+    private long[] keyOfSources() throws IOException {
+        long[] key = new long[3 * sourceFiles.size()];
+        for (int i = 0; i < sourceFiles.size(); i++) {
+            Path file = sourceFiles.get(i);
+            if (!Files.exists(file)) {
+                Arrays.fill(key, 3 * i, 3 * i + 3, -1);
+                continue;
+            }
+            key[3 * i] = Files.size(file);
+            key[3 * i + 1] = Files.getLastModifiedTime(file).to(TimeUnit.NANOSECONDS);
+            key[3 * i + 2] = checksumOf(file);
+        }
+        return key;
+    }
+
+    private static long checksumOf(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+}
@@ -2,6 +2,7 @@ package wanted.storage;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 
 import wanted.commons.exceptions.DataLoadingException;
@@ -31,6 +32,18 @@ public interface LoanBookStorage {
      */
     Optional<ReadOnlyLoanBook> readLoanBook(Path filePath) throws DataLoadingException;
 
+    /**
+     * Returns as much of the LoanBook data as can be read, with a report of what could not be, for when
+     * {@link #readLoanBook()} fails. The records that could not be read are copied aside first, so that saving
+     * the recovered data over them loses nothing. Storages that cannot tell one record from another read the data
+     * as {@link #readLoanBook()} does.
+     *
+     * @throws DataLoadingException if nothing could be recovered.
+     */
+    default RecoveredLoanBook recoverLoanBook() throws DataLoadingException {
+        return new RecoveredLoanBook(readLoanBook().orElseGet(LoanBook::new), List.of(), null);
+    }
+
     /**
      * Saves the given {@link ReadOnlyLoanBook} to the storage.
      * @param loanBook cannot be null.
@@ -0,0 +1,221 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.ToStringBuilder;
+import wanted.model.ReadOnlyLoanBook;
+import wanted.model.loan.Loan;
+import wanted.model.tag.Tag;
+
+/**
+ * A read-only loan book backed by a memory-mapped archive file, which decodes a loan each time it is asked for.
+ * <p>
+ * The archive has a fixed layout: {@link #MAGIC} and a version byte padded to 8 bytes, the number of loans as a
+ * long, then the offset in the file of each loan's record as a long, followed by the offset where the records end.
+ * After this index come the tag table and the loan records of {@link BinaryLoanBookFormat}. Opening an archive only
+ * checks its header and reads the tag table, however many loans it holds, and the pages of the file that are read
+ * are kept in the OS page cache rather than on the Java heap. The transactions of a decoded loan are in turn only
+ * decoded from the mapped file when they are needed.
+ */
+class MappedLoanBookArchive implements ReadOnlyLoanBook {
+
+    public static final byte[] MAGIC = {'W', 'L', 'A', 0};
+    public static final int VERSION = 2;
+
+    public static final String MESSAGE_NOT_ARCHIVE = "File is not a loan book archive.";
+    public static final String MESSAGE_CORRUPTED = "Loan book archive is corrupted.";
+
+    private static final int HEADER_SIZE = 16;
+    private static final int INDEX_CHUNK_SIZE = 1 << 13; // offsets written at a time
+    // the size of each mapped part of the file; a multiple of 8, so that no index entry is split between parts
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    private final ByteBuffer[] segments;
+    private final long fileSize;
+    private final int loanCount;
+    private final Tag[] tags;
+    private final ObservableList<Loan> loans;
+
+    private MappedLoanBookArchive(ByteBuffer[] segments, long fileSize) throws IOException, IllegalValueException {
+        this.segments = segments;
+        this.fileSize = fileSize;
+
+        byte[] magic = new byte[MAGIC.length];
+        if (fileSize >= HEADER_SIZE) {
+            segments[0].get(0, magic);
+        }
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException(MESSAGE_NOT_ARCHIVE);
+        }
+        int version = segments[0].get(MAGIC.length);
+        if (version != VERSION) {
+            throw new IOException(String.format(BinaryLoanBookFormat.MESSAGE_UNSUPPORTED_VERSION, version));
+        }
+        long count = segments[0].getLong(8);
+        if (count < 0 || count >= Integer.MAX_VALUE || indexEnd(count) > fileSize) {
+            throw new IOException(MESSAGE_CORRUPTED);
+        }
+        this.loanCount = (int) count;
+        this.tags = BinaryLoanBookFormat.readTagTable(new BinaryLoanBookFormat.Decoder(
+                slice(indexEnd(count), checkedLength(indexEnd(count), recordOffset(0)))));
+
+        List<Loan> lazyLoans = new AbstractList<>() {
+            @Override
+            public Loan get(int index) {
+                return decodeLoan(Objects.checkIndex(index, loanCount));
+            }
+
+            @Override
+            public int size() {
+                return loanCount;
+            }
+        };
+        this.loans = FXCollections.unmodifiableObservableList(FXCollections.observableList(lazyLoans));
+    }
+
+    /**
+     * Maps the archive at {@code filePath}. The file can be replaced, but must not be changed in place while the
+     * returned archive is in use.
+     *
+     * @throws IOException if the file could not be read or is not an archive.
+     * @throws IllegalValueException if the tag table of the archive is invalid.
+     */
+    public static MappedLoanBookArchive open(Path filePath) throws IOException, IllegalValueException {
+        requireNonNull(filePath);
+        // the mappings stay valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer[] segments = new ByteBuffer[(int) Math.max(1, (fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(SEGMENT_SIZE, fileSize - start));
+            }
+            return new MappedLoanBookArchive(segments, fileSize);
+        }
+    }
+
+    /**
+     * Writes {@code loans} as an archive to {@code filePath}, replacing its content, and forces it to the disk.
+     * An archive that is open must not be written over, as that would change it in place.
+     */
+    public static void write(List<Loan> loans, Path filePath) throws IOException {
+        requireNonNull(loans);
+        requireNonNull(filePath);
+
+        long[] offsets = new long[loans.size() + 1];
+        long recordsStart = indexEnd(loans.size());
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(recordsStart);
+            BinaryLoanBookFormat.Encoder encoder = new BinaryLoanBookFormat.Encoder(Channels.newOutputStream(channel));
+            Map<Tag, Integer> tagTable = BinaryLoanBookFormat.writeTagTable(encoder, loans);
+            for (int i = 0; i < loans.size(); i++) {
+                offsets[i] = recordsStart + encoder.getBytesWritten();
+                BinaryLoanBookFormat.writeLoan(encoder, loans.get(i), tagTable);
+            }
+            offsets[loans.size()] = recordsStart + encoder.getBytesWritten();
+            encoder.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).put(MAGIC).put((byte) VERSION)
+                    .putLong(8, loans.size());
+            writeFully(channel, header.clear(), 0);
+            ByteBuffer index = ByteBuffer.allocate(INDEX_CHUNK_SIZE * Long.BYTES);
+            for (int from = 0; from < offsets.length; from += INDEX_CHUNK_SIZE) {
+                int to = Math.min(offsets.length, from + INDEX_CHUNK_SIZE);
+                index.clear();
+                index.asLongBuffer().put(offsets, from, to - from);
+                index.limit((to - from) * Long.BYTES);
+                writeFully(channel, index, HEADER_SIZE + (long) from * Long.BYTES);
+            }
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public ObservableList<Loan> getPersonList() {
+        return loans;
+    }
+
+    /**
+     * Returns the number of loans in the archive.
+     */
+    public int size() {
+        return loanCount;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .add("loans", loanCount)
+                .toString();
+    }
+
+    private Loan decodeLoan(int index) {
+        try {
+            long start = recordOffset(index);
+            int length = checkedLength(start, recordOffset(index + 1));
+            return BinaryLoanBookFormat.readLoan(new BinaryLoanBookFormat.Decoder(slice(start, length)), tags,
+                    true);
+        } catch (IOException | IllegalValueException e) {
+            throw new IllegalStateException(MESSAGE_CORRUPTED, e);
+        }
+    }
+
+    private long recordOffset(int index) {
+        long position = HEADER_SIZE + (long) index * Long.BYTES;
+        return segments[(int) (position / SEGMENT_SIZE)].getLong((int) (position % SEGMENT_SIZE));
+    }
+
+    private int checkedLength(long start, long end) throws IOException {
+        if (start < indexEnd(loanCount) || end < start || end > fileSize || end - start > Integer.MAX_VALUE) {
+            throw new IOException(MESSAGE_CORRUPTED);
+        }
+        return (int) (end - start);
+    }
+
+    /**
+     * Returns the {@code length} bytes of the file from {@code position}. They are copied only if they lie in two
+     * mapped parts of the file.
+     */
+    private ByteBuffer slice(long position, int length) {
+        int segment = (int) (position / SEGMENT_SIZE);
+        int offset = (int) (position % SEGMENT_SIZE);
+        if (offset + (long) length <= segments[segment].capacity()) {
+            return segments[segment].slice(offset, length);
+        }
+        ByteBuffer copy = ByteBuffer.allocate(length);
+        while (copy.hasRemaining()) {
+            int available = Math.min(copy.remaining(), segments[segment].capacity() - offset);
+            copy.put(segments[segment].slice(offset, available));
+            segment++;
+            offset = 0;
+        }
+        return copy.flip();
+    }
+
+    private static long indexEnd(long loanCount) {
+        return HEADER_SIZE + (loanCount + 1) * Long.BYTES;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.model.loan.Loan;
+import wanted.model.loan.Name;
+
+/**
+ * Converts loans from their JSON form into the model's {@code Loan} on a fork/join pool, keeping their order.
+ * <p>
+ * Loans are handed over one at a time as they are read and converted in batches, each split between the threads of
+ * the pool, so converting and validating the loans of a large file uses every core while the rest of the file is
+ * still being read. Duplicates are found with a concurrent map from each name to the first position it appears at:
+ * a loan is a duplicate if its name appears earlier. The loan reported as invalid or duplicated is therefore the same
+ * one that adding the loans to a {@code LoanBook} one at a time would report, whichever thread converts it.
+ */
+class ParallelLoanConverter {
+
+    /** The number of loans converted together. */
+    static final int BATCH_SIZE = 1 << 12;
+
+    // the number of loans below which a batch is not split further between threads
+    private static final int SPLIT_THRESHOLD = 1 << 7;
+
+    private final ForkJoinPool pool;
+    private final int maxPendingBatches;
+    private final ConcurrentHashMap<Name, Integer> firstPositions = new ConcurrentHashMap<>();
+    private final ArrayDeque<Batch> pendingBatches = new ArrayDeque<>();
+    private final List<Loan> loans = new ArrayList<>();
+
+    private List<JsonAdaptedLoan> nextBatch = new ArrayList<>();
+    private int loansAdded;
+
+    /**
+     * Creates a converter that runs on the common fork/join pool.
+     */
+    public ParallelLoanConverter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a converter that runs on {@code pool}.
+     */
+    public ParallelLoanConverter(ForkJoinPool pool) {
+        requireNonNull(pool);
+        this.pool = pool;
+        // enough batches to keep every thread busy while the next one is read, but no more held in their JSON form
+        this.maxPendingBatches = 2 * pool.getParallelism();
+    }
+
+    /**
+     * Queues {@code jsonAdaptedLoan} to be converted after the loans added before it.
+     * A null loan is reported as missing when its turn comes.
+     *
+     * @throws IllegalValueException if a loan added earlier, whose conversion has finished, is invalid or a duplicate.
+     */
+    public void add(JsonAdaptedLoan jsonAdaptedLoan) throws IllegalValueException {
+        nextBatch.add(jsonAdaptedLoan);
+        if (nextBatch.size() == BATCH_SIZE) {
+            submitNextBatch();
+        }
+        if (pendingBatches.size() > maxPendingBatches) {
+            collect(pendingBatches.poll());
+        }
+    }
+
+    /**
+     * Waits for every loan added to be converted and returns them in the order they were added.
+     *
+     * @throws IllegalValueException if any loan is invalid or the same loan was added twice. The first such loan
+     *     is reported.
+     */
+    public List<Loan> finish() throws IllegalValueException {
+        submitNextBatch();
+        while (!pendingBatches.isEmpty()) {
+            collect(pendingBatches.poll());
+        }
+        return loans;
+    }
+
+    private void submitNextBatch() {
+        if (nextBatch.isEmpty()) {
+            return;
+        }
+        Batch batch = new Batch(nextBatch, loansAdded);
+        loansAdded += nextBatch.size();
+        nextBatch = new ArrayList<>();
+        pool.execute(batch.conversion);
+        pendingBatches.add(batch);
+    }
+
+    private void collect(Batch batch) throws IllegalValueException {
+        batch.conversion.join();
+        for (int i = 0; i < batch.loans.length; i++) {
+            if (batch.errors[i] != null) {
+                throw batch.errors[i];
+            }
+            Loan loan = batch.loans[i];
+            if (firstPositions.get(loan.getName()) < batch.firstPosition + i) {
+                throw new IllegalValueException(JsonSerializableLoanBook.MESSAGE_DUPLICATE_PERSON);
+            }
+            loans.add(loan);
+        }
+    }
+
+    private void convert(Batch batch, int index) {
+        JsonAdaptedLoan jsonAdaptedLoan = batch.jsonAdaptedLoans.get(index);
+        try {
+            if (jsonAdaptedLoan == null) {
+                throw new IllegalValueException(JsonLoanBookReader.MESSAGE_MISSING_LOAN);
+            }
+            Loan loan = jsonAdaptedLoan.toModelType();
+            firstPositions.merge(loan.getName(), batch.firstPosition + index, Math::min);
+            batch.loans[index] = loan;
+        } catch (IllegalValueException ive) {
+            batch.errors[index] = ive;
+        }
+    }
+
+    /**
+     * Loans converted together, and the results of their conversion by position within the batch.
+     */
+    private class Batch {
+        private final List<JsonAdaptedLoan> jsonAdaptedLoans;
+        private final int firstPosition;
+        private final Loan[] loans;
+        private final IllegalValueException[] errors;
+        private final Conversion conversion;
+
+        Batch(List<JsonAdaptedLoan> jsonAdaptedLoans, int firstPosition) {
+            this.jsonAdaptedLoans = jsonAdaptedLoans;
+            this.firstPosition = firstPosition;
+            this.loans = new Loan[jsonAdaptedLoans.size()];
+            this.errors = new IllegalValueException[jsonAdaptedLoans.size()];
+            this.conversion = new Conversion(this, 0, jsonAdaptedLoans.size());
+        }
+    }
+
+    /**
+     * Converts the loans of a batch from {@code from} (inclusive) to {@code to} (exclusive), splitting the range
+     * between threads while it is large.
+     */
+    private class Conversion extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Batch batch;
+        private final int from;
+        private final int to;
+
+        Conversion(Batch batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Conversion(batch, from, middle), new Conversion(batch, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                convert(batch, i);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import wanted.commons.util.ToStringBuilder;
+import wanted.model.ReadOnlyLoanBook;
+
+/**
+ * The loans recovered from a loan book file that could not be read in full, together with a description of each
+ * loan that was lost. The records of the lost loans are kept in a quarantine file next to the loan book file.
+ */
+public class RecoveredLoanBook {
+
+    public static final String QUARANTINE_SUFFIX = ".quarantine";
+    public static final String MESSAGE_REPORT_FORMAT = "%1$d loan record(s) could not be loaded. "
+            + "They have been copied to %2$s:\n%3$s";
+
+    private final ReadOnlyLoanBook loanBook;
+    private final List<String> losses;
+    private final Path quarantinePath;
+
+    /**
+     * Creates a result of {@code loanBook} and the given {@code losses}, whose records are in the quarantine file at
+     * {@code quarantinePath}. The path may be null if nothing was lost.
+     */
+    public RecoveredLoanBook(ReadOnlyLoanBook loanBook, List<String> losses, Path quarantinePath) {
+        requireNonNull(loanBook);
+        requireNonNull(losses);
+        this.loanBook = loanBook;
+        this.losses = List.copyOf(losses);
+        this.quarantinePath = quarantinePath;
+    }
+
+    /**
+     * Returns the path of the quarantine file kept for the loan book file at {@code filePath}.
+     */
+    public static Path quarantinePathOf(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + QUARANTINE_SUFFIX);
+    }
+
+    public ReadOnlyLoanBook getLoanBook() {
+        return loanBook;
+    }
+
+    /**
+     * Returns a description of each loan record that could not be recovered.
+     */
+    public List<String> getLosses() {
+        return losses;
+    }
+
+    public boolean hasLosses() {
+        return !losses.isEmpty();
+    }
+
+    /**
+     * Returns a report of the lost loan records to be shown to the user.
+     */
+    public String getReport() {
+        return String.format(MESSAGE_REPORT_FORMAT, losses.size(), quarantinePath, String.join("\n", losses));
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .add("loanBook", loanBook)
+                .add("losses", losses)
+                .add("quarantinePath", quarantinePath)
+                .toString();
+    }
+}
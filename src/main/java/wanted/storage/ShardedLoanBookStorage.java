@@ -0,0 +1,474 @@
+package wanted.storage;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+import wanted.commons.core.LogsCenter;
+import wanted.commons.exceptions.DataLoadingException;
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.FileUtil;
+import wanted.commons.util.JsonUtil;
+import wanted.model.LoanBook;
+import wanted.model.ReadOnlyLoanBook;
+import wanted.model.loan.Loan;
+import wanted.model.loan.Name;
+import wanted.model.loan.exceptions.DuplicateLoanException;
+
+/**
+ * A class to access LoanBook data spread over a number of shard files on the hard disk.
+ * <p>
+ * Each loan is kept in one of the shards, chosen by a hash of its name, together with a key that orders it among
+ * all the loans. The file at {@link #getLoanBookFilePath()} is a small manifest naming the current file of each
+ * shard and the CRC32C checksum of its content; the shard files are kept in a folder next to it (the manifest path
+ * with {@link #SHARDS_FOLDER_SUFFIX} appended). A save writes only the shards holding a loan that was added, changed,
+ * removed or moved, each to a new file, and then replaces the manifest atomically, so a crash during a save leaves
+ * the previous book as it was. Order keys are spaced apart and a save keeps the keys of as many loans as it can, so
+ * removing or moving a loan leaves the keys, and so the shards, of the other loans alone.
+ * <p>
+ * Reading checks and converts the shards in parallel on the common fork/join pool.
+ */
+public class ShardedLoanBookStorage implements LoanBookStorage {
+
+    public static final int DEFAULT_SHARD_COUNT = 256;
+    public static final String SHARDS_FOLDER_SUFFIX = ".shards";
+
+    public static final String MESSAGE_CHECKSUM_MISMATCH = "Shard file %s does not match its checksum.";
+    public static final String MESSAGE_WRONG_SHARD = "Shard contains a loan that belongs to another shard.";
+    public static final String MESSAGE_UNORDERED_SHARD = "Shard loans are not in order.";
+
+    private static final Logger logger = LogsCenter.getLogger(ShardedLoanBookStorage.class);
+    private static final long ORDER_GAP = 1L << 20; // between the keys of neighbouring loans when they are assigned
+
+    private final Path filePath;
+    private final int shardCount; // used for a new book; an existing book keeps its number of shards
+
+    // The fields below are guarded by this object's lock.
+    private Shard[] savedShards; // the shards as of the last read or save of filePath, null if unknown
+    private Map<Name, Long> savedOrders = Map.of(); // the order key of each loan in savedShards
+    private boolean isSwept; // whether shard files left behind by an interrupted save have been deleted
+
+    public ShardedLoanBookStorage(Path filePath) {
+        this(filePath, DEFAULT_SHARD_COUNT);
+    }
+
+    /**
+     * Creates a storage that spreads the loans of a new book over {@code shardCount} shards.
+     */
+    public ShardedLoanBookStorage(Path filePath, int shardCount) {
+        requireNonNull(filePath);
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive.");
+        }
+        this.filePath = filePath;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Returns the folder holding the shard files of the manifest at {@code filePath}.
+     */
+    public static Path shardsFolderOf(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + SHARDS_FOLDER_SUFFIX);
+    }
+
+    @Override
+    public Path getLoanBookFilePath() {
+        return filePath;
+    }
+
+    @Override
+    public Optional<ReadOnlyLoanBook> readLoanBook() throws DataLoadingException {
+        return readLoanBook(filePath);
+    }
+
+    /**
+     * Similar to {@link #readLoanBook()}.
+     *
+     * @param filePath location of the manifest. Cannot be null.
+     * @throws DataLoadingException if the manifest or a shard could not be read, or a shard does not match its
+     *     checksum or holds invalid loans.
+     */
+    @Override
+    public synchronized Optional<ReadOnlyLoanBook> readLoanBook(Path filePath) throws DataLoadingException {
+        requireNonNull(filePath);
+
+        if (!Files.exists(filePath)) {
+            return Optional.empty();
+        }
+
+        try {
+            JsonSerializableShardManifest manifest = JsonUtil.fromJsonString(FileUtil.readFromFile(filePath),
+                    JsonSerializableShardManifest.class);
+            if (manifest == null || !manifest.isValid()) {
+                throw new IllegalValueException(JsonSerializableShardManifest.MESSAGE_INVALID_MANIFEST);
+            }
+            Shard[] shards = readShards(shardsFolderOf(filePath), manifest);
+            Map<Name, Long> orders = new HashMap<>();
+            LoanBook loanBook = new LoanBook();
+            loanBook.setPersons(mergeShards(shards, orders));
+            if (filePath.equals(this.filePath)) {
+                savedShards = shards;
+                savedOrders = orders;
+            }
+            return Optional.of(loanBook);
+        } catch (IOException e) {
+            logger.warning("Error reading from " + filePath + ": " + e);
+            throw new DataLoadingException(e);
+        } catch (IllegalValueException ive) {
+            logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
+            throw new DataLoadingException(ive);
+        } catch (DuplicateLoanException e) {
+            IllegalValueException ive = new IllegalValueException(JsonSerializableLoanBook.MESSAGE_DUPLICATE_PERSON);
+            logger.info("Illegal values found in " + filePath + ": " + ive.getMessage());
+            throw new DataLoadingException(ive);
+        }
+    }
+
+    @Override
+    public void saveLoanBook(ReadOnlyLoanBook loanBook) throws IOException {
+        saveLoanBook(loanBook, filePath);
+    }
+
+    /**
+     * Similar to {@link #saveLoanBook(ReadOnlyLoanBook)}.
+     * Saving to a path other than {@link #getLoanBookFilePath()} always writes every shard.
+     *
+     * @param filePath location of the manifest. Cannot be null.
+     */
+    @Override
+    public synchronized void saveLoanBook(ReadOnlyLoanBook loanBook, Path filePath) throws IOException {
+        requireNonNull(loanBook);
+        requireNonNull(filePath);
+
+        boolean isOwnFile = filePath.equals(this.filePath);
+        Shard[] previous = isOwnFile ? savedShards : null;
+        int count = previous != null ? previous.length : shardCount;
+        List<Loan> loans = new ArrayList<>(loanBook.getPersonList());
+        long[] orders = assignOrders(loans, isOwnFile ? savedOrders : Map.of());
+
+        int[] shardOfLoan = new int[loans.size()];
+        int[] shardSizes = new int[count];
+        for (int i = 0; i < loans.size(); i++) {
+            shardOfLoan[i] = shardOf(loans.get(i).getName(), count);
+            shardSizes[shardOfLoan[i]]++;
+        }
+        long[][] shardOrders = new long[count][];
+        Loan[][] shardLoans = new Loan[count][];
+        for (int s = 0; s < count; s++) {
+            shardOrders[s] = new long[shardSizes[s]];
+            shardLoans[s] = new Loan[shardSizes[s]];
+            shardSizes[s] = 0;
+        }
+        for (int i = 0; i < loans.size(); i++) {
+            int s = shardOfLoan[i];
+            shardOrders[s][shardSizes[s]] = orders[i];
+            shardLoans[s][shardSizes[s]++] = loans.get(i);
+        }
+
+        Path folder = shardsFolderOf(filePath);
+        Shard[] shards = new Shard[count];
+        List<String> replacedFiles = new ArrayList<>();
+        int written = 0;
+        for (int s = 0; s < count; s++) {
+            if (previous != null && previous[s].holds(shardOrders[s], shardLoans[s])) {
+                shards[s] = previous[s];
+                continue;
+            }
+            shards[s] = writeShard(folder, s, shardOrders[s], shardLoans[s]);
+            written++;
+            if (previous != null && previous[s].file() != null && !previous[s].file().equals(shards[s].file())) {
+                replacedFiles.add(previous[s].file());
+            }
+        }
+        if (previous != null && written == 0) {
+            return;
+        }
+
+        List<String> files = new ArrayList<>();
+        List<Long> checksums = new ArrayList<>();
+        for (Shard shard : shards) {
+            files.add(shard.file());
+            checksums.add(shard.checksum());
+        }
+        FileUtil.writeToFileAtomically(filePath, JsonUtil.toJsonString(new JsonSerializableShardManifest(files,
+                checksums)).getBytes(StandardCharsets.UTF_8));
+        logger.fine("Wrote " + written + " of " + count + " shards of " + filePath);
+
+        // the files of the previous manifest are no longer needed once the new one is in place
+        for (String file : replacedFiles) {
+            deleteQuietly(folder.resolve(file));
+        }
+        if (isOwnFile) {
+            if (!isSwept) {
+                deleteUnreferencedFiles(folder, files);
+                isSwept = true;
+            }
+            Map<Name, Long> newOrders = new HashMap<>();
+            for (int i = 0; i < loans.size(); i++) {
+                newOrders.put(loans.get(i).getName(), orders[i]);
+            }
+            savedShards = shards;
+            savedOrders = newOrders;
+        }
+    }
+
+    /**
+     * Returns the shard that a loan named {@code name} belongs to, out of {@code count} shards.
+     */
+    static int shardOf(Name name, int count) {
+        return Math.floorMod(name.fullName.hashCode(), count);
+    }
+
+    /**
+     * Returns increasing order keys for {@code loans}. The loans whose keys in {@code previousOrders} are already
+     * in increasing order keep them, as many as possible; the others get keys spaced evenly between their
+     * neighbours, or all loans get new keys if there is no room left.
+     */
+    static long[] assignOrders(List<Loan> loans, Map<Name, Long> previousOrders) {
+        int n = loans.size();
+        long[] previous = new long[n];
+        boolean[] isKept = new boolean[n];
+
+        // find a longest increasing run of previous keys by patience sorting
+        int[] tails = new int[n]; // tails[k]: the loan ending the best run of length k + 1 found so far
+        int[] predecessors = new int[n];
+        int longest = 0;
+        for (int i = 0; i < n; i++) {
+            Long order = previousOrders.get(loans.get(i).getName());
+            if (order == null) {
+                continue;
+            }
+            previous[i] = order;
+            int low = 0;
+            int high = longest;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (previous[tails[middle]] < order) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            predecessors[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            longest = Math.max(longest, low + 1);
+        }
+        for (int i = longest > 0 ? tails[longest - 1] : -1; i >= 0; i = predecessors[i]) {
+            isKept[i] = true;
+        }
+
+        long[] orders = new long[n];
+        int i = 0;
+        while (i < n) {
+            if (isKept[i]) {
+                orders[i] = previous[i];
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < n && !isKept[end]) {
+                end++;
+            }
+            int run = end - i;
+            long low = i > 0 ? orders[i - 1] : end < n ? previous[end] - (run + 1) * ORDER_GAP : 0;
+            long high = end < n ? previous[end] : low + (run + 1) * ORDER_GAP;
+            long step = (high - low) / (run + 1);
+            if (step < 1) {
+                for (int j = 0; j < n; j++) {
+                    orders[j] = (j + 1) * ORDER_GAP;
+                }
+                return orders;
+            }
+            for (int j = 0; j < run; j++) {
+                orders[i + j] = low + (j + 1) * step;
+            }
+            i = end;
+        }
+        return orders;
+    }
+
+    private Shard writeShard(Path folder, int index, long[] orders, Loan[] loans) throws IOException {
+        if (loans.length == 0) {
+            return new Shard(null, 0, orders, loans);
+        }
+        List<Long> orderList = new ArrayList<>();
+        List<JsonAdaptedLoan> loanList = new ArrayList<>();
+        for (int i = 0; i < loans.length; i++) {
+            orderList.add(orders[i]);
+            loanList.add(new JsonAdaptedLoan(loans[i]));
+        }
+        byte[] content = JsonUtil.toCompactJsonString(new JsonSerializableLoanShard(orderList, loanList))
+                .getBytes(StandardCharsets.UTF_8);
+        long checksum = checksumOf(content);
+        // a file with the same name has the same content, so one left behind by an interrupted save can be reused
+        String file = String.format("shard-%d-%08x.json", index, checksum);
+        FileUtil.writeToFileAtomically(folder.resolve(file), content);
+        return new Shard(file, checksum, orders, loans);
+    }
+
+    private static Shard[] readShards(Path folder, JsonSerializableShardManifest manifest)
+            throws IOException, IllegalValueException {
+        int count = manifest.getFiles().size();
+        Shard[] shards = new Shard[count];
+        Exception[] errors = new Exception[count];
+        IntStream.range(0, count).parallel().forEach(s -> {
+            try {
+                shards[s] = readShard(folder, manifest.getFiles().get(s), manifest.getChecksums().get(s), s, count);
+            } catch (IOException | IllegalValueException e) {
+                errors[s] = e;
+            }
+        });
+
+        for (Exception error : errors) {
+            if (error instanceof IOException) {
+                throw (IOException) error;
+            } else if (error != null) {
+                throw (IllegalValueException) error;
+            }
+        }
+        return shards;
+    }
+
+    /**
+     * Reads and converts the shard at {@code index} of {@code count} from {@code file}, checking its checksum.
+     * Runs on a thread of the common fork/join pool.
+     */
+    private static Shard readShard(Path folder, String file, long checksum, int index, int count)
+            throws IOException, IllegalValueException {
+        if (file == null) {
+            return new Shard(null, 0, new long[0], new Loan[0]);
+        }
+        Path shardPath = folder.resolve(file);
+        if (!folder.equals(shardPath.getParent())) {
+            throw new IllegalValueException(JsonSerializableShardManifest.MESSAGE_INVALID_MANIFEST);
+        }
+        byte[] content = Files.readAllBytes(shardPath);
+        if (checksumOf(content) != checksum) {
+            throw new IOException(String.format(MESSAGE_CHECKSUM_MISMATCH, shardPath));
+        }
+
+        JsonSerializableLoanShard shard = JsonUtil.fromJsonString(new String(content, StandardCharsets.UTF_8),
+                JsonSerializableLoanShard.class);
+        if (shard == null || shard.getOrders().size() != shard.getLoans().size()
+                || shard.getOrders().contains(null)) {
+            throw new IllegalValueException(JsonSerializableLoanShard.MESSAGE_ORDERS_MISMATCH);
+        }
+        int size = shard.getLoans().size();
+        long[] orders = new long[size];
+        Loan[] loans = new Loan[size];
+        for (int i = 0; i < size; i++) {
+            JsonAdaptedLoan jsonAdaptedLoan = shard.getLoans().get(i);
+            if (jsonAdaptedLoan == null) {
+                throw new IllegalValueException(JsonLoanBookReader.MESSAGE_MISSING_LOAN);
+            }
+            loans[i] = jsonAdaptedLoan.toModelType();
+            orders[i] = shard.getOrders().get(i);
+            if (shardOf(loans[i].getName(), count) != index) {
+                throw new IllegalValueException(MESSAGE_WRONG_SHARD);
+            }
+            if (i > 0 && orders[i] <= orders[i - 1]) {
+                throw new IllegalValueException(MESSAGE_UNORDERED_SHARD);
+            }
+        }
+        return new Shard(file, checksum, orders, loans);
+    }
+
+    /**
+     * Returns the loans of all {@code shards} in the order of their keys, recording the key of each in
+     * {@code orders}.
+     */
+    private static List<Loan> mergeShards(Shard[] shards, Map<Name, Long> orders) {
+        // each shard is in order already, so the next loan is always the first one left in some shard
+        int[] positions = new int[shards.length];
+        PriorityQueue<Integer> next = new PriorityQueue<>(Math.max(1, shards.length), (first, second) ->
+                Long.compare(shards[first].orders()[positions[first]], shards[second].orders()[positions[second]]));
+        int total = 0;
+        for (int s = 0; s < shards.length; s++) {
+            total += shards[s].loans().length;
+            if (shards[s].loans().length > 0) {
+                next.add(s);
+            }
+        }
+
+        List<Loan> loans = new ArrayList<>(total);
+        while (!next.isEmpty()) {
+            int s = next.poll();
+            Loan loan = shards[s].loans()[positions[s]];
+            loans.add(loan);
+            orders.put(loan.getName(), shards[s].orders()[positions[s]]);
+            positions[s]++;
+            if (positions[s] < shards[s].loans().length) {
+                next.add(s);
+            }
+        }
+        return loans;
+    }
+
+    private static long checksumOf(byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static void deleteUnreferencedFiles(Path folder, List<String> referencedFiles) {
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        Set<String> referenced = new HashSet<>(referencedFiles);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "shard-*")) {
+            for (Path file : files) {
+                if (!referenced.contains(file.getFileName().toString())) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Could not clean up " + folder + ": " + e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // the file is no longer referenced, so leaving it behind does no harm
+            logger.warning("Could not delete " + file + ": " + e);
+        }
+    }
+
+    /**
+     * The loans of one shard, in order, and the file they were read from or written to (null if there are none).
+     */
+    private record Shard(String file, long checksum, long[] orders, Loan[] loans) {
+        /**
+         * Returns true if this shard holds exactly {@code loans} with the keys {@code orders}.
+         * Loans are immutable, so unchanged loans are recognised by reference.
+         */
+        boolean holds(long[] orders, Loan[] loans) {
+            if (!Arrays.equals(this.orders, orders) || this.loans.length != loans.length) {
+                return false;
+            }
+            for (int i = 0; i < loans.length; i++) {
+                if (this.loans[i] != loans[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -26,6 +26,9 @@ public interface Storage extends LoanBookStorage, UserPrefsStorage {
     @Override
     Optional<ReadOnlyLoanBook> readLoanBook() throws DataLoadingException;
 
+    @Override
+    RecoveredLoanBook recoverLoanBook() throws DataLoadingException;
+
     @Override
     void saveLoanBook(ReadOnlyLoanBook loanBook) throws IOException;
 
@@ -64,6 +64,12 @@ public class StorageManager implements Storage {
         return loanBookStorage.readLoanBook(filePath);
     }
 
+    @Override
+    public RecoveredLoanBook recoverLoanBook() throws DataLoadingException {
+        logger.fine("Attempting to recover data from file: " + loanBookStorage.getLoanBookFilePath());
+        return loanBookStorage.recoverLoanBook();
+    }
+
     @Override
     public void saveLoanBook(ReadOnlyLoanBook loanBook) throws IOException {
         saveLoanBook(loanBook, loanBookStorage.getLoanBookFilePath());
@@ -10,4 +10,7 @@ public interface Ui {
     /** Starts the UI (and the App).  */
     void start(Stage primaryStage);
 
+    /** Shows a warning to the user, and returns once the user has dismissed it. */
+    void showWarning(String headerText, String contentText);
+
 }
@@ -2,6 +2,7 @@ package wanted.commons.core.datatypes;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static wanted.testutil.Assert.assertThrows;
 
@@ -13,6 +14,7 @@ public class MoneyIntTest {
         assertThrows(IllegalArgumentException.class, () -> MoneyInt.fromDollarAndCent(-1, 10));
         assertThrows(IllegalArgumentException.class, () -> MoneyInt.fromDollarAndCent(10, -1));
         assertThrows(IllegalArgumentException.class, () -> MoneyInt.fromDollarAndCent(10, 100));
+        assertThrows(IllegalArgumentException.class, () -> MoneyInt.fromDollarAndCent(Long.MAX_VALUE / 100, 99));
     }
 
     @Test
@@ -22,6 +24,30 @@ public class MoneyIntTest {
         assertEquals(1000, MoneyInt.fromDollarAndCent(10, 0).getValueTimesOneHundred());
         assertEquals(1050, MoneyInt.fromDollarAndCent(10, 50).getValueTimesOneHundred());
         assertEquals(123456, MoneyInt.fromDollarAndCent(1234, 56).getValueTimesOneHundred());
+        assertEquals(2_147_483_648_00L, MoneyInt.fromDollarAndCent(2_147_483_648L, 0).getValueTimesOneHundred());
+    }
+
+    @Test
+    public void fromCent_wholeDollars_interned() {
+        assertSame(MoneyInt.ZERO, MoneyInt.fromCent(0));
+        assertSame(MoneyInt.fromCent(50000), MoneyInt.fromDollarAndCent(500, 0));
+        assertEquals(MoneyInt.fromCent(50001), MoneyInt.fromCent(50001));
+    }
+
+    @Test
+    public void add() {
+        assertEquals(MoneyInt.fromCent(3000), MoneyInt.fromCent(1000).add(MoneyInt.fromCent(2000)));
+        assertEquals(MoneyInt.fromCent(Long.MAX_VALUE),
+                MoneyInt.fromCent(Long.MAX_VALUE - 1).add(MoneyInt.fromCent(1)));
+        assertThrows(ArithmeticException.class, () -> MoneyInt.fromCent(Long.MAX_VALUE).add(MoneyInt.fromCent(1)));
+        assertThrows(NullPointerException.class, () -> MoneyInt.ZERO.add(null));
+    }
+
+    @Test
+    public void subtract() {
+        assertEquals(MoneyInt.fromCent(1000), MoneyInt.fromCent(3000).subtract(MoneyInt.fromCent(2000)));
+        assertEquals(MoneyInt.ZERO, MoneyInt.fromCent(Long.MAX_VALUE).subtract(MoneyInt.fromCent(Long.MAX_VALUE)));
+        assertThrows(IllegalArgumentException.class, () -> MoneyInt.fromCent(1).subtract(MoneyInt.fromCent(2)));
     }
 
     @Test
@@ -44,6 +70,7 @@ public class MoneyIntTest {
 
         // same values -> returns true
         assertTrue(moneyInt.equals(MoneyInt.fromDollarAndCent(12, 34)));
+        assertEquals(moneyInt.hashCode(), MoneyInt.fromDollarAndCent(12, 34).hashCode());
 
         // same object -> returns true
         assertTrue(moneyInt.equals(moneyInt));
@@ -76,5 +103,9 @@ public class MoneyIntTest {
         assertTrue(moneyInt.compareTo(less) > 0);
         assertTrue(moneyInt.compareTo(greater) < 0);
         assertEquals(0, moneyInt.compareTo(equal));
+
+        // subtraction would overflow for values this far apart
+        assertTrue(MoneyInt.fromCent(Long.MAX_VALUE).compareTo(MoneyInt.ZERO) > 0);
+        assertTrue(MoneyInt.ZERO.compareTo(MoneyInt.fromCent(Long.MAX_VALUE)) < 0);
     }
 }
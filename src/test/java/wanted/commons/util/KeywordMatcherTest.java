@@ -0,0 +1,74 @@
+package wanted.commons.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static wanted.testutil.Assert.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class KeywordMatcherTest {
+
+    @Test
+    public void compile_nullKeyword_throwsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> KeywordMatcher.compile(null));
+        assertThrows(NullPointerException.class, () -> KeywordMatcher.compile(Arrays.asList("a", null)));
+    }
+
+    @Test
+    public void match_invalidKeyword_throwsIllegalArgumentException() {
+        KeywordMatcher emptyKeyword = KeywordMatcher.compile(List.of("alice", "  "));
+        assertThrows(IllegalArgumentException.class, KeywordMatcher.MESSAGE_EMPTY_KEYWORD, () ->
+                emptyKeyword.match("Alice"));
+
+        KeywordMatcher twoWords = KeywordMatcher.compile(List.of("alice bob"));
+        assertThrows(IllegalArgumentException.class, KeywordMatcher.MESSAGE_NOT_SINGLE_WORD, () ->
+                twoWords.match("Alice"));
+    }
+
+    @Test
+    public void match_noKeywords_nothingFound() {
+        KeywordMatcher.Match match = KeywordMatcher.compile(List.of()).match("Alice Bob");
+        assertEquals(0, match.getFoundCount());
+        assertFalse(match.isWordFound());
+    }
+
+    @Test
+    public void match_partOfWord_foundButNotAsWord() {
+        KeywordMatcher.Match match = KeywordMatcher.compile(List.of("lic", "BO")).match("Alice Bobby");
+        assertEquals(2, match.getFoundCount());
+        assertFalse(match.isWordFound());
+    }
+
+    @Test
+    public void match_wholeWordIgnoringCase_foundAsWord() {
+        KeywordMatcher.Match match = KeywordMatcher.compile(List.of("bOB", "carol")).match("Alice  Bob");
+        assertEquals(1, match.getFoundCount());
+        assertTrue(match.isWordFound());
+
+        // a keyword found only after a failed longer match
+        assertEquals(1, KeywordMatcher.compile(List.of("alicia", "lice")).match("ALICE").getFoundCount());
+    }
+
+    @Test
+    public void match_overlappingAndRepeatedKeywords_sameAsOneKeywordAtATime() {
+        List<String> keywords = List.of("he", "she", "his", "hers", "she", "e", "Shers");
+        List<String> texts = List.of("ushers", "she sells", "His hers", "shershe", "", "h e r s", "xyz");
+        KeywordMatcher matcher = KeywordMatcher.compile(keywords);
+
+        for (String text : texts) {
+            int expectedCount = 0;
+            boolean expectedWord = false;
+            for (String keyword : keywords) {
+                expectedCount += text.toLowerCase().contains(keyword.toLowerCase()) ? 1 : 0;
+                expectedWord |= StringUtil.containsWordIgnoreCase(text, keyword);
+            }
+            KeywordMatcher.Match match = matcher.match(text);
+            assertEquals(expectedCount, match.getFoundCount(), text);
+            assertEquals(expectedWord, match.isWordFound(), text);
+        }
+    }
+}
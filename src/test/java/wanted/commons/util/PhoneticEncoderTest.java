@@ -0,0 +1,54 @@
+package wanted.commons.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static wanted.testutil.Assert.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class PhoneticEncoderTest {
+
+    @Test
+    public void encode_null_throwsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> PhoneticEncoder.encode(null));
+    }
+
+    @Test
+    public void encode_noSoundedLetters_emptyCode() {
+        assertEquals("", PhoneticEncoder.encode(""));
+        assertEquals("", PhoneticEncoder.encode("123"));
+        assertEquals("", PhoneticEncoder.encode("h"));
+    }
+
+    @Test
+    public void encode_examples() {
+        assertEquals("SM0", PhoneticEncoder.encode("Smith"));
+        assertEquals("K0RN", PhoneticEncoder.encode("Catherine"));
+        assertEquals("NT", PhoneticEncoder.encode("Knight"));
+        assertEquals("ALKS", PhoneticEncoder.encode("Alex"));
+        assertEquals("SKMT", PhoneticEncoder.encode("Schmidt"));
+        assertEquals("XRLT", PhoneticEncoder.encode("Charlotte"));
+        assertEquals("WTNR", PhoneticEncoder.encode("Whitney R"));
+    }
+
+    @Test
+    public void encode_soundAlikes_sameCode() {
+        assertSameCode("Smith", "Smyth");
+        assertSameCode("Catherine", "Kathryn");
+        assertSameCode("John", "Jon");
+        assertSameCode("Philip", "Filip");
+        assertSameCode("Stephen", "Steven");
+        assertSameCode("Alice", "ALYCE");
+        assertSameCode("Aaron", "Erin");
+    }
+
+    @Test
+    public void encode_differentSounds_differentCodes() {
+        assertNotEquals(PhoneticEncoder.encode("Alice"), PhoneticEncoder.encode("Alex"));
+        assertNotEquals(PhoneticEncoder.encode("Ben"), PhoneticEncoder.encode("Dan"));
+    }
+
+    private static void assertSameCode(String first, String second) {
+        assertEquals(PhoneticEncoder.encode(first), PhoneticEncoder.encode(second), first + " and " + second);
+    }
+}
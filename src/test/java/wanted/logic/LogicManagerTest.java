@@ -17,6 +17,7 @@ import org.junit.jupiter.api.io.TempDir;
 
 import wanted.logic.commands.AddCommand;
 import wanted.logic.commands.CommandResult;
+import wanted.logic.commands.HelpCommand;
 import wanted.logic.commands.ListCommand;
 import wanted.logic.commands.exceptions.CommandException;
 import wanted.logic.parser.exceptions.ParseException;
@@ -27,6 +28,7 @@ import wanted.model.UserPrefs;
 import wanted.model.loan.Loan;
 import wanted.storage.JsonLoanBookStorage;
 import wanted.storage.JsonUserPrefsStorage;
+import wanted.storage.LoanBookSaveScheduler;
 import wanted.storage.StorageManager;
 import wanted.testutil.PersonBuilder;
 
@@ -79,6 +81,58 @@ public class LogicManagerTest {
                 LogicManager.FILE_OPS_PERMISSION_ERROR_FORMAT, DUMMY_AD_EXCEPTION.getMessage()));
     }
 
+    @Test
+    public void execute_loanBookUnchanged_skipsSave() throws Exception {
+        int[] saveCount = {0};
+        JsonLoanBookStorage loanBookStorage = new JsonLoanBookStorage(temporaryFolder.resolve("loanbook.json")) {
+            @Override
+            public void saveLoanBook(ReadOnlyLoanBook loanBook, Path filePath) throws IOException {
+                saveCount[0]++;
+                super.saveLoanBook(loanBook, filePath);
+            }
+        };
+        JsonUserPrefsStorage userPrefsStorage = new JsonUserPrefsStorage(temporaryFolder.resolve("userPrefs.json"));
+        logic = new LogicManager(model, new StorageManager(loanBookStorage, userPrefsStorage));
+
+        // the first command always saves, as nothing is known to be on disk yet
+        logic.execute(ListCommand.COMMAND_WORD);
+        assertEquals(1, saveCount[0]);
+
+        logic.execute(ListCommand.COMMAND_WORD);
+        logic.execute(HelpCommand.COMMAND_WORD);
+        assertEquals(1, saveCount[0]);
+
+        logic.execute(AddCommand.COMMAND_WORD + NAME_DESC_AMY);
+        assertEquals(2, saveCount[0]);
+    }
+
+    @Test
+    public void execute_backgroundSaveFails_reportedByNextCommand() throws Exception {
+        int[] failuresLeft = {1};
+        JsonLoanBookStorage loanBookStorage = new JsonLoanBookStorage(temporaryFolder.resolve("loanbook.json")) {
+            @Override
+            public void saveLoanBook(ReadOnlyLoanBook loanBook, Path filePath) throws IOException {
+                if (failuresLeft[0]-- > 0) {
+                    throw DUMMY_IO_EXCEPTION;
+                }
+                super.saveLoanBook(loanBook, filePath);
+            }
+        };
+        JsonUserPrefsStorage userPrefsStorage = new JsonUserPrefsStorage(temporaryFolder.resolve("userPrefs.json"));
+        StorageManager storage = new StorageManager(loanBookStorage, userPrefsStorage);
+        LoanBookSaveScheduler saveScheduler = new LoanBookSaveScheduler(storage);
+        logic = new LogicManager(model, storage, saveScheduler);
+
+        // the save fails in the background after the command has returned, and is written again by the flush
+        logic.execute(AddCommand.COMMAND_WORD + NAME_DESC_AMY);
+        saveScheduler.flush();
+        assertEquals(model.getLoanBook(), storage.readLoanBook().get());
+
+        assertCommandException(ListCommand.COMMAND_WORD, String.format(
+                LogicManager.FILE_OPS_ERROR_FORMAT, DUMMY_IO_EXCEPTION.getMessage()));
+        logic.execute(ListCommand.COMMAND_WORD);
+    }
+
     @Test
     public void getFilteredPersonList_modifyList_throwsUnsupportedOperationException() {
         assertThrows(UnsupportedOperationException.class, () -> logic.getFilteredPersonList().remove(0));
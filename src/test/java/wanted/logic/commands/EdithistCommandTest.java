@@ -51,9 +51,9 @@ public class EdithistCommandTest {
     static {
         try {
             sampleAmount = new LoanAmount(new ArrayList<>(Arrays.asList(
-                    new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("1st Jan 2020")),
-                    new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2020")),
-                    new RepayLoanTransaction(MoneyInt.fromCent(800), new LoanDate("1st Jan 2020"))
+                    new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2020-01-01")),
+                    new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2020-01-01")),
+                    new RepayLoanTransaction(MoneyInt.fromCent(800), new LoanDate("2020-01-01"))
             )));
             boolean[] doesEditAmount = new boolean[]{true, false, true};
             boolean[] doesEditDate = new boolean[]{false, true, true};
@@ -62,16 +62,16 @@ public class EdithistCommandTest {
             for (int i = 0; i < 3; i++) {
                 sampleAmountFirstTransactionEdited[i] = new LoanAmount(new ArrayList<>(Arrays.asList(
                         new AddLoanTransaction(MoneyInt.fromCent(doesEditAmount[i] ? 300 : 500),
-                                new LoanDate(doesEditDate[i] ? "1st Jan 2010" : "1st Jan 2020")),
-                        new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2020")),
-                        new RepayLoanTransaction(MoneyInt.fromCent(800), new LoanDate("1st Jan 2020"))
+                                new LoanDate(doesEditDate[i] ? "2010-01-01" : "2020-01-01")),
+                        new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2020-01-01")),
+                        new RepayLoanTransaction(MoneyInt.fromCent(800), new LoanDate("2020-01-01"))
                 )));
                 editTransactionDescriptor[i] = new EditTransactionDescriptor();
                 if (doesEditAmount[i]) {
                     editTransactionDescriptor[i].setAmount(MoneyInt.fromCent(300));
                 }
                 if (doesEditDate[i]) {
-                    editTransactionDescriptor[i].setDate(new LoanDate("1st Jan 2010"));
+                    editTransactionDescriptor[i].setDate(new LoanDate("2010-01-01"));
                 }
             }
         } catch (ExcessRepaymentException e) {
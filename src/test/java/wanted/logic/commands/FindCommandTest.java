@@ -9,11 +9,14 @@ import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import wanted.commons.core.datatypes.Index;
+import wanted.logic.Messages;
 import wanted.logic.commands.exceptions.CommandException;
 import wanted.model.Model;
 import wanted.model.ModelManager;
 import wanted.model.UserPrefs;
 import wanted.model.loan.Loan;
+import wanted.model.loan.Name;
 import wanted.model.loan.NameContainsKeywordsPredicate;
 import wanted.testutil.LoanBookBuilder;
 import wanted.testutil.PersonBuilder;
@@ -68,6 +71,59 @@ public class FindCommandTest {
         assertEquals("Alex", filtered.get(1).getName().fullName);
     }
 
+    @Test
+    public void executeFuzzy_typoInKeyword_closeNamesFirst() throws CommandException {
+        NameContainsKeywordsPredicate predicate = new NameContainsKeywordsPredicate(List.of("Aelx", "yoeh"));
+        Model model = createSampleModel();
+
+        CommandResult result = new FindCommand(predicate, 2).execute(model);
+
+        List<Loan> filtered = model.getFilteredPersonList();
+        assertEquals(4, filtered.size());
+        assertEquals("Alex Yeoh", filtered.get(0).getName().fullName);
+        assertEquals("Alex", filtered.get(1).getName().fullName);
+        assertEquals(String.format(Messages.MESSAGE_PERSONS_FOUND_OVERVIEW, 2),
+                result.getFeedbackToUser());
+
+        // one typo is not enough to reach "alex" from "aelx", so the order is left as it was
+        result = new FindCommand(new NameContainsKeywordsPredicate(List.of("Aelx")), 1).execute(model);
+        assertEquals(String.format(Messages.MESSAGE_PERSONS_FOUND_OVERVIEW, 0),
+                result.getFeedbackToUser());
+        assertEquals("Alex Yeoh", model.getFilteredPersonList().get(0).getName().fullName);
+    }
+
+    @Test
+    public void executePhonetic_soundAlikeKeyword_matchesFirst() throws CommandException {
+        NameContainsKeywordsPredicate predicate = new NameContainsKeywordsPredicate(List.of("Ellisa", "Benedikt"));
+        Model model = createSampleModel();
+
+        CommandResult result = new FindCommand(predicate, true).execute(model);
+
+        List<Loan> filtered = model.getFilteredPersonList();
+        assertEquals("Benedict", filtered.get(0).getName().fullName);
+        assertEquals("Elisa", filtered.get(1).getName().fullName);
+        assertEquals(String.format(Messages.MESSAGE_PERSONS_FOUND_OVERVIEW, 2),
+                result.getFeedbackToUser());
+    }
+
+    @Test
+    public void executePhonetic_afterRename_matchesNewName() throws CommandException {
+        Model model = createSampleModel();
+        BaseEdit.EditLoanDescriptor descriptor = new BaseEdit.EditLoanDescriptor();
+        descriptor.setName(new Name("Smith"));
+        new RenameCommand(Index.fromOneBased(4), descriptor).execute(model);
+
+        CommandResult result = new FindCommand(new NameContainsKeywordsPredicate(List.of("smyth")), true)
+                .execute(model);
+
+        assertEquals("Smith", model.getFilteredPersonList().get(0).getName().fullName);
+        assertEquals(String.format(Messages.MESSAGE_PERSONS_FOUND_OVERVIEW, 1),
+                result.getFeedbackToUser());
+        result = new FindCommand(new NameContainsKeywordsPredicate(List.of("Elisa")), true).execute(model);
+        assertEquals(String.format(Messages.MESSAGE_PERSONS_FOUND_OVERVIEW, 0),
+                result.getFeedbackToUser());
+    }
+
     @Test
     public void equals() {
         NameContainsKeywordsPredicate firstPredicate = new NameContainsKeywordsPredicate(List.of("alex"));
@@ -91,5 +147,9 @@ public class FindCommandTest {
 
         // different predicates -> returns false
         assertFalse(command1.equals(command2));
+
+        // different fuzzy modes -> returns false
+        assertFalse(command1.equals(new FindCommand(firstPredicate, 1)));
+        assertFalse(command1.equals(new FindCommand(firstPredicate, true)));
     }
 }
@@ -31,8 +31,8 @@ public class SortCommandTest {
         LoanBook loanBook = (LoanBook) expectedModel.getLoanBook();
         ObservableList<Loan> oldList = loanBook.getPersonList();
         Comparator<Loan> comparator =
-                Comparator.nullsLast(Comparator.comparingInt(a -> (
-                        -a.getLoanAmount().getRemainingAmount().getValueTimesOneHundred())));
+                Comparator.nullsLast(Comparator.comparing((Loan a) -> a.getLoanAmount().getRemainingAmount())
+                        .reversed());
         List<Loan> sortedList = oldList.sorted(comparator);
         loanBook.setPersons(sortedList);
         assertCommandSuccess(new SortCommand(), model, SortCommand.MESSAGE_SUCCESS, expectedModel);
@@ -1,14 +1,18 @@
 package wanted.logic.parser;
 
 import static wanted.logic.Messages.MESSAGE_INVALID_COMMAND_FORMAT;
+import static wanted.logic.parser.CliSyntax.PREFIX_FUZZY;
+import static wanted.logic.parser.CliSyntax.PREFIX_SOUNDS_LIKE;
 import static wanted.logic.parser.CommandParserTestUtil.assertParseFailure;
-//import static wanted.logic.parser.CommandParserTestUtil.assertParseSuccess;
+import static wanted.logic.parser.CommandParserTestUtil.assertParseSuccess;
+
+import java.util.Arrays;
 
-//import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 
+import wanted.logic.Messages;
 import wanted.logic.commands.FindCommand;
-//import wanted.model.loan.NameContainsKeywordsPredicate;
+import wanted.model.loan.NameContainsKeywordsPredicate;
 
 /**
  * Unit tests for {@code FindCommandParser}.
@@ -27,4 +31,59 @@ public class FindCommandParserTest {
     public void parse_validArgs_returnsFindCommand() {
         //TODO: write FindCommandParserTest for valid arguments
     }
+
+    @Test
+    public void parse_fuzzyArgs_returnsFuzzyFindCommand() {
+        FindCommand expectedFindCommand =
+                new FindCommand(new NameContainsKeywordsPredicate(Arrays.asList("Alcie", "Bbo")), 2);
+        assertParseSuccess(parser, " Alcie \n Bbo f/2 ", expectedFindCommand);
+        assertParseSuccess(parser, " Alcie Bbo f/ 2", expectedFindCommand);
+    }
+
+    @Test
+    public void parse_fuzzyArgsWithoutKeywords_throwsParseException() {
+        assertParseFailure(parser, " f/1",
+                String.format(MESSAGE_INVALID_COMMAND_FORMAT, FindCommand.MESSAGE_USAGE));
+        assertParseFailure(parser, " f/x",
+                String.format(MESSAGE_INVALID_COMMAND_FORMAT, FindCommand.MESSAGE_USAGE));
+        // keywords after the prefix are part of its value
+        assertParseFailure(parser, " f/1 Alice",
+                String.format(MESSAGE_INVALID_COMMAND_FORMAT, FindCommand.MESSAGE_USAGE));
+    }
+
+    @Test
+    public void parse_duplicateFuzzyPrefix_throwsParseException() {
+        assertParseFailure(parser, " Alice f/1 f/2", Messages.getErrorMessageForDuplicatePrefixes(PREFIX_FUZZY));
+    }
+
+    @Test
+    public void parse_phoneticArgs_returnsPhoneticFindCommand() {
+        assertParseSuccess(parser, " Smyth Jon s/",
+                new FindCommand(new NameContainsKeywordsPredicate(Arrays.asList("Smyth", "Jon")), true));
+        assertParseSuccess(parser, " Smyth \n Jon  s/  ",
+                new FindCommand(new NameContainsKeywordsPredicate(Arrays.asList("Smyth", "Jon")), true));
+    }
+
+    @Test
+    public void parse_invalidPhoneticArgs_throwsParseException() {
+        String expectedMessage = String.format(MESSAGE_INVALID_COMMAND_FORMAT, FindCommand.MESSAGE_USAGE);
+        assertParseFailure(parser, " s/", expectedMessage);
+        // keywords after the prefix are its value, which it does not take
+        assertParseFailure(parser, " s/smyth", expectedMessage);
+        assertParseFailure(parser, " s/ Smyth", expectedMessage);
+        assertParseFailure(parser, " Jon s/ Smyth", expectedMessage);
+        // the two modes cannot be combined
+        assertParseFailure(parser, " Jon s/ f/1", expectedMessage);
+        assertParseFailure(parser, " Jon f/1 s/", expectedMessage);
+        assertParseFailure(parser, " Jon s/ s/", Messages.getErrorMessageForDuplicatePrefixes(PREFIX_SOUNDS_LIKE));
+    }
+
+    @Test
+    public void parse_invalidEditDistance_throwsParseException() {
+        assertParseFailure(parser, " Alice f/0", FindCommand.MESSAGE_INVALID_EDIT_DISTANCE);
+        assertParseFailure(parser, " Alice f/4", FindCommand.MESSAGE_INVALID_EDIT_DISTANCE);
+        assertParseFailure(parser, " Alice f/one", FindCommand.MESSAGE_INVALID_EDIT_DISTANCE);
+        assertParseFailure(parser, " Alice f/+1", FindCommand.MESSAGE_INVALID_EDIT_DISTANCE);
+        assertParseFailure(parser, " Alice f/", FindCommand.MESSAGE_INVALID_EDIT_DISTANCE);
+    }
 }
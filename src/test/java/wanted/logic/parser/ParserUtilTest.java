@@ -13,6 +13,7 @@ import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 
+import wanted.commons.core.datatypes.MoneyInt;
 import wanted.logic.parser.exceptions.ParseException;
 import wanted.model.loan.Address;
 import wanted.model.loan.Email;
@@ -58,6 +59,18 @@ public class ParserUtilTest {
         assertEquals(INDEX_FIRST_PERSON, ParserUtil.parseIndex("  1  "));
     }
 
+    @Test
+    public void parseMoneyAmount_validInput_success() throws Exception {
+        assertEquals(MoneyInt.fromDollarAndCent(10, 50), ParserUtil.parseMoneyAmount(" 10.50 "));
+        assertEquals(MoneyInt.fromDollarAndCent(30_000_000L, 0), ParserUtil.parseMoneyAmount("30000000.00"));
+    }
+
+    @Test
+    public void parseMoneyAmount_tooLarge_throwsParseException() {
+        assertThrows(ParseException.class, () -> ParserUtil.parseMoneyAmount("92233720368547758.08"));
+        assertThrows(ParseException.class, () -> ParserUtil.parseMoneyAmount("99999999999999999999.00"));
+    }
+
     @Test
     public void parseDate_null_throwsNullPointerException() {
         assertThrows(NullPointerException.class, () -> ParserUtil.parseDate((String) null));
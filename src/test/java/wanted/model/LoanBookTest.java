@@ -8,14 +8,20 @@ import static wanted.testutil.Assert.assertThrows;
 import static wanted.testutil.TypicalPersons.ALICE;
 import static wanted.testutil.TypicalPersons.getTypicalLoanBook;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import wanted.commons.core.datatypes.MoneyInt;
 import wanted.model.loan.Loan;
+import wanted.model.loan.LoanAmount;
+import wanted.model.loan.LoanDate;
+import wanted.model.loan.transaction.AddLoanTransaction;
 import wanted.testutil.PersonBuilder;
 
 public class LoanBookTest {
@@ -67,6 +73,50 @@ public class LoanBookTest {
         assertTrue(loanBook.hasPerson(ALICE));
     }
 
+    @Test
+    public void getVersion_changesOnlyWhenDataChanges() {
+        long version = loanBook.getVersion();
+        loanBook.addPerson(ALICE);
+        assertTrue(loanBook.getVersion() != version);
+
+        version = loanBook.getVersion();
+        loanBook.setPerson(ALICE, new PersonBuilder(ALICE).withTags(VALID_TAG_HUSBAND).build());
+        assertTrue(loanBook.getVersion() != version);
+
+        // same loans in the same order -> unchanged
+        version = loanBook.getVersion();
+        loanBook.setPersons(new ArrayList<>(loanBook.getPersonList()));
+        assertEquals(version, loanBook.getVersion());
+
+        loanBook.removePerson(loanBook.getPersonList().get(0));
+        assertTrue(loanBook.getVersion() != version);
+    }
+
+    @Test
+    public void getRemainingAmount_sumsAllLoans() {
+        assertEquals(MoneyInt.ZERO, loanBook.getRemainingAmount());
+
+        loanBook.resetData(getTypicalLoanBook());
+        long expectedRemaining = 0;
+        long expectedTotal = 0;
+        for (Loan loan : loanBook.getPersonList()) {
+            expectedRemaining += loan.getLoanAmount().getRemainingAmount().getValueTimesOneHundred();
+            expectedTotal += loan.getLoanAmount().getTotalAmount().getValueTimesOneHundred();
+        }
+        assertEquals(MoneyInt.fromCent(expectedRemaining), loanBook.getRemainingAmount());
+        assertEquals(MoneyInt.fromCent(expectedTotal), loanBook.getTotalAmount());
+    }
+
+    @Test
+    public void getTotalAmount_overflow_throwsArithmeticException() throws Exception {
+        LoanAmount huge = new LoanAmount().appendTransaction(
+                new AddLoanTransaction(MoneyInt.fromCent(Long.MAX_VALUE), new LoanDate("2024-01-01")));
+        loanBook.addPerson(new PersonBuilder().withName("Alice").withAmount(huge).build());
+        loanBook.addPerson(new PersonBuilder().withName("Bob").withAmount(huge).build());
+        assertThrows(ArithmeticException.class, () -> loanBook.getTotalAmount());
+        assertThrows(ArithmeticException.class, () -> loanBook.getRemainingAmount());
+    }
+
     @Test
     public void hasPerson_personWithSameIdentityFieldsInLoanBook_returnsTrue() {
         loanBook.addPerson(ALICE);
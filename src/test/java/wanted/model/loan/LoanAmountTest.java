@@ -16,6 +16,7 @@ import wanted.model.loan.exceptions.ExcessRepaymentException;
 import wanted.model.loan.transaction.AddLoanTransaction;
 import wanted.model.loan.transaction.LoanTransaction;
 import wanted.model.loan.transaction.RepayLoanTransaction;
+import wanted.model.loan.transaction.TransactionLog;
 import wanted.testutil.TypicalLoanAmount;
 
 public class LoanAmountTest {
@@ -30,9 +31,9 @@ public class LoanAmountTest {
         }
         {
             LoanAmount loanAmount = new LoanAmount(new ArrayList<>(Arrays.asList(
-                    new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                    new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2nd Jan 2024")),
-                    new RepayLoanTransaction(MoneyInt.fromCent(1250), new LoanDate("3rd Jan 2024"))
+                    new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                    new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-02")),
+                    new RepayLoanTransaction(MoneyInt.fromCent(1250), new LoanDate("2024-01-03"))
             )));
 
             assertEquals(MoneyInt.fromCent(1500), loanAmount.getTotalAmount());
@@ -43,9 +44,9 @@ public class LoanAmountTest {
         // affect the created LoanAmount object.
         {
             ArrayList<LoanTransaction> transactions = new ArrayList<>(Arrays.asList(
-                    new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                    new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2nd Jan 2024")),
-                    new RepayLoanTransaction(MoneyInt.fromCent(1250), new LoanDate("3rd Jan 2024"))
+                    new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                    new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-02")),
+                    new RepayLoanTransaction(MoneyInt.fromCent(1250), new LoanDate("2024-01-03"))
             ));
             LoanAmount loanAmount = new LoanAmount(transactions);
             transactions.clear();
@@ -59,7 +60,7 @@ public class LoanAmountTest {
         assertThrows(NullPointerException.class, () -> new LoanAmount(null));
         assertThrows(NullPointerException.class, () ->
                 new LoanAmount(new ArrayList<>(Arrays.asList(
-                        new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
+                        new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
                         null
                 ))));
     }
@@ -68,16 +69,16 @@ public class LoanAmountTest {
     public void constructor_invalidTransactions_throwsExcessRepaymentException() {
         // Balance gets negative at the end
         assertThrows(ExcessRepaymentException.class, () -> new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2nd Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(2000), new LoanDate("3rd Jan 2024"))
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-02")),
+                new RepayLoanTransaction(MoneyInt.fromCent(2000), new LoanDate("2024-01-03"))
         ))));
 
         // Balance gets negative in the middle, even though it gets positive at the end
         assertThrows(ExcessRepaymentException.class, () -> new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(1001), new LoanDate("2nd Jan 2024")),
-                new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("3rd Jan 2024"))
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(1001), new LoanDate("2024-01-02")),
+                new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-03"))
         ))));
     }
 
@@ -107,11 +108,37 @@ public class LoanAmountTest {
                 loanAmount.getTransactionHistoryCopy().get(4));
     }
 
+    @Test
+    public void getTransaction() {
+        LoanAmount loanAmount = TypicalLoanAmount.NON_EMPTY_LOAN_AMOUNT_NOT_FULLY_REPAID;
+
+        assertEquals(new RepayLoanTransaction(MoneyInt.fromCent(1500), new LoanDate("2024-01-03")),
+                loanAmount.getTransaction(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> loanAmount.getTransaction(5));
+    }
+
+    @Test
+    public void replaceAndDeleteTransaction_originalUnchanged() throws Exception {
+        LoanAmount loanAmount = TypicalLoanAmount.NON_EMPTY_LOAN_AMOUNT_NOT_FULLY_REPAID;
+        ArrayList<LoanTransaction> original = loanAmount.getTransactionHistoryCopy();
+
+        LoanAmount replaced = loanAmount.replaceTransaction(4,
+                new RepayLoanTransaction(MoneyInt.fromCent(71), new LoanDate("2025-12-31")));
+        assertEquals(MoneyInt.fromCent(10234), replaced.getRemainingAmount());
+
+        LoanAmount deleted = loanAmount.deleteTransaction(4);
+        assertEquals(MoneyInt.fromCent(10305), deleted.getRemainingAmount());
+        assertEquals(4, deleted.getTransactionsCount());
+
+        assertThrows(ExcessRepaymentException.class, () -> loanAmount.deleteTransaction(0));
+        assertEquals(original, loanAmount.getTransactionHistoryCopy());
+    }
+
     @Test
     public void appendTransaction_success() throws Exception {
-        LoanTransaction transaction1 = new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024"));
-        LoanTransaction transaction2 = new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2nd Jan 2024"));
-        LoanTransaction transaction3 = new RepayLoanTransaction(MoneyInt.fromCent(1200), new LoanDate("3rd Jan 2024"));
+        LoanTransaction transaction1 = new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01"));
+        LoanTransaction transaction2 = new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-02"));
+        LoanTransaction transaction3 = new RepayLoanTransaction(MoneyInt.fromCent(1200), new LoanDate("2024-01-03"));
         LoanAmount originalLoanAmount = new LoanAmount(new ArrayList<>(List.of(transaction1)));
         LoanAmount newLoanAmount = originalLoanAmount
                 .appendTransaction(transaction2)
@@ -130,7 +157,7 @@ public class LoanAmountTest {
         LoanAmount loanAmount = TypicalLoanAmount.NON_EMPTY_LOAN_AMOUNT_NOT_FULLY_REPAID;
         RepayLoanTransaction transaction = new RepayLoanTransaction(
                 MoneyInt.fromCent(loanAmount.getRemainingAmount().getValueTimesOneHundred() + 1),
-                new LoanDate("1st Jan 2024"));
+                new LoanDate("2024-01-01"));
 
         assertThrows(ExcessRepaymentException.class, () -> loanAmount.appendTransaction(transaction));
     }
@@ -145,16 +172,16 @@ public class LoanAmountTest {
     @Test
     public void equalsMethod() throws Exception {
         LoanAmount loanAmount = new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1500), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("1st Jan 2024")),
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024"))
+                new AddLoanTransaction(MoneyInt.fromCent(1500), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-01")),
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01"))
         )));
 
         // same values -> returns true
         assertTrue(loanAmount.equals(new LoanAmount()
-                .appendTransaction(new AddLoanTransaction(MoneyInt.fromCent(1500), new LoanDate("1st Jan 2024")))
-                .appendTransaction(new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("1st Jan 2024")))
-                .appendTransaction(new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")))
+                .appendTransaction(new AddLoanTransaction(MoneyInt.fromCent(1500), new LoanDate("2024-01-01")))
+                .appendTransaction(new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-01")))
+                .appendTransaction(new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")))
         ));
 
         // same object -> returns true
@@ -168,24 +195,24 @@ public class LoanAmountTest {
 
         // different values -> returns false
         assertFalse(loanAmount.equals(new LoanAmount(new ArrayList<>(List.of(
-                new AddLoanTransaction(MoneyInt.fromCent(1500), new LoanDate("1st Jan 2024")))))));
+                new AddLoanTransaction(MoneyInt.fromCent(1500), new LoanDate("2024-01-01")))))));
         assertFalse(loanAmount.equals(new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("1st Jan 2024")),
-                new AddLoanTransaction(MoneyInt.fromCent(1500), new LoanDate("1st Jan 2024"))
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-01")),
+                new AddLoanTransaction(MoneyInt.fromCent(1500), new LoanDate("2024-01-01"))
         )))));
     }
 
     @Test
     public void compareToMethod() throws Exception {
         LoanAmount loanAmount = new LoanAmount(new ArrayList<>(List.of(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")))));
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")))));
         LoanAmount less = new LoanAmount(new ArrayList<>(List.of(
-                new AddLoanTransaction(MoneyInt.fromCent(900), new LoanDate("1st Jan 2024")))));
+                new AddLoanTransaction(MoneyInt.fromCent(900), new LoanDate("2024-01-01")))));
         LoanAmount greater = new LoanAmount(new ArrayList<>(List.of(
-                new AddLoanTransaction(MoneyInt.fromCent(1001), new LoanDate("1st Jan 2024")))));
+                new AddLoanTransaction(MoneyInt.fromCent(1001), new LoanDate("2024-01-01")))));
         LoanAmount equal = new LoanAmount(new ArrayList<>(List.of(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2nd Feb 2222")))));
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2222-02-02")))));
         assertTrue(loanAmount.compareTo(less) > 0);
         assertTrue(loanAmount.compareTo(greater) < 0);
         assertEquals(0, loanAmount.compareTo(equal));
@@ -220,4 +247,58 @@ public class LoanAmountTest {
 
     }
      */
+
+    @Test
+    public void deferred_totalsUsed_historyLoadedOnceWhenNeeded() throws Exception {
+        ArrayList<LoanTransaction> transactions = new ArrayList<>(Arrays.asList(
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(250), new LoanDate("2024-01-02"))
+        ));
+        LoanAmount eager = new LoanAmount(transactions);
+        int[] loads = {0};
+        TransactionLog history = TransactionLog.of(transactions);
+        LoanAmount deferred = LoanAmount.deferred(MoneyInt.fromCent(1000), MoneyInt.fromCent(750), 2, () -> {
+            loads[0]++;
+            return history;
+        });
+
+        assertEquals(MoneyInt.fromCent(1000), deferred.getTotalAmount());
+        assertEquals(MoneyInt.fromCent(750), deferred.getRemainingAmount());
+        assertEquals(2, deferred.getTransactionsCount());
+        assertFalse(deferred.isRepaid());
+        assertEquals(0, deferred.compareTo(eager));
+        assertFalse(deferred.equals(new LoanAmount()));
+        assertEquals(0, loads[0]);
+
+        assertEquals(transactions.get(1), deferred.getTransaction(1));
+        assertEquals(eager, deferred);
+        assertEquals(eager.deleteTransaction(1), deferred.deleteTransaction(1));
+        assertEquals(1, loads[0]);
+        assertEquals(null, deferred.getHistoryLoader());
+    }
+
+    @Test
+    public void deferred_hashedAndPrinted_historyNotLoaded() throws Exception {
+        ArrayList<LoanTransaction> transactions = new ArrayList<>(Arrays.asList(
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01"))));
+        LoanAmount eager = new LoanAmount(transactions);
+        int[] loads = {0};
+        TransactionLog history = TransactionLog.of(transactions);
+        LoanAmount deferred = LoanAmount.deferred(MoneyInt.fromCent(1000), MoneyInt.fromCent(1000), 1, () -> {
+            loads[0]++;
+            return history;
+        });
+
+        assertEquals(eager.hashCode(), deferred.hashCode());
+        assertTrue(deferred.toString().contains("transactionsCount=1"));
+        assertEquals(0, loads[0]);
+    }
+
+    @Test
+    public void deferred_historyDoesNotMatchTotals_throwsIllegalStateException() {
+        LoanAmount deferred = LoanAmount.deferred(MoneyInt.fromCent(1000), MoneyInt.fromCent(1000), 1, () ->
+                TransactionLog.EMPTY);
+        assertThrows(IllegalStateException.class, LoanAmount.MESSAGE_HISTORY_MISMATCH, () ->
+                deferred.getTransaction(0));
+    }
 }
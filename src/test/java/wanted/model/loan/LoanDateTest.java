@@ -1,5 +1,6 @@
 package wanted.model.loan;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static wanted.testutil.Assert.assertThrows;
@@ -15,8 +16,9 @@ public class LoanDateTest {
 
     @Test
     public void constructor_invalidLoanDate_throwsIllegalArgumentException() {
-        String invalidLoanDate = "";
-        assertThrows(IllegalArgumentException.class, () -> new Email(invalidLoanDate));
+        assertThrows(IllegalArgumentException.class, () -> new LoanDate(""));
+        assertThrows(IllegalArgumentException.class, () -> new LoanDate("2025-02-30")); // day out of month
+        assertThrows(IllegalArgumentException.class, () -> new LoanDate("1st Jan 2024")); // not in YYYY-MM-DD
     }
 
     @Test
@@ -27,11 +29,30 @@ public class LoanDateTest {
         assertFalse(LoanDate.isValidLoanDate("")); //blank value
         assertFalse(LoanDate.isValidLoanDate("#2024-02-27!!")); // non-alphanumeric numbers
         assertFalse(LoanDate.isValidLoanDate("06-12")); //no year included
+        assertFalse(LoanDate.isValidLoanDate("2023-02-29")); //not a leap year
 
         //valid loan date
         assertTrue(LoanDate.isValidLoanDate("2025-02-28"));
         assertTrue(LoanDate.isValidLoanDate("2024-01-30"));
         assertTrue(LoanDate.isValidLoanDate("2023-12-19"));
+        assertTrue(LoanDate.isValidLoanDate("2024-02-29"));
+    }
+
+    @Test
+    public void ofEpochDay_roundTrip() {
+        LoanDate date = new LoanDate("2024-02-29");
+        assertEquals(19782, date.getEpochDay());
+        assertEquals(date, LoanDate.ofEpochDay(date.getEpochDay()));
+        assertEquals("2024-02-29", LoanDate.ofEpochDay(19782).toString());
+        assertEquals("1970-01-01", LoanDate.ofEpochDay(0).toString());
+    }
+
+    @Test
+    public void compareTo() {
+        LoanDate date = new LoanDate("2024-12-31");
+        assertTrue(date.compareTo(new LoanDate("2025-01-01")) < 0);
+        assertTrue(date.compareTo(new LoanDate("2024-01-31")) > 0);
+        assertEquals(0, date.compareTo(new LoanDate("2024-12-31")));
     }
 
     @Test
@@ -123,18 +123,18 @@ public class LoanTest {
         Name name = ALICE.getName();
         Set<Tag> tags = ALICE.getTags();
         LoanAmount amount = new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("3rd Jan 2024"))
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-03"))
         )));
         LoanAmount newAmount = new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("3rd Jan 2024")),
-                new AddLoanTransaction(MoneyInt.fromCent(2000), new LoanDate("5th Jan 2024"))
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-03")),
+                new AddLoanTransaction(MoneyInt.fromCent(2000), new LoanDate("2024-01-05"))
         )));
         Phone phone = ALICE.getPhone();
 
         Loan originalLoan = new Loan(name, amount, tags, phone);
-        Loan newLoan = originalLoan.addLoan(MoneyInt.fromCent(2000), new LoanDate("5th Jan 2024"));
+        Loan newLoan = originalLoan.addLoan(MoneyInt.fromCent(2000), new LoanDate("2024-01-05"));
 
         assertEquals(originalLoan, new Loan(name, amount, tags, phone));
         assertEquals(newLoan, new Loan(name, newAmount, tags, phone));
@@ -145,18 +145,18 @@ public class LoanTest {
         Name name = ALICE.getName();
         Set<Tag> tags = ALICE.getTags();
         LoanAmount amount = new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("3rd Jan 2024"))
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-03"))
         )));
         LoanAmount newAmount = new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("3rd Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("5th Jan 2024"))
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-03")),
+                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-05"))
         )));
         Phone phone = ALICE.getPhone();
 
         Loan originalLoan = new Loan(name, amount, tags, phone);
-        Loan newLoan = originalLoan.repayLoan(MoneyInt.fromCent(500), new LoanDate("5th Jan 2024"));
+        Loan newLoan = originalLoan.repayLoan(MoneyInt.fromCent(500), new LoanDate("2024-01-05"));
 
         assertEquals(originalLoan, new Loan(name, amount, tags, phone));
         assertEquals(newLoan, new Loan(name, newAmount, tags, phone));
@@ -167,13 +167,13 @@ public class LoanTest {
         Name name = ALICE.getName();
         Set<Tag> tags = ALICE.getTags();
         LoanAmount amount = new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("3rd Jan 2024"))
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-03"))
         )));
         Phone phone = ALICE.getPhone();
 
         assertThrows(ExcessRepaymentException.class, () ->
-                new Loan(name, amount, tags, phone).repayLoan(MoneyInt.fromCent(501), new LoanDate("5th Jan 2024")));
+                new Loan(name, amount, tags, phone).repayLoan(MoneyInt.fromCent(501), new LoanDate("2024-01-05")));
     }
 
     @Test
@@ -193,10 +193,10 @@ public class LoanTest {
         Set<Tag> tags = ALICE.getTags();
         Phone phone = ALICE.getPhone();
         Loan original = new Loan(name, new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("3rd Jan 2024"))))), tags, phone);
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-03"))))), tags, phone);
         Loan expected = new Loan(name, new LoanAmount(new ArrayList<>(List.of(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024"))))), tags, phone);
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01"))))), tags, phone);
 
         assertEquals(expected, original.deleteTransaction(Index.fromZeroBased(1)));
     }
@@ -207,9 +207,9 @@ public class LoanTest {
         Set<Tag> tags = ALICE.getTags();
         Phone phone = ALICE.getPhone();
         Loan loan = new Loan(name, new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2nd Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(600), new LoanDate("3rd Jan 2024"))))), tags, phone);
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-02")),
+                new RepayLoanTransaction(MoneyInt.fromCent(600), new LoanDate("2024-01-03"))))), tags, phone);
 
         assertThrows(ExcessRepaymentException.class, () ->
                 loan.deleteTransaction(Index.fromZeroBased(0)));
@@ -218,7 +218,7 @@ public class LoanTest {
     @Test
     public void replaceTransaction_nullArgs_throwsNullPointerException() {
         assertThrows(NullPointerException.class, () -> ALICE.replaceTransaction(null,
-                new AddLoanTransaction(MoneyInt.fromCent(0), new LoanDate("1st Jan 2024"))));
+                new AddLoanTransaction(MoneyInt.fromCent(0), new LoanDate("2024-01-01"))));
         assertThrows(NullPointerException.class, ()
                 -> ALICE.replaceTransaction(INDEX_FIRST_PERSON, null));
         assertThrows(NullPointerException.class, () -> ALICE.replaceTransaction(null, null));
@@ -228,7 +228,7 @@ public class LoanTest {
     public void replaceTransaction_invalidIndex_throwsIllegalArgumentException() {
         assertThrows(IllegalArgumentException.class, () ->
                 ALICE.replaceTransaction(Index.fromZeroBased(ALICE.getLoanAmount().getTransactionsCount()),
-                        new AddLoanTransaction(MoneyInt.fromCent(0), new LoanDate("1st Jan 2024"))));
+                        new AddLoanTransaction(MoneyInt.fromCent(0), new LoanDate("2024-01-01"))));
     }
 
     @Test
@@ -237,21 +237,21 @@ public class LoanTest {
         Set<Tag> tags = ALICE.getTags();
         Phone phone = ALICE.getPhone();
         Loan original = new Loan(name, new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2nd Jan 2024")),
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("3rd Jan 2024"))))), tags, phone);
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-02")),
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-03"))))), tags, phone);
         Loan expected = new Loan(name, new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(800), new LoanDate("2nd Feb 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(200), new LoanDate("3rd Mar 2024"))))), tags, phone);
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(800), new LoanDate("2024-02-02")),
+                new RepayLoanTransaction(MoneyInt.fromCent(200), new LoanDate("2024-03-03"))))), tags, phone);
 
         assertEquals(expected, original
                 // replace by a transaction of the same type
                 .replaceTransaction(INDEX_SECOND_PERSON,
-                        new RepayLoanTransaction(MoneyInt.fromCent(800), new LoanDate("2nd Feb 2024")))
+                        new RepayLoanTransaction(MoneyInt.fromCent(800), new LoanDate("2024-02-02")))
                 // replace by a transaction of a different type
                 .replaceTransaction(INDEX_THIRD_PERSON,
-                        new RepayLoanTransaction(MoneyInt.fromCent(200), new LoanDate("3rd Mar 2024"))));
+                        new RepayLoanTransaction(MoneyInt.fromCent(200), new LoanDate("2024-03-03"))));
     }
 
     @Test
@@ -260,12 +260,12 @@ public class LoanTest {
         Set<Tag> tags = ALICE.getTags();
         Phone phone = ALICE.getPhone();
         Loan loan = new Loan(name, new LoanAmount(new ArrayList<>(Arrays.asList(
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("1st Jan 2024")),
-                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2nd Jan 2024")),
-                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("3rd Jan 2024"))))), tags, phone);
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")),
+                new RepayLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-02")),
+                new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-03"))))), tags, phone);
 
         assertThrows(ExcessRepaymentException.class, () ->
                 loan.replaceTransaction(INDEX_SECOND_PERSON,
-                        new RepayLoanTransaction(MoneyInt.fromCent(1100), new LoanDate("2nd Jan 2024"))));
+                        new RepayLoanTransaction(MoneyInt.fromCent(1100), new LoanDate("2024-01-02"))));
     }
 }
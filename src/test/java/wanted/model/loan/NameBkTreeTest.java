@@ -0,0 +1,91 @@
+package wanted.model.loan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class NameBkTreeTest {
+
+    private static final String[] SYLLABLES = {"al", "ex", "yeo", "ber", "nice", "li", "roy", "da", "vid", "han"};
+
+    @Test
+    public void editDistance() {
+        assertEquals(0, NameBkTree.editDistance("alex", "alex"));
+        assertEquals(2, NameBkTree.editDistance("alex", "aelx"));
+        assertEquals(1, NameBkTree.editDistance("alex", "alx"));
+        assertEquals(1, NameBkTree.editDistance("alex", "alexa"));
+        assertEquals(4, NameBkTree.editDistance("", "alex"));
+        assertEquals(3, NameBkTree.editDistance("kitten", "sitting"));
+    }
+
+    @Test
+    public void namesWithWordWithin_matchesScanOfNames() {
+        NameBkTree tree = new NameBkTree();
+        List<Name> names = randomNames(new Random(1), 500);
+        names.forEach(tree::add);
+
+        for (String keyword : List.of("Alex", "yoe", "nicee", "vidhan", "qqqq", "a")) {
+            for (int maxDistance = 0; maxDistance <= 3; maxDistance++) {
+                assertEquals(scan(names, keyword, maxDistance), tree.namesWithWordWithin(keyword, maxDistance),
+                        keyword + " within " + maxDistance);
+            }
+        }
+    }
+
+    @Test
+    public void remove_manyNames_matchesScanOfRemainingNames() {
+        NameBkTree tree = new NameBkTree();
+        Random random = new Random(2);
+        List<Name> names = randomNames(random, 3000);
+        names.forEach(tree::add);
+
+        // enough removals to build the tree again more than once
+        List<Name> remaining = new ArrayList<>(names);
+        for (int i = 0; i < 2500; i++) {
+            tree.remove(remaining.remove(random.nextInt(remaining.size())));
+        }
+
+        for (String keyword : List.of("alx", "nice", "royda", "vidd")) {
+            assertEquals(scan(remaining, keyword, 1), tree.namesWithWordWithin(keyword, 1), keyword);
+        }
+    }
+
+    private static List<Name> randomNames(Random random, int count) {
+        List<Name> names = new ArrayList<>();
+        Set<Name> seen = new HashSet<>();
+        while (names.size() < count) {
+            StringBuilder name = new StringBuilder();
+            for (int words = 1 + random.nextInt(3); words > 0; words--) {
+                StringBuilder word = new StringBuilder();
+                for (int syllables = 1 + random.nextInt(3); syllables > 0; syllables--) {
+                    word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+                }
+                word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+                name.append(name.length() == 0 ? "" : " ").append(word);
+            }
+            Name candidate = new Name(name.toString());
+            if (seen.add(candidate)) {
+                names.add(candidate);
+            }
+        }
+        return names;
+    }
+
+    private static Set<Name> scan(List<Name> names, String keyword, int maxDistance) {
+        Set<Name> result = new HashSet<>();
+        for (Name name : names) {
+            for (String word : name.fullName.toLowerCase().split(" ")) {
+                if (NameBkTree.editDistance(word, keyword.toLowerCase()) <= maxDistance) {
+                    result.add(name);
+                }
+            }
+        }
+        return result;
+    }
+}
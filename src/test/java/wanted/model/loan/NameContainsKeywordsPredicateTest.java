@@ -76,6 +76,16 @@ public class NameContainsKeywordsPredicateTest {
                 .build()));
     }
 
+    @Test
+    public void match_countsPartialMatches() {
+        NameContainsKeywordsPredicate predicate = new NameContainsKeywordsPredicate(Arrays.asList("ali", "Bob", "x"));
+        assertEquals(2, predicate.match(new PersonBuilder().withName("Alice Bob").build()).getFoundCount());
+        assertEquals(1, predicate.match(new PersonBuilder().withName("Alice Tan").build()).getFoundCount());
+        assertFalse(predicate.test(new PersonBuilder().withName("Alice Tan").build()));
+        assertEquals(predicate.hashCode(),
+                new NameContainsKeywordsPredicate(Arrays.asList("ali", "Bob", "x")).hashCode());
+    }
+
     @Test
     public void toStringMethod() {
         List<String> keywords = List.of("keyword1", "keyword2");
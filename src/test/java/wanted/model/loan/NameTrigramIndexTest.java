@@ -0,0 +1,105 @@
+package wanted.model.loan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class NameTrigramIndexTest {
+
+    private static final String[] SYLLABLES = {"al", "ex", "yeo", "ber", "nice", "li", "roy", "da", "vid", "han"};
+
+    @Test
+    public void namesContaining_matchesScanOfNames() {
+        NameTrigramIndex index = new NameTrigramIndex();
+        List<Name> names = randomNames(new Random(1), 500);
+        names.forEach(index::add);
+
+        for (String keyword : List.of("a", "Al", "yeo", "YEOH", "exa", "berni", "vidhan", "zzz", "li roy", "ll")) {
+            assertEquals(scan(names, keyword), index.namesContaining(keyword), keyword);
+        }
+    }
+
+    @Test
+    public void namesContaining_repeatedTrigram_listedOnce() {
+        NameTrigramIndex index = new NameTrigramIndex();
+        Name name = new Name("Anana Nanana");
+        index.add(name);
+
+        assertEquals(List.of(name), index.namesContaining("nanan"));
+        assertEquals(List.of(name), index.namesContaining("ana"));
+    }
+
+    @Test
+    public void remove_nameNoLongerFound() {
+        NameTrigramIndex index = new NameTrigramIndex();
+        Name alice = new Name("Alice Pauline");
+        Name alicia = new Name("Alicia Tan");
+        index.add(alice);
+        index.add(alicia);
+
+        index.remove(alice);
+        assertFalse(index.contains(alice));
+        assertEquals(List.of(alicia), index.namesContaining("alic"));
+
+        index.add(alice);
+        assertTrue(index.contains(alice));
+        assertEquals(List.of(alicia, alice), index.namesContaining("alic"));
+    }
+
+    @Test
+    public void remove_manyNames_matchesScanOfRemainingNames() {
+        NameTrigramIndex index = new NameTrigramIndex();
+        Random random = new Random(2);
+        List<Name> names = randomNames(random, 3000);
+        names.forEach(index::add);
+
+        // enough removals to clean up the removed slots more than once
+        List<Name> remaining = new ArrayList<>(names);
+        for (int i = 0; i < 2500; i++) {
+            index.remove(remaining.remove(random.nextInt(remaining.size())));
+        }
+
+        for (String keyword : List.of("al", "nice", "royda", "exal", "vid")) {
+            List<Name> expected = scan(remaining, keyword);
+            List<Name> actual = index.namesContaining(keyword);
+            assertEquals(expected.size(), actual.size(), keyword);
+            assertTrue(actual.containsAll(expected), keyword);
+        }
+    }
+
+    private static List<Name> randomNames(Random random, int count) {
+        List<Name> names = new ArrayList<>();
+        while (names.size() < count) {
+            StringBuilder name = new StringBuilder();
+            for (int words = 1 + random.nextInt(3); words > 0; words--) {
+                StringBuilder word = new StringBuilder();
+                for (int syllables = 1 + random.nextInt(3); syllables > 0; syllables--) {
+                    word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+                }
+                word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+                name.append(name.length() == 0 ? "" : " ").append(word);
+            }
+            Name candidate = new Name(name.toString());
+            if (!names.contains(candidate)) {
+                names.add(candidate);
+            }
+        }
+        return names;
+    }
+
+    private static List<Name> scan(List<Name> names, String keyword) {
+        List<Name> result = new ArrayList<>();
+        for (Name name : names) {
+            if (name.fullName.toLowerCase().contains(keyword.toLowerCase())) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+}
@@ -6,14 +6,19 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static wanted.logic.commands.CommandTestUtil.VALID_TAG_HUSBAND;
 import static wanted.testutil.Assert.assertThrows;
 import static wanted.testutil.TypicalPersons.ALICE;
+import static wanted.testutil.TypicalPersons.BENSON;
 import static wanted.testutil.TypicalPersons.BOB;
+import static wanted.testutil.TypicalPersons.CARL;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import wanted.commons.util.PhoneticEncoder;
 import wanted.model.loan.exceptions.DuplicateLoanException;
 import wanted.model.loan.exceptions.LoanNotFoundException;
 import wanted.testutil.PersonBuilder;
@@ -127,6 +132,28 @@ public class UniqueLoanListTest {
         assertEquals(expectedUniqueLoanList, uniqueLoanList);
     }
 
+    @Test
+    public void remove_existingPerson_keepsLaterPersonsReachable() {
+        uniqueLoanList.add(ALICE);
+        uniqueLoanList.add(BENSON);
+        uniqueLoanList.add(CARL);
+        uniqueLoanList.remove(ALICE);
+
+        assertFalse(uniqueLoanList.contains(ALICE));
+        uniqueLoanList.setPerson(CARL, BOB);
+        uniqueLoanList.remove(BENSON);
+        UniqueLoanList expectedUniqueLoanList = new UniqueLoanList();
+        expectedUniqueLoanList.add(BOB);
+        assertEquals(expectedUniqueLoanList, uniqueLoanList);
+    }
+
+    @Test
+    public void remove_personWithSameIdentityButDifferentFields_throwsPersonNotFoundException() {
+        uniqueLoanList.add(ALICE);
+        Loan editedAlice = new PersonBuilder(ALICE).withTags(VALID_TAG_HUSBAND).build();
+        assertThrows(LoanNotFoundException.class, () -> uniqueLoanList.remove(editedAlice));
+    }
+
     @Test
     public void setPersons_nullUniquePersonList_throwsNullPointerException() {
         assertThrows(NullPointerException.class, () -> uniqueLoanList.setPersons((UniqueLoanList) null));
@@ -172,4 +199,55 @@ public class UniqueLoanListTest {
     public void toStringMethod() {
         assertEquals(uniqueLoanList.asUnmodifiableObservableList().toString(), uniqueLoanList.toString());
     }
+
+    @Test
+    public void positionsWithNameContaining_listChanged_sameAsScan() {
+        uniqueLoanList.setPersons(Arrays.asList(ALICE, BENSON, CARL));
+        assertNamePositionsMatchScan();
+
+        uniqueLoanList.remove(ALICE);
+        uniqueLoanList.add(new PersonBuilder().withName("Alicia Meier").build());
+        uniqueLoanList.setPerson(CARL, new PersonBuilder(CARL).withName("Carla Kurz").build());
+        assertNamePositionsMatchScan();
+
+        List<Loan> reversed = new ArrayList<>(uniqueLoanList.asUnmodifiableObservableList());
+        Collections.reverse(reversed);
+        uniqueLoanList.setPersons(reversed);
+        assertNamePositionsMatchScan();
+
+        UniqueLoanList replacement = new UniqueLoanList();
+        replacement.setPersons(Arrays.asList(BOB, ALICE));
+        uniqueLoanList.setPersons(replacement);
+        assertNamePositionsMatchScan();
+    }
+
+    private void assertNamePositionsMatchScan() {
+        List<Loan> loans = uniqueLoanList.asUnmodifiableObservableList();
+        for (String keyword : List.of("ali", "MEIER", "carl", "kurz", "e", "bob")) {
+            BitSet expected = new BitSet();
+            for (int i = 0; i < loans.size(); i++) {
+                expected.set(i, loans.get(i).getName().fullName.toLowerCase().contains(keyword.toLowerCase()));
+            }
+            assertEquals(expected, uniqueLoanList.positionsWithNameContaining(keyword), keyword);
+        }
+        for (String keyword : List.of("alica", "meir", "karl", "bbo")) {
+            BitSet expected = new BitSet();
+            for (int i = 0; i < loans.size(); i++) {
+                for (String word : loans.get(i).getName().fullName.toLowerCase().split(" ")) {
+                    expected.set(i, expected.get(i) || NameBkTree.editDistance(word, keyword) <= 1);
+                }
+            }
+            assertEquals(expected, uniqueLoanList.positionsWithNameWordWithin(keyword, 1), keyword);
+        }
+        for (String keyword : List.of("Alyce", "Meyer", "Karl", "Kurtz", "Bob")) {
+            BitSet expected = new BitSet();
+            for (int i = 0; i < loans.size(); i++) {
+                for (String word : loans.get(i).getName().fullName.split(" ")) {
+                    expected.set(i, expected.get(i)
+                            || PhoneticEncoder.encode(word).equals(PhoneticEncoder.encode(keyword)));
+                }
+            }
+            assertEquals(expected, uniqueLoanList.positionsWithNameSoundingLike(keyword), keyword);
+        }
+    }
 }
@@ -13,8 +13,8 @@ import wanted.model.loan.LoanDate;
 public class AddLoanTransactionTest {
     private static final MoneyInt VALID_AMOUNT = MoneyInt.fromDollarAndCent(10, 50);
     private static final MoneyInt VALID_AMOUNT_2 = MoneyInt.fromDollarAndCent(0, 0);
-    private static final LoanDate VALID_DATE = new LoanDate("1 Jan 2025");
-    private static final LoanDate VALID_DATE_2 = new LoanDate("2 Jan 2025");
+    private static final LoanDate VALID_DATE = new LoanDate("2025-01-01");
+    private static final LoanDate VALID_DATE_2 = new LoanDate("2025-01-02");
 
     @Test
     public void constructor_validInput_success() {
@@ -33,7 +33,7 @@ public class AddLoanTransactionTest {
     @Test
     public void getExplanation() {
         final AddLoanTransaction transaction = new AddLoanTransaction(VALID_AMOUNT, VALID_DATE);
-        final String expected = "$10.50 loaned on 1 Jan 2025";
+        final String expected = "$10.50 loaned on 2025-01-01";
         assertEquals(expected, transaction.getExplanation());
     }
 
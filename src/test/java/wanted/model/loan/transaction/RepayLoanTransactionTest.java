@@ -14,8 +14,8 @@ import wanted.model.loan.exceptions.ExcessRepaymentException;
 public class RepayLoanTransactionTest {
     private static final MoneyInt VALID_AMOUNT = MoneyInt.fromDollarAndCent(10, 50);
     private static final MoneyInt VALID_AMOUNT_2 = MoneyInt.fromDollarAndCent(0, 0);
-    private static final LoanDate VALID_DATE = new LoanDate("1 Jan 2025");
-    private static final LoanDate VALID_DATE_2 = new LoanDate("2 Jan 2025");
+    private static final LoanDate VALID_DATE = new LoanDate("2025-01-01");
+    private static final LoanDate VALID_DATE_2 = new LoanDate("2025-01-02");
 
     @Test
     public void constructor_validInput_success() {
@@ -34,7 +34,7 @@ public class RepayLoanTransactionTest {
     @Test
     public void getExplanation() {
         final RepayLoanTransaction transaction = new RepayLoanTransaction(VALID_AMOUNT, VALID_DATE);
-        final String expected = "$10.50 repaid on 1 Jan 2025";
+        final String expected = "$10.50 repaid on 2025-01-01";
         assertEquals(expected, transaction.getExplanation());
     }
 
@@ -0,0 +1,203 @@
+package wanted.model.loan.transaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static wanted.testutil.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import wanted.commons.core.datatypes.MoneyInt;
+import wanted.model.loan.LoanDate;
+import wanted.model.loan.exceptions.ExcessRepaymentException;
+
+public class TransactionLogTest {
+    private static final LoanTransaction ADD_1000 =
+            new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01"));
+    private static final LoanTransaction ADD_500 =
+            new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-02"));
+    private static final LoanTransaction REPAY_1200 =
+            new RepayLoanTransaction(MoneyInt.fromCent(1200), new LoanDate("2024-01-03"));
+
+    @Test
+    public void empty() {
+        assertEquals(0, TransactionLog.EMPTY.size());
+        assertEquals(MoneyInt.fromCent(0), TransactionLog.EMPTY.getTotalAmount());
+        assertEquals(MoneyInt.fromCent(0), TransactionLog.EMPTY.getRemainingAmount());
+        assertTrue(TransactionLog.EMPTY.toArrayList().isEmpty());
+    }
+
+    @Test
+    public void append_carriesTotalsForward() throws Exception {
+        TransactionLog log = TransactionLog.EMPTY.append(ADD_1000).append(ADD_500).append(REPAY_1200);
+
+        assertEquals(3, log.size());
+        assertEquals(MoneyInt.fromCent(1500), log.getTotalAmount());
+        assertEquals(MoneyInt.fromCent(300), log.getRemainingAmount());
+        assertEquals(new ArrayList<>(List.of(ADD_1000, ADD_500, REPAY_1200)), log.toArrayList());
+    }
+
+    @Test
+    public void append_sharedPrefix_originalUnchanged() throws Exception {
+        TransactionLog prefix = TransactionLog.EMPTY.append(ADD_1000);
+        TransactionLog first = prefix.append(ADD_500);
+        TransactionLog second = prefix.append(ADD_1000);
+
+        assertEquals(new ArrayList<>(List.of(ADD_1000)), prefix.toArrayList());
+        assertEquals(new ArrayList<>(List.of(ADD_1000, ADD_500)), first.toArrayList());
+        assertEquals(new ArrayList<>(List.of(ADD_1000, ADD_1000)), second.toArrayList());
+    }
+
+    @Test
+    public void append_excessRepayment_throwsExcessRepaymentException() throws Exception {
+        TransactionLog log = TransactionLog.EMPTY.append(ADD_1000);
+        assertThrows(ExcessRepaymentException.class, () -> log.append(REPAY_1200));
+        assertThrows(NullPointerException.class, () -> log.append(null));
+    }
+
+    @Test
+    public void of_matchesRepeatedAppend() throws Exception {
+        List<LoanTransaction> transactions = new ArrayList<>();
+        TransactionLog appended = TransactionLog.EMPTY;
+        for (int i = 0; i < 37; i++) {
+            LoanTransaction transaction = i % 3 == 2 ? REPAY_1200 : ADD_1000;
+            transactions.add(transaction);
+            appended = appended.append(transaction);
+        }
+        TransactionLog built = TransactionLog.of(transactions);
+
+        assertEquals(appended, built);
+        assertEquals(transactions, built.toArrayList());
+        assertEquals(REPAY_1200, built.get(35));
+        assertEquals(ADD_1000, built.get(36));
+    }
+
+    @Test
+    public void of_balanceNegativeInTheMiddle_throwsExcessRepaymentException() {
+        assertThrows(ExcessRepaymentException.class, () -> TransactionLog.of(List.of(ADD_1000, REPAY_1200, ADD_500)));
+    }
+
+    @Test
+    public void set_success() throws Exception {
+        TransactionLog log = TransactionLog.of(List.of(ADD_1000, ADD_500, REPAY_1200));
+        TransactionLog edited = log.set(1, ADD_1000);
+
+        assertEquals(new ArrayList<>(List.of(ADD_1000, ADD_1000, REPAY_1200)), edited.toArrayList());
+        assertEquals(MoneyInt.fromCent(2000), edited.getTotalAmount());
+        assertEquals(MoneyInt.fromCent(800), edited.getRemainingAmount());
+
+        // original log should remain unchanged
+        assertEquals(new ArrayList<>(List.of(ADD_1000, ADD_500, REPAY_1200)), log.toArrayList());
+    }
+
+    @Test
+    public void set_invalid_throwsException() throws Exception {
+        TransactionLog log = TransactionLog.of(List.of(ADD_1000, ADD_500, REPAY_1200, ADD_500));
+
+        // balance gets negative in the middle, even though it gets positive at the end
+        assertThrows(ExcessRepaymentException.class, () -> log.set(1, REPAY_1200));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.set(4, ADD_500));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.set(-1, ADD_500));
+    }
+
+    @Test
+    public void remove_success() throws Exception {
+        TransactionLog log = TransactionLog.of(List.of(ADD_1000, ADD_500, REPAY_1200, ADD_500));
+        TransactionLog removed = log.remove(3);
+
+        assertEquals(new ArrayList<>(List.of(ADD_1000, ADD_500, REPAY_1200)), removed.toArrayList());
+        assertEquals(MoneyInt.fromCent(300), removed.getRemainingAmount());
+
+        // appending after a removal fills the history from the back
+        assertEquals(new ArrayList<>(List.of(ADD_1000, ADD_500, REPAY_1200, ADD_1000)),
+                removed.append(ADD_1000).toArrayList());
+
+        // removing most of the transactions keeps the order of the remaining ones
+        TransactionLog fewer = TransactionLog.of(List.of(ADD_1000, ADD_500, ADD_500, ADD_1000, REPAY_1200, ADD_500))
+                .remove(5).remove(2).remove(1);
+        assertEquals(new ArrayList<>(List.of(ADD_1000, ADD_1000, REPAY_1200)), fewer.toArrayList());
+        assertEquals(new ArrayList<>(List.of(ADD_1000, ADD_1000, REPAY_1200, ADD_500)),
+                fewer.append(ADD_500).toArrayList());
+
+        assertEquals(0, log.remove(3).remove(2).remove(1).remove(0).size());
+        assertThrows(ExcessRepaymentException.class, () -> log.remove(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.remove(4));
+    }
+
+    @Test
+    public void randomUpdates_matchListReplay() throws Exception {
+        Random random = new Random(2103);
+        List<LoanTransaction> expected = new ArrayList<>();
+        TransactionLog log = TransactionLog.EMPTY;
+        for (int step = 0; step < 2000; step++) {
+            LoanTransaction transaction = random.nextBoolean()
+                    ? new AddLoanTransaction(MoneyInt.fromCent(random.nextInt(1000)), new LoanDate("2024-01-01"))
+                    : new RepayLoanTransaction(MoneyInt.fromCent(random.nextInt(1000)), new LoanDate("2024-01-01"));
+            List<LoanTransaction> candidate = new ArrayList<>(expected);
+            int operation = expected.isEmpty() ? 0 : random.nextInt(3);
+            int index = expected.isEmpty() ? 0 : random.nextInt(expected.size());
+            if (operation == 0) {
+                candidate.add(transaction);
+            } else if (operation == 1) {
+                candidate.set(index, transaction);
+            } else {
+                candidate.remove(index);
+            }
+
+            TransactionLog updated;
+            try {
+                updated = operation == 0 ? log.append(transaction)
+                        : operation == 1 ? log.set(index, transaction)
+                        : log.remove(index);
+            } catch (ExcessRepaymentException e) {
+                assertThrows(ExcessRepaymentException.class, () -> replay(candidate));
+                continue;
+            }
+            expected = candidate;
+            log = updated;
+            TransactionLog replayed = replay(expected);
+            assertEquals(expected, log.toArrayList());
+            assertEquals(replayed.getTotalAmount(), log.getTotalAmount());
+            assertEquals(replayed.getRemainingAmount(), log.getRemainingAmount());
+        }
+    }
+
+    /**
+     * Builds a log by appending the given transactions one by one.
+     */
+    private static TransactionLog replay(List<LoanTransaction> transactions) throws ExcessRepaymentException {
+        TransactionLog log = TransactionLog.EMPTY;
+        for (LoanTransaction transaction : transactions) {
+            log = log.append(transaction);
+        }
+        return log;
+    }
+
+    @Test
+    public void equals() throws Exception {
+        TransactionLog log = TransactionLog.EMPTY.append(ADD_1000).append(ADD_500);
+
+        // same values, no shared nodes -> returns true
+        TransactionLog sameValues = TransactionLog.EMPTY
+                .append(new AddLoanTransaction(MoneyInt.fromCent(1000), new LoanDate("2024-01-01")))
+                .append(new AddLoanTransaction(MoneyInt.fromCent(500), new LoanDate("2024-01-02")));
+        assertTrue(log.equals(sameValues));
+        assertEquals(log.hashCode(), sameValues.hashCode());
+
+        // same object -> returns true
+        assertTrue(log.equals(log));
+
+        // null -> returns false
+        assertFalse(log.equals(null));
+
+        // different order -> returns false
+        assertFalse(log.equals(TransactionLog.EMPTY.append(ADD_500).append(ADD_1000)));
+
+        // different length -> returns false
+        assertFalse(log.equals(TransactionLog.EMPTY.append(ADD_1000)));
+    }
+}
@@ -0,0 +1,68 @@
+package wanted.model.tag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static wanted.testutil.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class TagSetTest {
+
+    private static final Tag FRIENDS = new Tag("friends");
+    private static final Tag OWES_MONEY = new Tag("owesMoney");
+    private static final Tag COLLEAGUE = new Tag("colleague");
+
+    @Test
+    public void equals_sameTagsAsOtherSet_equalWithSameHashCode() {
+        TagSet tagSet = TagSet.of(Set.of(FRIENDS, OWES_MONEY));
+        Set<Tag> hashSet = new HashSet<>(List.of(OWES_MONEY, FRIENDS));
+
+        assertEquals(hashSet, tagSet);
+        assertEquals(tagSet, hashSet);
+        assertEquals(hashSet.hashCode(), tagSet.hashCode());
+        assertEquals(TagSet.of(hashSet), tagSet);
+        assertFalse(tagSet.equals(TagSet.of(FRIENDS)));
+        assertEquals(TagSet.EMPTY, TagSet.of(Set.of()));
+    }
+
+    @Test
+    public void of_tagSet_sameInstance() {
+        TagSet tagSet = TagSet.of(FRIENDS);
+        assertSame(tagSet, TagSet.of(tagSet));
+    }
+
+    @Test
+    public void containsAll_tagSets_bitmaskResult() {
+        // enough tags to need more than one word
+        List<Tag> manyTags = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            manyTags.add(new Tag("tag" + i));
+        }
+        TagSet all = TagSet.of(manyTags);
+        TagSet some = TagSet.of(manyTags.get(3), manyTags.get(99));
+
+        assertEquals(100, all.size());
+        assertTrue(all.containsAll(some));
+        assertFalse(some.containsAll(all));
+        assertTrue(all.containsAll(TagSet.EMPTY));
+        assertFalse(all.containsAll(TagSet.of(FRIENDS)));
+        assertTrue(some.contains(manyTags.get(99)));
+        assertFalse(some.contains(manyTags.get(98)));
+        assertEquals(new HashSet<>(List.of(manyTags.get(3), manyTags.get(99))), new HashSet<>(some));
+    }
+
+    @Test
+    public void modify_throwsUnsupportedOperationException() {
+        TagSet tagSet = TagSet.of(FRIENDS);
+        assertThrows(UnsupportedOperationException.class, () -> tagSet.add(COLLEAGUE));
+        assertThrows(UnsupportedOperationException.class, () -> tagSet.remove(FRIENDS));
+        assertThrows(UnsupportedOperationException.class, tagSet::clear);
+    }
+}
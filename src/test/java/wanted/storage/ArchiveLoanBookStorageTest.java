@@ -0,0 +1,105 @@
+package wanted.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static wanted.testutil.Assert.assertThrows;
+import static wanted.testutil.TypicalPersons.ALICE;
+import static wanted.testutil.TypicalPersons.HOON;
+import static wanted.testutil.TypicalPersons.getTypicalLoanBook;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import wanted.commons.exceptions.DataLoadingException;
+import wanted.model.LoanBook;
+import wanted.model.ReadOnlyLoanBook;
+import wanted.model.loan.Loan;
+import wanted.testutil.PersonBuilder;
+
+public class ArchiveLoanBookStorageTest {
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void readLoanBook_missingFile_emptyResult() throws Exception {
+        assertFalse(new ArchiveLoanBookStorage(testFolder.resolve("missing.archive")).readLoanBook().isPresent());
+    }
+
+    @Test
+    public void readAndSaveLoanBook_allInOrder_success() throws Exception {
+        Path filePath = testFolder.resolve("folder").resolve("loanbook.archive");
+        LoanBook original = getTypicalLoanBook();
+        ArchiveLoanBookStorage storage = new ArchiveLoanBookStorage(filePath);
+
+        storage.saveLoanBook(original);
+        ReadOnlyLoanBook archived = storage.readLoanBook().get();
+        assertEquals(original, new LoanBook(archived));
+
+        // replacing the archive leaves the one already open as it was
+        LoanBook modified = getTypicalLoanBook();
+        modified.addPerson(HOON);
+        modified.removePerson(ALICE);
+        storage.saveLoanBook(modified);
+        assertEquals(original, new LoanBook(archived));
+        assertEquals(modified, new LoanBook(storage.readLoanBook().get()));
+
+        storage.saveLoanBook(new LoanBook());
+        assertEquals(new LoanBook(), new LoanBook(storage.readLoanBook().get()));
+    }
+
+    @Test
+    public void readLoanBook_loansAccessedOutOfOrder_decodedIndividually() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.archive");
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            loans.add(new PersonBuilder().withName("Person " + i).withTags("tag" + (i % 7)).build());
+        }
+        MappedLoanBookArchive.write(loans, filePath);
+
+        MappedLoanBookArchive archive = MappedLoanBookArchive.open(filePath);
+        assertEquals(3000, archive.size());
+        assertEquals(loans.get(2999), archive.getPersonList().get(2999));
+        assertEquals(loans.get(0), archive.getPersonList().get(0));
+        assertEquals(loans.get(1234), archive.getPersonList().get(1234));
+        assertTrue(archive.getPersonList().get(5).getLoanAmount().getHistoryLoader() != null);
+        assertThrows(IndexOutOfBoundsException.class, () -> archive.getPersonList().get(3000));
+        assertThrows(UnsupportedOperationException.class, () -> archive.getPersonList().remove(0));
+    }
+
+    @Test
+    public void readLoanBook_notAnArchive_throwsDataLoadingException() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        new JsonLoanBookStorage(filePath).saveLoanBook(getTypicalLoanBook());
+        assertThrows(DataLoadingException.class, () -> new ArchiveLoanBookStorage(filePath).readLoanBook());
+
+        Files.write(filePath, new byte[0]);
+        assertThrows(DataLoadingException.class, () -> new ArchiveLoanBookStorage(filePath).readLoanBook());
+    }
+
+    @Test
+    public void readLoanBook_corruptedIndex_failsOnAccess() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.archive");
+        MappedLoanBookArchive.write(getTypicalLoanBook().getPersonList(), filePath);
+        byte[] content = Files.readAllBytes(filePath);
+
+        // the offset of the second loan points past the end of the file
+        ByteBuffer.wrap(content).putLong(16 + Long.BYTES, content.length + 1L);
+        Files.write(filePath, content);
+        ReadOnlyLoanBook archived = new ArchiveLoanBookStorage(filePath).readLoanBook().get();
+        assertThrows(IllegalStateException.class, MappedLoanBookArchive.MESSAGE_CORRUPTED, () ->
+                archived.getPersonList().get(1));
+
+        // a loan count larger than the file can index
+        ByteBuffer.wrap(content).putLong(8, content.length);
+        Files.write(filePath, content);
+        assertThrows(DataLoadingException.class, () -> new ArchiveLoanBookStorage(filePath).readLoanBook());
+    }
+}
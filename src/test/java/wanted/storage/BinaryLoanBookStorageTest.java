@@ -0,0 +1,234 @@
+package wanted.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static wanted.testutil.Assert.assertThrows;
+import static wanted.testutil.TypicalPersons.ALICE;
+import static wanted.testutil.TypicalPersons.HOON;
+import static wanted.testutil.TypicalPersons.getTypicalLoanBook;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import wanted.commons.core.datatypes.Index;
+import wanted.commons.core.datatypes.MoneyInt;
+import wanted.commons.exceptions.DataLoadingException;
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.model.LoanBook;
+import wanted.model.loan.Loan;
+import wanted.model.loan.LoanAmount;
+import wanted.model.loan.LoanDate;
+import wanted.model.loan.Phone;
+import wanted.model.loan.transaction.AddLoanTransaction;
+import wanted.testutil.PersonBuilder;
+
+public class BinaryLoanBookStorageTest {
+
+    private static final Path TEST_DATA_FOLDER = Paths.get("src", "test", "data", "JsonLoanBookStorageTest");
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void readLoanBook_missingFile_emptyResult() throws Exception {
+        assertFalse(new BinaryLoanBookStorage(testFolder.resolve("missing.bin")).readLoanBook().isPresent());
+    }
+
+    @Test
+    public void readAndSaveLoanBook_allInOrder_success() throws Exception {
+        Path filePath = testFolder.resolve("folder").resolve("loanbook.bin");
+        LoanBook original = getTypicalLoanBook();
+        BinaryLoanBookStorage storage = new BinaryLoanBookStorage(filePath);
+
+        storage.saveLoanBook(original);
+        assertTrue(BinaryLoanBookStorage.isBinaryFile(filePath));
+        assertEquals(original, new LoanBook(storage.readLoanBook().get()));
+
+        original.addPerson(HOON);
+        original.removePerson(ALICE);
+        storage.saveLoanBook(original);
+        assertEquals(original, new LoanBook(storage.readLoanBook().get()));
+    }
+
+    @Test
+    public void readLoanBook_jsonFile_readAsJson() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        LoanBook original = getTypicalLoanBook();
+        new JsonLoanBookStorage(filePath).saveLoanBook(original);
+
+        BinaryLoanBookStorage storage = new BinaryLoanBookStorage(filePath);
+        assertFalse(BinaryLoanBookStorage.isBinaryFile(filePath));
+        assertEquals(original, new LoanBook(storage.readLoanBook().get()));
+
+        // the next save converts the file
+        storage.saveLoanBook(original);
+        assertTrue(BinaryLoanBookStorage.isBinaryFile(filePath));
+        assertEquals(original, new LoanBook(storage.readLoanBook().get()));
+    }
+
+    @Test
+    public void readLoanBook_invalidJsonFile_throwsDataLoadingException() {
+        assertThrows(DataLoadingException.class, () ->
+                new BinaryLoanBookStorage(TEST_DATA_FOLDER.resolve("notJsonFormatLoanBook.json")).readLoanBook());
+        assertThrows(DataLoadingException.class, () ->
+                new BinaryLoanBookStorage(TEST_DATA_FOLDER.resolve("invalidPersonLoanBook.json")).readLoanBook());
+    }
+
+    @Test
+    public void readLoanBook_truncatedFile_throwsDataLoadingException() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.bin");
+        new BinaryLoanBookStorage(filePath).saveLoanBook(getTypicalLoanBook());
+        byte[] content = Files.readAllBytes(filePath);
+        Files.write(filePath, Arrays.copyOf(content, content.length - 1));
+        assertThrows(DataLoadingException.class, () -> new BinaryLoanBookStorage(filePath).readLoanBook());
+    }
+
+    @Test
+    public void readLoanBook_historyDeferred_loadedOnlyWhenNeeded() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.bin");
+        new BinaryLoanBookStorage(filePath).saveLoanBook(getTypicalLoanBook());
+        BinaryLoanBookStorage storage = new BinaryLoanBookStorage(filePath, true);
+
+        LoanBook readBack = new LoanBook(storage.readLoanBook().get());
+        Loan first = readBack.getPersonList().get(0);
+        assertTrue(first.getLoanAmount().getHistoryLoader() != null);
+        assertEquals(getTypicalLoanBook().getRemainingAmount(), readBack.getRemainingAmount());
+
+        // saving writes the undecoded transactions out again as they are
+        byte[] content = Files.readAllBytes(filePath);
+        storage.saveLoanBook(readBack);
+        assertTrue(first.getLoanAmount().getHistoryLoader() != null);
+        assertTrue(Arrays.equals(content, Files.readAllBytes(filePath)));
+
+        // editing the history of a loan decodes it
+        Loan edited = first.deleteTransaction(Index.fromOneBased(first.getLoanAmount().getTransactionsCount()));
+        readBack.setPerson(first, edited);
+        storage.saveLoanBook(readBack);
+        assertEquals(readBack, new LoanBook(new BinaryLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void read_versionWithoutTotals_transactionsDecoded() throws Exception {
+        LoanDate date = new LoanDate("2024-01-21");
+        Loan expected = new PersonBuilder().withName("Old File").withAmount(new LoanAmount(
+                new ArrayList<>(List.of(new AddLoanTransaction(MoneyInt.fromCent(1000), date))))).build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryLoanBookFormat.Encoder encoder = new BinaryLoanBookFormat.Encoder(out);
+        encoder.writeBytes(BinaryLoanBookFormat.MAGIC);
+        encoder.writeByte(BinaryLoanBookFormat.VERSION_WITHOUT_TOTALS);
+        encoder.writeVarLong(0); // no tags in the table
+        encoder.writeVarLong(1); // one loan
+        encoder.writeString("Old File");
+        encoder.writeString(""); // no phone
+        encoder.writeVarLong(0); // no tags
+        encoder.writeVarLong(1); // one transaction, with no totals or length before it
+        encoder.writeByte(1); // an added amount
+        encoder.writeVarLong(1000);
+        encoder.writeVarLong(date.getEpochDay() * 2L); // zigzag encoded
+        encoder.flush();
+
+        LoanBook readBack = BinaryLoanBookFormat.read(new ByteArrayInputStream(out.toByteArray()), true);
+        assertEquals(List.of(expected), readBack.getPersonList());
+        assertTrue(readBack.getPersonList().get(0).getLoanAmount().getHistoryLoader() == null);
+    }
+
+    @Test
+    public void read_deferredHistoryNotMatchingTotals_throwsIoException() throws Exception {
+        // an added 100 cents and a repaid 40 cents
+        assertEquals(MoneyInt.fromCent(60), BinaryLoanBookFormat.read(new ByteArrayInputStream(
+                encodeLoanBook(100, 60, 1, 100, 2, 40)), true).getRemainingAmount());
+
+        assertThrows(IOException.class, BinaryLoanBookFormat.MESSAGE_CORRUPTED, () -> BinaryLoanBookFormat.read(
+                new ByteArrayInputStream(encodeLoanBook(100, 50, 1, 100, 2, 40)), true));
+        // more repaid than owed at first
+        assertThrows(IOException.class, BinaryLoanBookFormat.MESSAGE_CORRUPTED, () -> BinaryLoanBookFormat.read(
+                new ByteArrayInputStream(encodeLoanBook(100, 60, 2, 40, 1, 100)), true));
+        // an unknown transaction type
+        assertThrows(IOException.class, BinaryLoanBookFormat.MESSAGE_CORRUPTED, () -> BinaryLoanBookFormat.read(
+                new ByteArrayInputStream(encodeLoanBook(100, 100, 3, 100)), true));
+    }
+
+    @Test
+    public void format_unusualValues_roundTrip() throws Exception {
+        Loan noPhone = new PersonBuilder().withName("No Phone").build();
+        Loan unusual = new PersonBuilder().withName("Unusual Dates").withTags("a", "b", "c").build()
+                .addLoan(MoneyInt.fromCent(Long.MAX_VALUE / 2), LoanDate.ofEpochDay(Integer.MAX_VALUE))
+                .addLoan(MoneyInt.fromCent(1), LoanDate.ofEpochDay(Integer.MIN_VALUE))
+                .repayLoan(MoneyInt.fromCent(1), new LoanDate("2024-02-29"))
+                .changePhone(new Phone("98765432"));
+        LoanBook original = new LoanBook();
+        original.setPersons(List.of(noPhone, unusual));
+
+        assertEquals(original, writeAndRead(original));
+        assertEquals(new LoanBook(), writeAndRead(new LoanBook()));
+    }
+
+    @Test
+    public void format_corruptedInput_throwsException() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryLoanBookFormat.write(getTypicalLoanBook().getPersonList(), out);
+        byte[] content = out.toByteArray();
+
+        byte[] wrongVersion = content.clone();
+        wrongVersion[BinaryLoanBookFormat.MAGIC.length] = BinaryLoanBookFormat.VERSION + 1;
+        assertThrows(IOException.class, String.format(BinaryLoanBookFormat.MESSAGE_UNSUPPORTED_VERSION,
+                BinaryLoanBookFormat.VERSION + 1), () -> BinaryLoanBookFormat.read(new ByteArrayInputStream(
+                wrongVersion), false));
+
+        byte[] notBinary = content.clone();
+        notBinary[0] = '{';
+        assertThrows(IOException.class, BinaryLoanBookFormat.MESSAGE_NOT_BINARY, () ->
+                BinaryLoanBookFormat.read(new ByteArrayInputStream(notBinary), false));
+
+        out.reset();
+        BinaryLoanBookFormat.write(List.of(ALICE, ALICE), out);
+        assertThrows(IllegalValueException.class, JsonSerializableLoanBook.MESSAGE_DUPLICATE_PERSON, () ->
+                BinaryLoanBookFormat.read(new ByteArrayInputStream(out.toByteArray()), false));
+    }
+
+    /**
+     * Returns a loan book file holding a single loan with the given stored totals, and transactions given as pairs of
+     * a type byte and an amount in cents below 128, all dated 1970-01-01.
+     */
+    private static byte[] encodeLoanBook(long totalCents, long remainingCents, int... typesAndCents)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryLoanBookFormat.Encoder encoder = new BinaryLoanBookFormat.Encoder(out);
+        encoder.writeBytes(BinaryLoanBookFormat.MAGIC);
+        encoder.writeByte(BinaryLoanBookFormat.VERSION);
+        encoder.writeVarLong(0); // no tags in the table
+        encoder.writeVarLong(1); // one loan
+        encoder.writeString("Damaged");
+        encoder.writeString(""); // no phone
+        encoder.writeVarLong(0); // no tags
+        encoder.writeVarLong(typesAndCents.length / 2);
+        encoder.writeVarLong(totalCents);
+        encoder.writeVarLong(remainingCents);
+        encoder.writeVarLong(typesAndCents.length / 2 * 3L); // each transaction takes 3 bytes
+        for (int i = 0; i < typesAndCents.length; i += 2) {
+            encoder.writeByte(typesAndCents[i]);
+            encoder.writeVarLong(typesAndCents[i + 1]);
+            encoder.writeVarLong(0);
+        }
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private LoanBook writeAndRead(LoanBook loanBook) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryLoanBookFormat.write(loanBook.getPersonList(), out);
+        return BinaryLoanBookFormat.read(new ByteArrayInputStream(out.toByteArray()), false);
+    }
+}
@@ -0,0 +1,338 @@
+package wanted.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static wanted.testutil.Assert.assertThrows;
+import static wanted.testutil.TypicalPersons.ALICE;
+import static wanted.testutil.TypicalPersons.AMY;
+import static wanted.testutil.TypicalPersons.BENSON;
+import static wanted.testutil.TypicalPersons.HOON;
+import static wanted.testutil.TypicalPersons.IDA;
+import static wanted.testutil.TypicalPersons.getTypicalLoanBook;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import wanted.commons.exceptions.DataLoadingException;
+import wanted.model.LoanBook;
+import wanted.model.loan.Loan;
+import wanted.testutil.PersonBuilder;
+
+public class JournalingLoanBookStorageTest {
+
+    @TempDir
+    public Path testFolder;
+
+    private Path filePath;
+    private Path journalPath;
+
+    @BeforeEach
+    public void setUp() {
+        filePath = testFolder.resolve("loanbook.json");
+        journalPath = JournalingLoanBookStorage.journalPathOf(filePath);
+    }
+
+    @Test
+    public void readLoanBook_missingFiles_emptyResult() throws Exception {
+        assertFalse(new JournalingLoanBookStorage(filePath).readLoanBook().isPresent());
+    }
+
+    @Test
+    public void saveLoanBook_smallChanges_appendedToJournal() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+
+        // first save writes a snapshot
+        storage.saveLoanBook(original);
+        byte[] snapshot = Files.readAllBytes(filePath);
+        assertFalse(Files.exists(journalPath));
+
+        // add, delete and edit are journaled without touching the snapshot
+        original.addPerson(HOON);
+        storage.saveLoanBook(original);
+        original.removePerson(ALICE);
+        storage.saveLoanBook(original);
+        original.setPerson(BENSON, new PersonBuilder(BENSON).withTags("owesMoney", "rich").build());
+        storage.saveLoanBook(original);
+        assertEquals(3, Files.readAllLines(journalPath).size());
+        assertTrue(Arrays.equals(snapshot, Files.readAllBytes(filePath)));
+
+        // saving without changes writes nothing
+        storage.saveLoanBook(original);
+        assertEquals(3, Files.readAllLines(journalPath).size());
+
+        assertEquals(original, new LoanBook(new JournalingLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void saveLoanBook_afterRead_continuesJournal() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        new JournalingLoanBookStorage(filePath).saveLoanBook(original);
+
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        LoanBook readBack = new LoanBook(storage.readLoanBook().get());
+        readBack.addPerson(IDA);
+        storage.saveLoanBook(readBack);
+        assertEquals(1, Files.readAllLines(journalPath).size());
+
+        original.addPerson(IDA);
+        assertEquals(original, new LoanBook(new JournalingLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void saveLoanBook_reordered_journalRecordsPositionsOnly() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        storage.saveLoanBook(original);
+        byte[] snapshot = Files.readAllBytes(filePath);
+
+        List<Loan> reversed = new ArrayList<>(original.getPersonList());
+        Collections.reverse(reversed);
+        original.setPersons(reversed);
+        storage.saveLoanBook(original);
+        assertTrue(Files.size(journalPath) < snapshot.length / 4);
+
+        // moved loans are not written out again, but added ones are
+        List<Loan> reorderedWithNewLoan = new ArrayList<>(original.getPersonList());
+        Collections.swap(reorderedWithNewLoan, 1, 4);
+        reorderedWithNewLoan.add(3, HOON);
+        original.setPersons(reorderedWithNewLoan);
+        storage.saveLoanBook(original);
+        List<String> records = Files.readAllLines(journalPath);
+        assertEquals(2, records.size());
+        assertFalse(records.get(0).contains(ALICE.getName().fullName));
+        assertTrue(records.get(1).contains(HOON.getName().fullName));
+        assertFalse(records.get(1).contains(ALICE.getName().fullName));
+
+        // the journal stays smaller than the snapshot, so it is not compacted
+        storage.awaitCompaction();
+        assertTrue(Arrays.equals(snapshot, Files.readAllBytes(filePath)));
+        assertEquals(original, new LoanBook(new JournalingLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void saveLoanBook_reachesThreshold_compactsInBackground() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath, 2);
+        storage.saveLoanBook(original);
+
+        original.addPerson(HOON);
+        storage.saveLoanBook(original);
+        original.addPerson(IDA);
+        storage.saveLoanBook(original);
+        storage.awaitCompaction();
+        assertEquals(0, Files.size(journalPath));
+        assertEquals(original, new LoanBook(new JsonLoanBookStorage(filePath).readLoanBook().get()));
+
+        // records written after the compaction are replayed on top of the new snapshot
+        original.addPerson(AMY);
+        storage.saveLoanBook(original);
+        assertEquals(1, Files.readAllLines(journalPath).size());
+        assertEquals(original, new LoanBook(new JournalingLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void saveLoanBook_journalLargerThanSnapshot_compacts() throws Exception {
+        LoanBook original = new LoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        storage.saveLoanBook(original);
+
+        original.addPerson(HOON);
+        storage.saveLoanBook(original);
+        storage.awaitCompaction();
+        assertEquals(0, Files.size(journalPath));
+        assertEquals(original, new LoanBook(new JsonLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void saveLoanBook_manySavesDuringCompaction_noChangeLost() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath, 1);
+        storage.saveLoanBook(original);
+        for (int i = 0; i < 50; i++) {
+            original.addPerson(new PersonBuilder().withName("Person " + i).build());
+            storage.saveLoanBook(original);
+        }
+        List<Loan> reversed = new ArrayList<>(original.getPersonList());
+        Collections.reverse(reversed);
+        original.setPersons(reversed);
+        storage.saveLoanBook(original);
+
+        storage.awaitCompaction();
+        assertEquals(original, new LoanBook(new JournalingLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void readLoanBook_staleRecordsAfterCompaction_skipped() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath, 2);
+        storage.saveLoanBook(original);
+        original.addPerson(HOON);
+        storage.saveLoanBook(original);
+        original.addPerson(IDA);
+        byte[] journal = Files.readAllBytes(journalPath);
+        storage.saveLoanBook(original);
+        storage.awaitCompaction();
+
+        // the app stopped after the new snapshot was in place but before the journal was cut
+        Files.write(journalPath, journal);
+        assertEquals(original, new LoanBook(new JournalingLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void readLoanBook_snapshotWithoutJournal_journalIgnored() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        new JsonLoanBookStorage(filePath).saveLoanBook(original);
+        Files.write(journalPath, List.of("not a record", "{}"), StandardCharsets.UTF_8);
+
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        LoanBook readBack = new LoanBook(storage.readLoanBook().get());
+        assertEquals(original, readBack);
+
+        // the first save takes over the file with a fresh snapshot
+        readBack.addPerson(HOON);
+        storage.saveLoanBook(readBack);
+        assertFalse(Files.exists(journalPath));
+        assertEquals(readBack, new LoanBook(new JournalingLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void readLoanBook_incompleteLastRecord_ignored() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        storage.saveLoanBook(original);
+        original.addPerson(HOON);
+        storage.saveLoanBook(original);
+
+        Files.write(journalPath, "{\"snapshot\":1,\"fr".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertEquals(original, new LoanBook(new JournalingLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void readLoanBook_corruptedTerminatedLastRecord_throwsDataLoadingException() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        storage.saveLoanBook(original);
+        original.addPerson(HOON);
+        storage.saveLoanBook(original);
+
+        Files.write(journalPath, "{\"snapshot\":1,\"fr\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertThrows(DataLoadingException.class, () -> new JournalingLoanBookStorage(filePath).readLoanBook());
+    }
+
+    @Test
+    public void readLoanBook_corruptedRecord_throwsDataLoadingException() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        storage.saveLoanBook(original);
+
+        List<String> lines = List.of("not a record", "{}");
+        Files.write(journalPath, lines, StandardCharsets.UTF_8);
+        assertThrows(DataLoadingException.class, () -> new JournalingLoanBookStorage(filePath).readLoanBook());
+    }
+
+    @Test
+    public void recoverLoanBook_damagedSnapshot_journalReplayedOverRecoveredLoans() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        storage.saveLoanBook(original);
+        original.removePerson(ALICE);
+        storage.saveLoanBook(original);
+        original.addPerson(HOON);
+        storage.saveLoanBook(original);
+
+        // the loan of Alice is damaged too, but it was deleted afterwards, so it is not lost
+        List<String> lines = Files.readAllLines(filePath);
+        lines.set(1, JsonLoanBookStorageTest.renameLoanOnLine(lines.get(1)));
+        lines.set(2, JsonLoanBookStorageTest.renameLoanOnLine(lines.get(2)));
+        Files.write(filePath, lines);
+        assertThrows(DataLoadingException.class, () -> new JournalingLoanBookStorage(filePath).readLoanBook());
+
+        storage = new JournalingLoanBookStorage(filePath);
+        RecoveredLoanBook recovered = storage.recoverLoanBook();
+        original.removePerson(BENSON);
+        assertEquals(original, new LoanBook(recovered.getLoanBook()));
+        assertEquals(List.of("line 3 of loanbook.json (Zenson Meier): " + JsonAdaptedLoan.MESSAGE_CHECKSUM_MISMATCH),
+                recovered.getLosses());
+
+        storage.saveLoanBook(recovered.getLoanBook());
+        assertFalse(Files.exists(journalPath));
+        assertEquals(original, new LoanBook(new JournalingLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void recoverLoanBook_damagedJournalRecord_laterRecordsLost() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        storage.saveLoanBook(original);
+        LoanBook changed = new LoanBook(original);
+        changed.addPerson(HOON);
+        storage.saveLoanBook(changed);
+        changed.addPerson(IDA);
+        storage.saveLoanBook(changed);
+
+        List<String> lines = new ArrayList<>(Files.readAllLines(journalPath));
+        lines.set(0, "not a record");
+        Files.write(journalPath, lines, StandardCharsets.UTF_8);
+
+        RecoveredLoanBook recovered = new JournalingLoanBookStorage(filePath).recoverLoanBook();
+        assertEquals(original, new LoanBook(recovered.getLoanBook()));
+        assertEquals(List.of("line 1 of loanbook.json.journal: " + JsonLoanBookRecovery.MESSAGE_NOT_JSON,
+                "line 2 of loanbook.json.journal: " + JournalingLoanBookStorage.MESSAGE_AFTER_LOST_RECORD),
+                recovered.getLosses());
+        assertEquals(2, Files.readAllLines(RecoveredLoanBook.quarantinePathOf(filePath)).size());
+    }
+
+    @Test
+    public void saveLoanBook_stoppedBeforeOldJournalDeleted_oldRecordsNotReplayed() throws Exception {
+        LoanBook original = getTypicalLoanBook();
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        storage.saveLoanBook(original);
+        original.addPerson(HOON);
+        storage.saveLoanBook(original);
+        original.addPerson(IDA);
+        storage.saveLoanBook(original);
+        byte[] journal = Files.readAllBytes(journalPath);
+
+        // a storage that has not read the files starts over with a snapshot of the whole book
+        storage = new JournalingLoanBookStorage(filePath);
+        LoanBook replacement = new LoanBook();
+        replacement.addPerson(ALICE);
+        storage.saveLoanBook(replacement);
+        assertFalse(Files.exists(journalPath));
+
+        // the app stopped after the new snapshot was in place but before the old journal was deleted
+        Files.write(journalPath, journal);
+        assertEquals(replacement, new LoanBook(new JournalingLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void saveLoanBook_otherPath_writesSnapshotOnly() throws Exception {
+        Path otherPath = testFolder.resolve("other.json");
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        storage.saveLoanBook(getTypicalLoanBook(), otherPath);
+
+        assertFalse(Files.exists(filePath));
+        assertFalse(Files.exists(JournalingLoanBookStorage.journalPathOf(otherPath)));
+        assertFalse(Files.exists(testFolder.resolve("other.json.tmp")));
+        assertEquals(getTypicalLoanBook(), new LoanBook(storage.readLoanBook(otherPath).get()));
+    }
+
+    @Test
+    public void saveLoanBook_nullArguments_throwsNullPointerException() {
+        JournalingLoanBookStorage storage = new JournalingLoanBookStorage(filePath);
+        assertThrows(NullPointerException.class, () -> storage.saveLoanBook(null));
+        assertThrows(NullPointerException.class, () -> storage.saveLoanBook(new LoanBook(), null));
+    }
+}
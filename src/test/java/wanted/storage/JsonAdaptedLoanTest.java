@@ -6,14 +6,17 @@ import static wanted.storage.JsonAdaptedLoan.MISSING_FIELD_MESSAGE_FORMAT;
 import static wanted.testutil.Assert.assertThrows;
 import static wanted.testutil.TypicalPersons.BENSON;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
 
 import org.junit.jupiter.api.Test;
 
 import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.JsonUtil;
 import wanted.logic.parser.ParserUtil;
 import wanted.model.loan.Name;
 
@@ -45,6 +48,40 @@ public class JsonAdaptedLoanTest {
         assertEquals(BENSON, new JsonAdaptedLoan(BENSON).toModelType());
     }
 
+    @Test
+    public void toModelType_matchingChecksum_returnsLoan() throws Exception {
+        assertEquals(BENSON, new JsonAdaptedLoan(BENSON).withChecksum().toModelType());
+        assertEquals(BENSON, JsonUtil.fromJsonString(new JsonAdaptedLoan(BENSON).toChecksummedJson(),
+                JsonAdaptedLoan.class).toModelType());
+    }
+
+    @Test
+    public void toModelType_checksumMismatch_throwsIllegalValueException() throws Exception {
+        String json = new JsonAdaptedLoan(BENSON).toChecksummedJson().replace(VALID_NAME, "Benson Meyer");
+        JsonAdaptedLoan loan = JsonUtil.fromJsonString(json, JsonAdaptedLoan.class);
+        assertThrows(IllegalValueException.class, JsonAdaptedLoan.MESSAGE_CHECKSUM_MISMATCH, loan::toModelType);
+    }
+
+    @Test
+    public void toModelType_withRecord_checksumCheckedAgainstRecord() throws Exception {
+        // the name is escaped in the record, which serialising the loan again would not reproduce
+        String content = JsonUtil.toCompactJsonString(new JsonAdaptedLoan(BENSON))
+                .replace("\"Benson", "\"\\u0042enson");
+        CRC32C crc = new CRC32C();
+        crc.update(content.getBytes(StandardCharsets.UTF_8));
+        String record = "{\"checksum\":" + crc.getValue() + "," + content.substring(1);
+        JsonAdaptedLoan loan = JsonUtil.fromJsonString(record, JsonAdaptedLoan.class);
+        assertEquals(BENSON, loan.withRecord(record).toModelType());
+        assertThrows(IllegalValueException.class, JsonAdaptedLoan.MESSAGE_CHECKSUM_MISMATCH, loan::toModelType);
+
+        // a loan serialised with its checksum is in the same layout
+        String serialised = JsonUtil.toCompactJsonString(new JsonAdaptedLoan(BENSON).withChecksum());
+        loan = JsonUtil.fromJsonString(serialised, JsonAdaptedLoan.class);
+        assertEquals(BENSON, loan.withRecord(serialised).toModelType());
+        assertThrows(IllegalValueException.class, JsonAdaptedLoan.MESSAGE_CHECKSUM_MISMATCH,
+                loan.withRecord(serialised.replace(VALID_NAME, "Benson Meyer"))::toModelType);
+    }
+
     @Test
     public void toModelType_invalidName_throwsIllegalValueException() {
         JsonAdaptedLoan loan = new JsonAdaptedLoan(INVALID_NAME, VALID_TRANSACTIONS, VALID_TAGS, VALID_PHONE);
@@ -0,0 +1,114 @@
+package wanted.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static wanted.testutil.Assert.assertThrows;
+import static wanted.testutil.TypicalPersons.getTypicalLoanBook;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.commons.util.JsonUtil;
+import wanted.model.LoanBook;
+import wanted.testutil.PersonBuilder;
+
+public class JsonLoanBookReaderTest {
+
+    private static final Path TEST_DATA_FOLDER = Paths.get("src", "test", "data", "JsonSerializableLoanBookTest");
+    private static final Path TYPICAL_PERSONS_FILE = TEST_DATA_FOLDER.resolve("typicalPersonsLoanBook.json");
+    private static final Path INVALID_PERSON_FILE = TEST_DATA_FOLDER.resolve("invalidPersonLoanBook.json");
+    private static final Path DUPLICATE_PERSON_FILE = TEST_DATA_FOLDER.resolve("duplicatePersonLoanBook.json");
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void read_typicalPersonsFile_success() throws Exception {
+        JsonLoanBookReader reader = new JsonLoanBookReader(TYPICAL_PERSONS_FILE);
+        assertEquals(getTypicalLoanBook(), reader.read());
+        assertFalse(reader.getJournalSequence().isPresent());
+    }
+
+    @Test
+    public void read_invalidPersonFile_throwsIllegalValueException() {
+        assertThrows(IllegalValueException.class, () -> new JsonLoanBookReader(INVALID_PERSON_FILE).read());
+    }
+
+    @Test
+    public void read_duplicatePersonFile_throwsIllegalValueException() {
+        assertThrows(IllegalValueException.class, JsonSerializableLoanBook.MESSAGE_DUPLICATE_PERSON, () ->
+                new JsonLoanBookReader(DUPLICATE_PERSON_FILE).read());
+    }
+
+    @Test
+    public void read_journalSequenceAndUnknownFields_sequenceRead() throws Exception {
+        Path filePath = write("{\"_comment\": {\"persons\": []}, \"persons\": [], \"journalSequence\": 42}");
+        JsonLoanBookReader reader = new JsonLoanBookReader(filePath);
+        assertEquals(new LoanBook(), reader.read());
+        assertEquals(Optional.of(42L), reader.getJournalSequence());
+    }
+
+    @Test
+    public void read_malformedFiles_throwsIOException() throws Exception {
+        assertThrows(IOException.class, () -> new JsonLoanBookReader(write("")).read());
+        assertThrows(IOException.class, () -> new JsonLoanBookReader(write("[]")).read());
+        assertThrows(IOException.class, () -> new JsonLoanBookReader(write("{\"persons\": [")).read());
+    }
+
+    @Test
+    public void read_nullLoan_throwsIllegalValueException() throws Exception {
+        Path filePath = write("{\"persons\": [null]}");
+        assertThrows(IllegalValueException.class, JsonLoanBookReader.MESSAGE_MISSING_LOAN, () ->
+                new JsonLoanBookReader(filePath).read());
+    }
+
+    @Test
+    public void read_manyLoans_progressReportedInOrder() throws Exception {
+        LoanBook original = new LoanBook();
+        for (int i = 0; i < 200; i++) {
+            original.addPerson(new PersonBuilder().withName("Person " + i).build());
+        }
+        Path filePath = write(JsonUtil.toJsonString(new JsonSerializableLoanBook(original)));
+
+        List<Integer> progress = new ArrayList<>();
+        assertEquals(original, new JsonLoanBookReader(filePath, progress::add).read());
+        assertTrue(progress.size() > 10);
+        for (int i = 1; i < progress.size(); i++) {
+            assertTrue(progress.get(i - 1) < progress.get(i));
+        }
+        assertEquals(100, (int) progress.get(progress.size() - 1));
+    }
+
+    @Test
+    public void read_checksummedLoansLongerThanBuffer_checkedAgainstText() throws Exception {
+        LoanBook original = new LoanBook();
+        for (int i = 0; i < 2000; i++) {
+            original.addPerson(new PersonBuilder().withName("Person " + i).withTags("friends", "tag" + i).build());
+        }
+        Path filePath = testFolder.resolve("loanbook.json");
+        assertTrue(new JsonLoanBookWriter(true).write(original.getPersonList(), null, filePath) > 1 << 17);
+        assertEquals(original, new JsonLoanBookReader(filePath).read());
+
+        // a loan changed near the end of the file no longer matches the checksum of its text
+        String content = Files.readString(filePath).replace("\"Person 1999\"", "\"Person 2000\"");
+        assertThrows(IllegalValueException.class, JsonAdaptedLoan.MESSAGE_CHECKSUM_MISMATCH, () ->
+                new JsonLoanBookReader(write(content)).read());
+    }
+
+    private Path write(String content) throws IOException {
+        Path filePath = testFolder.resolve("loanbook.json");
+        Files.write(filePath, content.getBytes(StandardCharsets.UTF_8));
+        return filePath;
+    }
+}
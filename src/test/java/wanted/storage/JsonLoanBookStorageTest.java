@@ -2,6 +2,7 @@ package wanted.storage;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static wanted.testutil.Assert.assertThrows;
 import static wanted.testutil.TypicalPersons.ALICE;
 import static wanted.testutil.TypicalPersons.HOON;
@@ -9,8 +10,10 @@ import static wanted.testutil.TypicalPersons.IDA;
 import static wanted.testutil.TypicalPersons.getTypicalLoanBook;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -60,6 +63,68 @@ public class JsonLoanBookStorageTest {
         assertThrows(DataLoadingException.class, () -> readLoanBook("invalidAndValidPersonLoanBook.json"));
     }
 
+    @Test
+    public void readLoanBook_loanNotMatchingChecksum_throwDataLoadingException() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        new JsonLoanBookStorage(filePath).saveLoanBook(getTypicalLoanBook());
+        List<String> lines = Files.readAllLines(filePath);
+        lines.set(1, renameLoanOnLine(lines.get(1)));
+        Files.write(filePath, lines);
+
+        assertThrows(DataLoadingException.class, () -> new JsonLoanBookStorage(filePath).readLoanBook());
+    }
+
+    @Test
+    public void recoverLoanBook_damagedLoans_otherLoansRecoveredAndDamagedQuarantined() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        LoanBook original = getTypicalLoanBook();
+        JsonLoanBookStorage storage = new JsonLoanBookStorage(filePath);
+        storage.saveLoanBook(original);
+
+        // the first loan no longer matches its checksum, and the third is no longer valid JSON
+        List<String> lines = Files.readAllLines(filePath);
+        lines.set(1, renameLoanOnLine(lines.get(1)));
+        lines.set(3, lines.get(3).substring(0, lines.get(3).length() / 2));
+        Files.write(filePath, lines);
+
+        RecoveredLoanBook recovered = storage.recoverLoanBook();
+        LoanBook expected = new LoanBook(original);
+        expected.removePerson(original.getPersonList().get(0));
+        expected.removePerson(original.getPersonList().get(2));
+        assertEquals(expected, new LoanBook(recovered.getLoanBook()));
+        assertEquals(List.of("line 2 of loanbook.json (Zlice Pauline): " + JsonAdaptedLoan.MESSAGE_CHECKSUM_MISMATCH,
+                "line 4 of loanbook.json: " + JsonLoanBookRecovery.MESSAGE_NOT_JSON), recovered.getLosses());
+
+        Path quarantinePath = RecoveredLoanBook.quarantinePathOf(filePath);
+        List<String> quarantined = Files.readAllLines(quarantinePath);
+        assertEquals(2, quarantined.size());
+        assertTrue(recovered.getReport().contains(quarantinePath.toString()));
+
+        // saving the recovered loans leaves a file that reads in full
+        storage.saveLoanBook(recovered.getLoanBook());
+        assertEquals(expected, new LoanBook(storage.readLoanBook().get()));
+        assertFalse(storage.recoverLoanBook().hasLosses());
+        assertEquals(quarantined, Files.readAllLines(quarantinePath));
+    }
+
+    @Test
+    public void recoverLoanBook_olderLayoutWithInvalidLoan_validLoansRecovered() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        Files.copy(TEST_DATA_FOLDER.resolve("invalidAndValidPersonLoanBook.json"), filePath);
+
+        RecoveredLoanBook recovered = new JsonLoanBookStorage(filePath).recoverLoanBook();
+        assertEquals(1, recovered.getLoanBook().getPersonList().size());
+        assertEquals(1, recovered.getLosses().size());
+        assertTrue(recovered.getLosses().get(0).startsWith("loan 2 of loanbook.json (Person With Invalid"));
+    }
+
+    @Test
+    public void recoverLoanBook_notJsonFormat_throwDataLoadingException() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        Files.copy(TEST_DATA_FOLDER.resolve("notJsonFormatLoanBook.json"), filePath);
+        assertThrows(DataLoadingException.class, () -> new JsonLoanBookStorage(filePath).recoverLoanBook());
+    }
+
     @Test
     public void readAndSaveLoanBook_allInOrder_success() throws Exception {
         Path filePath = testFolder.resolve("Temploanbook.json");
@@ -86,6 +151,35 @@ public class JsonLoanBookStorageTest {
 
     }
 
+    @Test
+    public void saveLoanBook_default_writesLoanPerLine() throws Exception {
+        Path filePath = testFolder.resolve("compact.json");
+        LoanBook original = getTypicalLoanBook();
+        JsonLoanBookStorage jsonLoanBookStorage = new JsonLoanBookStorage(filePath);
+        jsonLoanBookStorage.saveLoanBook(original);
+
+        // a line each for the loans, and one each for the start and the end of the book
+        assertEquals(original.getPersonList().size() + 2, Files.readAllLines(filePath).size());
+        assertEquals(original, new LoanBook(jsonLoanBookStorage.readLoanBook().get()));
+    }
+
+    @Test
+    public void saveLoanBook_prettyPrinted_writesIndentedLines() throws Exception {
+        Path filePath = testFolder.resolve("folder").resolve("pretty.json");
+        LoanBook original = getTypicalLoanBook();
+        JsonLoanBookStorage jsonLoanBookStorage = new JsonLoanBookStorage(filePath, true);
+        jsonLoanBookStorage.saveLoanBook(original);
+
+        List<String> lines = Files.readAllLines(filePath);
+        assertTrue(lines.size() > original.getPersonList().size());
+        assertTrue(lines.get(1).startsWith(" "));
+        assertEquals(original, new LoanBook(jsonLoanBookStorage.readLoanBook().get()));
+
+        // overwriting with fewer loans leaves nothing of the longer file behind
+        jsonLoanBookStorage.saveLoanBook(new LoanBook());
+        assertEquals(new LoanBook(), new LoanBook(jsonLoanBookStorage.readLoanBook().get()));
+    }
+
     @Test
     public void saveLoanBook_nullLoanBook_throwsNullPointerException() {
         assertThrows(NullPointerException.class, () -> saveLoanBook(null, "SomeFile.json"));
@@ -107,4 +201,11 @@ public class JsonLoanBookStorageTest {
     public void saveLoanBook_nullFilePath_throwsNullPointerException() {
         assertThrows(NullPointerException.class, () -> saveLoanBook(new LoanBook(), null));
     }
+
+    /**
+     * Returns {@code line} with the first letter of the name of its loan replaced, keeping the loan valid.
+     */
+    static String renameLoanOnLine(String line) {
+        return line.replaceFirst("\"name\":\".", "\"name\":\"Z");
+    }
 }
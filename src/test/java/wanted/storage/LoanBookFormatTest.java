@@ -0,0 +1,74 @@
+package wanted.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static wanted.testutil.Assert.assertThrows;
+import static wanted.testutil.TypicalPersons.getTypicalLoanBook;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import wanted.model.LoanBook;
+
+public class LoanBookFormatTest {
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void of_null_throwsNullPointerException() {
+        assertThrows(NullPointerException.class, () -> LoanBookFormat.of(null));
+    }
+
+    @Test
+    public void of_byExtension() {
+        assertEquals(LoanBookFormat.JSON, LoanBookFormat.of(Paths.get("data", "loanbook.json")));
+        assertEquals(LoanBookFormat.BINARY, LoanBookFormat.of(Paths.get("data", "loanbook.bin")));
+        assertEquals(LoanBookFormat.BINARY, LoanBookFormat.of(Paths.get("LOANBOOK.BIN")));
+        assertEquals(LoanBookFormat.SHARDED, LoanBookFormat.of(Paths.get("data", "loanbook.manifest")));
+    }
+
+    @Test
+    public void of_otherExtension_json() {
+        assertEquals(LoanBookFormat.JSON, LoanBookFormat.of(Paths.get("data", "loanbook")));
+        assertEquals(LoanBookFormat.JSON, LoanBookFormat.of(Paths.get("data", "loanbook.txt")));
+        assertEquals(LoanBookFormat.JSON, LoanBookFormat.of(Paths.get("bin", "loanbook.json")));
+    }
+
+    @Test
+    public void createStorage_eachFormat_savedLoanBookReadBack() throws Exception {
+        for (LoanBookFormat format : LoanBookFormat.values()) {
+            Path filePath = testFolder.resolve("loanbook" + format.getExtension());
+            assertEquals(format, LoanBookFormat.of(filePath));
+            LoanBookStorage storage = format.createStorage(filePath);
+            assertEquals(filePath, storage.getLoanBookFilePath());
+
+            storage.saveLoanBook(getTypicalLoanBook());
+            assertEquals(getTypicalLoanBook(), new LoanBook(format.createStorage(filePath).readLoanBook().get()));
+        }
+    }
+
+    @Test
+    public void createStorage_binaryFormatOverJsonFile_jsonRead() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.bin");
+        new JsonLoanBookStorage(filePath).saveLoanBook(getTypicalLoanBook());
+
+        LoanBookStorage storage = LoanBookFormat.BINARY.createStorage(filePath);
+        assertEquals(getTypicalLoanBook(), new LoanBook(storage.readLoanBook().get()));
+        storage.saveLoanBook(getTypicalLoanBook());
+        assertTrue(BinaryLoanBookStorage.isBinaryFile(filePath));
+    }
+
+    @Test
+    public void getCachedFiles_jsonFormat_snapshotAndJournal() {
+        Path filePath = Paths.get("data", "loanbook.json");
+        assertEquals(List.of(filePath, JournalingLoanBookStorage.journalPathOf(filePath)),
+                LoanBookFormat.JSON.getCachedFiles(filePath));
+        assertEquals(List.of(), LoanBookFormat.BINARY.getCachedFiles(Paths.get("data", "loanbook.bin")));
+        assertEquals(List.of(), LoanBookFormat.SHARDED.getCachedFiles(Paths.get("data", "loanbook.manifest")));
+    }
+}
@@ -0,0 +1,142 @@
+package wanted.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static wanted.testutil.Assert.assertThrows;
+import static wanted.testutil.TypicalPersons.ALICE;
+import static wanted.testutil.TypicalPersons.HOON;
+import static wanted.testutil.TypicalPersons.IDA;
+import static wanted.testutil.TypicalPersons.getTypicalLoanBook;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import wanted.model.LoanBook;
+import wanted.model.ReadOnlyLoanBook;
+
+public class LoanBookSaveSchedulerTest {
+
+    private static final IOException DUMMY_IO_EXCEPTION = new IOException("dummy IO exception");
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void schedule_burstWhileWriting_coalescedIntoLastSnapshot() throws Exception {
+        CountDownLatch firstSaveStarted = new CountDownLatch(1);
+        CountDownLatch firstSaveReleased = new CountDownLatch(1);
+        List<LoanBook> saved = new ArrayList<>();
+        JsonLoanBookStorage storage = new JsonLoanBookStorage(testFolder.resolve("loanbook.json")) {
+            @Override
+            public void saveLoanBook(ReadOnlyLoanBook loanBook, Path filePath) throws IOException {
+                firstSaveStarted.countDown();
+                try {
+                    firstSaveReleased.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                saved.add(new LoanBook(loanBook));
+                super.saveLoanBook(loanBook, filePath);
+            }
+        };
+        LoanBookSaveScheduler scheduler = new LoanBookSaveScheduler(storage);
+
+        LoanBook loanBook = getTypicalLoanBook();
+        LoanBook first = new LoanBook(loanBook);
+        scheduler.schedule(loanBook);
+        firstSaveStarted.await();
+
+        // changes made after scheduling are not part of the snapshot
+        loanBook.addPerson(HOON);
+        scheduler.schedule(loanBook);
+        loanBook.addPerson(IDA);
+        scheduler.schedule(loanBook);
+        loanBook.removePerson(ALICE);
+        LoanBook last = new LoanBook(loanBook);
+        scheduler.schedule(loanBook);
+        loanBook.addPerson(ALICE);
+
+        firstSaveReleased.countDown();
+        scheduler.flush();
+        assertEquals(List.of(first, last), saved);
+        assertEquals(last, new LoanBook(storage.readLoanBook().get()));
+        assertFalse(scheduler.takeFailure().isPresent());
+    }
+
+    @Test
+    public void flush_saveFailed_failureReportedAndSaveRetried() throws Exception {
+        int[] failuresLeft = {2};
+        JsonLoanBookStorage storage = new JsonLoanBookStorage(testFolder.resolve("loanbook.json")) {
+            @Override
+            public void saveLoanBook(ReadOnlyLoanBook loanBook, Path filePath) throws IOException {
+                if (failuresLeft[0]-- > 0) {
+                    throw DUMMY_IO_EXCEPTION;
+                }
+                super.saveLoanBook(loanBook, filePath);
+            }
+        };
+        LoanBookSaveScheduler scheduler = new LoanBookSaveScheduler(storage);
+
+        scheduler.schedule(getTypicalLoanBook());
+        // the save is written again by the flush, which fails too
+        assertThrows(IOException.class, DUMMY_IO_EXCEPTION.getMessage(), scheduler::flush);
+        assertFalse(scheduler.takeFailure().isPresent());
+
+        scheduler.flush();
+        assertEquals(getTypicalLoanBook(), new LoanBook(storage.readLoanBook().get()));
+
+        failuresLeft[0] = 1;
+        scheduler.schedule(new LoanBook());
+        scheduler.flush();
+        assertTrue(scheduler.takeFailure().isPresent());
+        assertFalse(scheduler.takeFailure().isPresent());
+        assertEquals(new LoanBook(), new LoanBook(storage.readLoanBook().get()));
+    }
+
+    @Test
+    public void flush_saveThrewRuntimeException_flushFailsAndLaterSnapshotWritten() throws Exception {
+        IllegalStateException bug = new IllegalStateException("dummy bug");
+        CountDownLatch firstSaveStarted = new CountDownLatch(1);
+        CountDownLatch firstSaveReleased = new CountDownLatch(1);
+        boolean[] isBroken = {true};
+        JsonLoanBookStorage storage = new JsonLoanBookStorage(testFolder.resolve("loanbook.json")) {
+            @Override
+            public void saveLoanBook(ReadOnlyLoanBook loanBook, Path filePath) throws IOException {
+                boolean isThisSaveBroken = isBroken[0];
+                firstSaveStarted.countDown();
+                try {
+                    firstSaveReleased.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                if (isThisSaveBroken) {
+                    throw bug;
+                }
+                super.saveLoanBook(loanBook, filePath);
+            }
+        };
+        LoanBookSaveScheduler scheduler = new LoanBookSaveScheduler(storage);
+
+        // a snapshot scheduled while the broken save is being written is still written afterwards
+        scheduler.schedule(new LoanBook());
+        firstSaveStarted.await();
+        isBroken[0] = false;
+        scheduler.schedule(getTypicalLoanBook());
+        firstSaveReleased.countDown();
+        scheduler.flush();
+        assertEquals(getTypicalLoanBook(), new LoanBook(storage.readLoanBook().get()));
+        assertTrue(scheduler.takeFailure().isPresent());
+
+        isBroken[0] = true;
+        scheduler.schedule(new LoanBook());
+        assertThrows(IOException.class, bug.toString(), scheduler::flush);
+        assertEquals(getTypicalLoanBook(), new LoanBook(storage.readLoanBook().get()));
+    }
+}
@@ -0,0 +1,102 @@
+package wanted.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static wanted.testutil.TypicalPersons.HOON;
+import static wanted.testutil.TypicalPersons.getTypicalLoanBook;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import wanted.model.LoanBook;
+
+public class LoanBookSnapshotCacheTest {
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void read_missingCache_emptyResult() {
+        Path filePath = testFolder.resolve("loanbook.json");
+        LoanBookSnapshotCache cache = new LoanBookSnapshotCache(LoanBookSnapshotCache.cachePathOf(filePath),
+                List.of(filePath));
+        assertFalse(cache.read().isPresent());
+    }
+
+    @Test
+    public void read_sourcesUnchanged_cachedLoanBookReturned() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        Path missingPath = testFolder.resolve("missing.json");
+        LoanBook loanBook = getTypicalLoanBook();
+        new JsonLoanBookStorage(filePath).saveLoanBook(loanBook);
+
+        LoanBookSnapshotCache cache = new LoanBookSnapshotCache(LoanBookSnapshotCache.cachePathOf(filePath),
+                List.of(filePath, missingPath));
+        cache.write(loanBook);
+        assertEquals(loanBook, new LoanBook(cache.read().get()));
+    }
+
+    @Test
+    public void read_sourceChanged_emptyResult() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        Path missingPath = testFolder.resolve("missing.json");
+        LoanBook loanBook = getTypicalLoanBook();
+        new JsonLoanBookStorage(filePath).saveLoanBook(loanBook);
+        LoanBookSnapshotCache cache = new LoanBookSnapshotCache(LoanBookSnapshotCache.cachePathOf(filePath),
+                List.of(filePath, missingPath));
+        cache.write(loanBook);
+
+        loanBook.addPerson(HOON);
+        new JsonLoanBookStorage(filePath).saveLoanBook(loanBook);
+        assertFalse(cache.read().isPresent());
+
+        cache.write(loanBook);
+        Files.writeString(missingPath, "");
+        assertFalse(cache.read().isPresent());
+    }
+
+    @Test
+    public void read_corruptedCache_emptyResult() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        LoanBook loanBook = getTypicalLoanBook();
+        new JsonLoanBookStorage(filePath).saveLoanBook(loanBook);
+        LoanBookSnapshotCache cache = new LoanBookSnapshotCache(LoanBookSnapshotCache.cachePathOf(filePath),
+                List.of(filePath));
+        cache.write(loanBook);
+
+        byte[] content = Files.readAllBytes(cache.getCachePath());
+        Files.write(cache.getCachePath(), Arrays.copyOf(content, content.length / 2));
+        assertFalse(cache.read().isPresent());
+
+        Files.writeString(cache.getCachePath(), "not a cache");
+        assertFalse(cache.read().isPresent());
+    }
+
+    @Test
+    public void read_changedLoanBookBytes_emptyResult() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        LoanBook loanBook = getTypicalLoanBook();
+        new JsonLoanBookStorage(filePath).saveLoanBook(loanBook);
+        LoanBookSnapshotCache cache = new LoanBookSnapshotCache(LoanBookSnapshotCache.cachePathOf(filePath),
+                List.of(filePath));
+        cache.write(loanBook);
+        assertFalse(Files.exists(cache.getCachePath().resolveSibling(cache.getCachePath().getFileName() + ".tmp")));
+
+        // the last byte is part of the date of the last transaction, so the loan book still reads and adds up
+        byte[] content = Files.readAllBytes(cache.getCachePath());
+        content[content.length - 1] ^= 1;
+        Files.write(cache.getCachePath(), content);
+        assertFalse(cache.read().isPresent());
+
+        // bytes after the loan book
+        cache.write(loanBook);
+        Files.write(cache.getCachePath(), new byte[] {0}, StandardOpenOption.APPEND);
+        assertFalse(cache.read().isPresent());
+    }
+}
@@ -0,0 +1,87 @@
+package wanted.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static wanted.testutil.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import wanted.commons.exceptions.IllegalValueException;
+import wanted.model.loan.Loan;
+import wanted.model.loan.Name;
+import wanted.testutil.PersonBuilder;
+
+public class ParallelLoanConverterTest {
+
+    private static final int LOAN_COUNT = 3 * ParallelLoanConverter.BATCH_SIZE + 5;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void finish_manyLoans_orderKept() throws Exception {
+        List<Loan> loans = new ArrayList<>();
+        ParallelLoanConverter converter = new ParallelLoanConverter(pool);
+        for (int i = 0; i < LOAN_COUNT; i++) {
+            Loan loan = new PersonBuilder().withName("Person " + i).withTags("tag" + (i % 3)).build();
+            loans.add(loan);
+            converter.add(new JsonAdaptedLoan(loan));
+        }
+        assertEquals(loans, converter.finish());
+        assertEquals(List.of(), new ParallelLoanConverter(pool).finish());
+    }
+
+    @Test
+    public void finish_duplicateInLaterBatch_throwsIllegalValueException() {
+        List<JsonAdaptedLoan> loans = adaptedLoans();
+        loans.set(LOAN_COUNT - 1, loans.get(1));
+        assertThrows(IllegalValueException.class, JsonSerializableLoanBook.MESSAGE_DUPLICATE_PERSON, () ->
+                convert(loans));
+    }
+
+    @Test
+    public void finish_severalErrors_firstReported() {
+        // the second copy of the duplicated loan comes after the invalid one
+        List<JsonAdaptedLoan> loans = adaptedLoans();
+        loans.set(10, new JsonAdaptedLoan("R@chel", List.of(), List.of(), ""));
+        loans.set(LOAN_COUNT - 1, loans.get(1));
+        assertThrows(IllegalValueException.class, Name.MESSAGE_CONSTRAINTS, () -> convert(loans));
+
+        // the missing loan comes after both copies of the duplicated one
+        List<JsonAdaptedLoan> withMissing = adaptedLoans();
+        withMissing.set(ParallelLoanConverter.BATCH_SIZE, withMissing.get(2 * ParallelLoanConverter.BATCH_SIZE));
+        withMissing.set(2 * ParallelLoanConverter.BATCH_SIZE + 1, null);
+        assertThrows(IllegalValueException.class, JsonSerializableLoanBook.MESSAGE_DUPLICATE_PERSON, () ->
+                convert(withMissing));
+    }
+
+    private List<JsonAdaptedLoan> adaptedLoans() {
+        List<JsonAdaptedLoan> loans = new ArrayList<>();
+        for (int i = 0; i < LOAN_COUNT; i++) {
+            loans.add(new JsonAdaptedLoan(new PersonBuilder().withName("Person " + i).build()));
+        }
+        return loans;
+    }
+
+    private List<Loan> convert(List<JsonAdaptedLoan> loans) throws IllegalValueException {
+        ParallelLoanConverter converter = new ParallelLoanConverter(pool);
+        for (JsonAdaptedLoan loan : loans) {
+            converter.add(loan);
+        }
+        return converter.finish();
+    }
+}
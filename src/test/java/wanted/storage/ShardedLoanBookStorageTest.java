@@ -0,0 +1,182 @@
+package wanted.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static wanted.testutil.Assert.assertThrows;
+import static wanted.testutil.TypicalPersons.ALICE;
+import static wanted.testutil.TypicalPersons.HOON;
+import static wanted.testutil.TypicalPersons.getTypicalLoanBook;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import wanted.commons.exceptions.DataLoadingException;
+import wanted.model.LoanBook;
+import wanted.model.loan.Loan;
+import wanted.model.loan.Name;
+import wanted.model.loan.Phone;
+import wanted.testutil.PersonBuilder;
+
+public class ShardedLoanBookStorageTest {
+
+    @TempDir
+    public Path testFolder;
+
+    @Test
+    public void readLoanBook_missingFile_emptyResult() throws Exception {
+        assertFalse(new ShardedLoanBookStorage(testFolder.resolve("missing.json")).readLoanBook().isPresent());
+    }
+
+    @Test
+    public void readAndSaveLoanBook_allInOrder_success() throws Exception {
+        Path filePath = testFolder.resolve("folder").resolve("loanbook.json");
+        LoanBook original = getTypicalLoanBook();
+        ShardedLoanBookStorage storage = new ShardedLoanBookStorage(filePath, 4);
+
+        storage.saveLoanBook(original);
+        assertEquals(original, new LoanBook(new ShardedLoanBookStorage(filePath).readLoanBook().get()));
+
+        original.addPerson(HOON);
+        original.removePerson(ALICE);
+        storage.saveLoanBook(original);
+        assertEquals(original, new LoanBook(new ShardedLoanBookStorage(filePath).readLoanBook().get()));
+
+        List<Loan> reversed = new ArrayList<>(original.getPersonList());
+        Collections.reverse(reversed);
+        original.setPersons(reversed);
+        storage.saveLoanBook(original);
+        assertEquals(original, new LoanBook(storage.readLoanBook().get()));
+
+        storage.saveLoanBook(new LoanBook());
+        assertEquals(new LoanBook(), new LoanBook(storage.readLoanBook().get()));
+        assertEquals(0, shardFiles(filePath).size());
+    }
+
+    @Test
+    public void saveLoanBook_fewLoansChanged_onlyTheirShardsRewritten() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        LoanBook loanBook = new LoanBook();
+        for (int i = 0; i < 200; i++) {
+            loanBook.addPerson(new PersonBuilder().withName("Person " + i).build());
+        }
+        new ShardedLoanBookStorage(filePath, 16).saveLoanBook(loanBook);
+
+        // a new storage reads the book first, and then knows what is on disk
+        ShardedLoanBookStorage storage = new ShardedLoanBookStorage(filePath, 16);
+        loanBook = new LoanBook(storage.readLoanBook().get());
+        Set<String> before = shardFiles(filePath);
+        assertEquals(16, before.size());
+
+        storage.saveLoanBook(loanBook);
+        assertEquals(before, shardFiles(filePath));
+
+        Loan removed = loanBook.getPersonList().get(100);
+        loanBook.removePerson(removed);
+        storage.saveLoanBook(loanBook);
+        assertShardsChanged(before, shardFiles(filePath), 1);
+
+        before = shardFiles(filePath);
+        Loan edited = loanBook.getPersonList().get(3);
+        loanBook.setPerson(edited, edited.changePhone(new Phone("91234567")));
+        storage.saveLoanBook(loanBook);
+        assertShardsChanged(before, shardFiles(filePath), 1);
+
+        assertEquals(loanBook, new LoanBook(new ShardedLoanBookStorage(filePath).readLoanBook().get()));
+    }
+
+    @Test
+    public void readLoanBook_corruptedShard_throwsDataLoadingException() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        new ShardedLoanBookStorage(filePath, 2).saveLoanBook(getTypicalLoanBook());
+        Path shardFile = ShardedLoanBookStorage.shardsFolderOf(filePath)
+                .resolve(shardFiles(filePath).iterator().next());
+        byte[] content = Files.readAllBytes(shardFile);
+        content[content.length / 2] ^= 1;
+        Files.write(shardFile, content);
+
+        assertThrows(DataLoadingException.class, () -> new ShardedLoanBookStorage(filePath).readLoanBook());
+    }
+
+    @Test
+    public void readLoanBook_notAManifest_throwsDataLoadingException() throws Exception {
+        Path filePath = testFolder.resolve("loanbook.json");
+        new JsonLoanBookStorage(filePath).saveLoanBook(getTypicalLoanBook());
+        assertThrows(DataLoadingException.class, () -> new ShardedLoanBookStorage(filePath).readLoanBook());
+    }
+
+    @Test
+    public void assignOrders_loansRemovedAndMoved_otherKeysKept() {
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            loans.add(new PersonBuilder().withName("Person " + i).build());
+        }
+        Map<Name, Long> orders = ordersOf(loans, ShardedLoanBookStorage.assignOrders(loans, Map.of()));
+
+        List<Loan> changed = new ArrayList<>(loans);
+        changed.remove(5);
+        changed.add(0, changed.remove(8));
+        changed.add(3, new PersonBuilder().withName("New Person").build());
+        Map<Name, Long> newOrders = ordersOf(changed, ShardedLoanBookStorage.assignOrders(changed, orders));
+
+        for (Loan loan : changed) {
+            if (loan != loans.get(9) && !loan.getName().fullName.equals("New Person")) {
+                assertEquals(orders.get(loan.getName()), newOrders.get(loan.getName()));
+            }
+        }
+    }
+
+    @Test
+    public void assignOrders_noRoomBetweenKeys_allKeysReassigned() {
+        Loan first = new PersonBuilder().withName("First").build();
+        Loan second = new PersonBuilder().withName("Second").build();
+        Loan inserted = new PersonBuilder().withName("Inserted").build();
+        Map<Name, Long> previous = Map.of(first.getName(), 1L, second.getName(), 2L);
+
+        long[] orders = ShardedLoanBookStorage.assignOrders(List.of(first, inserted, second), previous);
+        assertTrue(orders[0] < orders[1] && orders[1] < orders[2]);
+    }
+
+    private static Map<Name, Long> ordersOf(List<Loan> loans, long[] orders) {
+        Map<Name, Long> byName = new HashMap<>();
+        for (int i = 0; i < loans.size(); i++) {
+            if (i > 0) {
+                assertTrue(orders[i - 1] < orders[i]);
+            }
+            byName.put(loans.get(i).getName(), orders[i]);
+        }
+        return byName;
+    }
+
+    private static void assertShardsChanged(Set<String> before, Set<String> after, int expectedChanged) {
+        Set<String> removed = new HashSet<>(before);
+        removed.removeAll(after);
+        Set<String> added = new HashSet<>(after);
+        added.removeAll(before);
+        assertEquals(expectedChanged, removed.size());
+        assertTrue(added.size() <= expectedChanged);
+    }
+
+    private static Set<String> shardFiles(Path filePath) throws IOException {
+        Path folder = ShardedLoanBookStorage.shardsFolderOf(filePath);
+        if (!Files.exists(folder)) {
+            return Set.of();
+        }
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.map(file -> file.getFileName().toString()).collect(Collectors.toSet());
+        }
+    }
+}